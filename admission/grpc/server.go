@@ -143,3 +143,37 @@ func (s *Server) ValidateExecution(
 	audit.Record(orgId, "ALLOWED", "")
 	return &pb.ExecutionResponse{Allowed: true}, nil
 }
+
+// maxBatchSize bounds how many executions one ValidateExecutions call may admit.
+const maxBatchSize = 100
+
+// ValidateExecutions admits a batch of executions in one round trip. Each
+// request goes through the same checks as ValidateExecution, in order, so
+// quotas and rate limits apply exactly as for individual calls. A request
+// that fails validation is reported as denied instead of failing the batch.
+func (s *Server) ValidateExecutions(
+	ctx context.Context,
+	req *pb.BatchExecutionRequest,
+) (*pb.BatchExecutionResponse, error) {
+
+	if len(req.Requests) > maxBatchSize {
+		return nil, status.Errorf(codes.InvalidArgument, "batch exceeds %d requests", maxBatchSize)
+	}
+
+	responses := make([]*pb.ExecutionResponse, 0, len(req.Requests))
+	for _, r := range req.Requests {
+		if ctx.Err() != nil {
+			return nil, status.FromContextError(ctx.Err()).Err()
+		}
+		resp, err := s.ValidateExecution(ctx, r)
+		if err != nil {
+			resp = &pb.ExecutionResponse{
+				Allowed: false,
+				Reason:  status.Convert(err).Message(),
+			}
+		}
+		responses = append(responses, resp)
+	}
+
+	return &pb.BatchExecutionResponse{Responses: responses}, nil
+}
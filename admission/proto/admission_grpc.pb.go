@@ -19,7 +19,8 @@ import (
 const _ = grpc.SupportPackageIsVersion7
 
 const (
-	AdmissionService_ValidateExecution_FullMethodName = "/admission.AdmissionService/ValidateExecution"
+	AdmissionService_ValidateExecution_FullMethodName  = "/admission.AdmissionService/ValidateExecution"
+	AdmissionService_ValidateExecutions_FullMethodName = "/admission.AdmissionService/ValidateExecutions"
 )
 
 // AdmissionServiceClient is the client API for AdmissionService service.
@@ -27,6 +28,7 @@ const (
 // For semantics around ctx use and closing/ending streaming RPCs, please refer to https://pkg.go.dev/google.golang.org/grpc/?tab=doc#ClientConn.NewStream.
 type AdmissionServiceClient interface {
 	ValidateExecution(ctx context.Context, in *ExecutionRequest, opts ...grpc.CallOption) (*ExecutionResponse, error)
+	ValidateExecutions(ctx context.Context, in *BatchExecutionRequest, opts ...grpc.CallOption) (*BatchExecutionResponse, error)
 }
 
 type admissionServiceClient struct {
@@ -46,11 +48,21 @@ func (c *admissionServiceClient) ValidateExecution(ctx context.Context, in *Exec
 	return out, nil
 }
 
+func (c *admissionServiceClient) ValidateExecutions(ctx context.Context, in *BatchExecutionRequest, opts ...grpc.CallOption) (*BatchExecutionResponse, error) {
+	out := new(BatchExecutionResponse)
+	err := c.cc.Invoke(ctx, AdmissionService_ValidateExecutions_FullMethodName, in, out, opts...)
+	if err != nil {
+		return nil, err
+	}
+	return out, nil
+}
+
 // AdmissionServiceServer is the server API for AdmissionService service.
 // All implementations must embed UnimplementedAdmissionServiceServer
 // for forward compatibility
 type AdmissionServiceServer interface {
 	ValidateExecution(context.Context, *ExecutionRequest) (*ExecutionResponse, error)
+	ValidateExecutions(context.Context, *BatchExecutionRequest) (*BatchExecutionResponse, error)
 	mustEmbedUnimplementedAdmissionServiceServer()
 }
 
@@ -61,6 +73,9 @@ type UnimplementedAdmissionServiceServer struct {
 func (UnimplementedAdmissionServiceServer) ValidateExecution(context.Context, *ExecutionRequest) (*ExecutionResponse, error) {
 	return nil, status.Errorf(codes.Unimplemented, "method ValidateExecution not implemented")
 }
+func (UnimplementedAdmissionServiceServer) ValidateExecutions(context.Context, *BatchExecutionRequest) (*BatchExecutionResponse, error) {
+	return nil, status.Errorf(codes.Unimplemented, "method ValidateExecutions not implemented")
+}
 func (UnimplementedAdmissionServiceServer) mustEmbedUnimplementedAdmissionServiceServer() {}
 
 // UnsafeAdmissionServiceServer may be embedded to opt out of forward compatibility for this service.
@@ -92,6 +107,24 @@ func _AdmissionService_ValidateExecution_Handler(srv interface{}, ctx context.Co
 	return interceptor(ctx, in, info, handler)
 }
 
+func _AdmissionService_ValidateExecutions_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
+	in := new(BatchExecutionRequest)
+	if err := dec(in); err != nil {
+		return nil, err
+	}
+	if interceptor == nil {
+		return srv.(AdmissionServiceServer).ValidateExecutions(ctx, in)
+	}
+	info := &grpc.UnaryServerInfo{
+		Server:     srv,
+		FullMethod: AdmissionService_ValidateExecutions_FullMethodName,
+	}
+	handler := func(ctx context.Context, req interface{}) (interface{}, error) {
+		return srv.(AdmissionServiceServer).ValidateExecutions(ctx, req.(*BatchExecutionRequest))
+	}
+	return interceptor(ctx, in, info, handler)
+}
+
 // AdmissionService_ServiceDesc is the grpc.ServiceDesc for AdmissionService service.
 // It's only intended for direct use with grpc.RegisterService,
 // and not to be introspected or modified (even as a copy)
@@ -103,6 +136,10 @@ var AdmissionService_ServiceDesc = grpc.ServiceDesc{
 			MethodName: "ValidateExecution",
 			Handler:    _AdmissionService_ValidateExecution_Handler,
 		},
+		{
+			MethodName: "ValidateExecutions",
+			Handler:    _AdmissionService_ValidateExecutions_Handler,
+		},
 	},
 	Streams:  []grpc.StreamDesc{},
 	Metadata: "proto/admission.proto",
@@ -0,0 +1,21 @@
+package com.loadtest.config;
+
+import com.loadtest.tenant.TenantContextTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * With {@code spring.threads.virtual.enabled} Spring Boot runs Tomcat
+ * requests, {@code @Scheduled} tasks and the application task executor on
+ * virtual threads. Boot applies this decorator to the application task
+ * executor, so async work keeps the caller's tenant.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    @Bean
+    public TaskDecorator tenantContextTaskDecorator() {
+        return new TenantContextTaskDecorator();
+    }
+}
@@ -0,0 +1,35 @@
+package com.loadtest.controller;
+
+import com.loadtest.model.Execution;
+import com.loadtest.service.ExecutionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/executions")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ExecutionController {
+
+    private final ExecutionService executionService;
+
+    /**
+     * One run with its phase and, once DONE, its frozen final stats.
+     */
+    @GetMapping("/{executionId}")
+    public ResponseEntity<Execution> getById(
+            Authentication authentication,
+            @PathVariable String executionId) {
+        String userId = (String) authentication.getPrincipal();
+        Execution execution = executionService.find(executionId).orElse(null);
+        if (execution == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!userId.equals(execution.getUserId())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(execution);
+    }
+}
@@ -0,0 +1,66 @@
+package com.loadtest.controller;
+
+import com.loadtest.dto.QueueStatus;
+import com.loadtest.model.PendingExecutionStatus;
+import com.loadtest.service.ExecutionQueueService;
+import com.loadtest.service.LoadTestOrchestrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/executions/queue")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ExecutionQueueController {
+
+    private final ExecutionQueueService executionQueueService;
+    private final LoadTestOrchestrationService orchestrationService;
+
+    /**
+     * The caller's queued executions, with their places in the whole queue.
+     */
+    @GetMapping
+    public ResponseEntity<List<QueueStatus>> getQueue(Authentication authentication) {
+        String userId = (String) authentication.getPrincipal();
+        return ResponseEntity.ok(executionQueueService.getQueue(userId));
+    }
+
+    @GetMapping("/{executionId}")
+    public ResponseEntity<QueueStatus> getStatus(
+            Authentication authentication,
+            @PathVariable String executionId) {
+        String userId = (String) authentication.getPrincipal();
+        QueueStatus status = executionQueueService.getStatus(executionId).orElse(null);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!userId.equals(status.getUserId())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @DeleteMapping("/{executionId}")
+    public ResponseEntity<Void> cancel(
+            Authentication authentication,
+            @PathVariable String executionId) {
+        String userId = (String) authentication.getPrincipal();
+        QueueStatus status = executionQueueService.getStatus(executionId).orElse(null);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!userId.equals(status.getUserId())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (status.getStatus() != PendingExecutionStatus.QUEUED) {
+            return ResponseEntity.status(409).build();
+        }
+        // Same path as stopping the scenario, so its status is updated too
+        orchestrationService.stopScenario(executionId);
+        return ResponseEntity.noContent().build();
+    }
+}
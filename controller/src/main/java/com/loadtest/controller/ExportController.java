@@ -1,12 +1,27 @@
 package com.loadtest.controller;
 
+import com.loadtest.dto.MetricExportFilter;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.ReportArtifact;
+import com.loadtest.model.ReportArtifactKind;
 import com.loadtest.model.TestReport;
 import com.loadtest.service.ExportService;
+import com.loadtest.service.ReportArtifactService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/export")
@@ -15,39 +30,130 @@ import org.springframework.web.bind.annotation.*;
 public class ExportController {
     
     private final ExportService exportService;
+    private final ReportArtifactService reportArtifactService;
     
+    /**
+     * Streams the scenario, its metrics and their stats as one JSON
+     * document, compact unless {@code pretty} is set. A plain export of a
+     * finished execution is served from its stored artifact.
+     */
     @GetMapping("/{scenarioId}/json")
-    public ResponseEntity<byte[]> exportJson(@PathVariable String scenarioId) {
-        try {
-            byte[] data = exportService.exportToJson(scenarioId);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                    "attachment; filename=loadtest-" + scenarioId + ".json")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+    public ResponseEntity<?> exportJson(
+            @PathVariable String scenarioId,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "false") boolean pretty) {
+        LoadTestScenario scenario = exportService.getScenario(scenarioId);
+        if (executionId != null && from == null && to == null && !pretty) {
+            Optional<ReportArtifact> artifact = reportArtifactService.find(scenarioId, executionId, ReportArtifactKind.JSON);
+            if (artifact.isPresent()) {
+                return artifact(artifact.get(), CacheControl.noCache(), "loadtest-" + scenarioId + ".json");
+            }
         }
+        MetricExportFilter filter = filter(scenarioId, executionId, from, to);
+        StreamingResponseBody body = out -> exportService.streamJson(scenario, filter, pretty, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, 
+                "attachment; filename=loadtest-" + scenarioId + ".json")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
     
+    /**
+     * Same as the JSON export, one record per line.
+     */
+    @GetMapping("/{scenarioId}/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @PathVariable String scenarioId,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        LoadTestScenario scenario = exportService.getScenario(scenarioId);
+        MetricExportFilter filter = filter(scenarioId, executionId, from, to);
+        StreamingResponseBody body = out -> exportService.streamNdjson(scenario, filter, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, 
+                "attachment; filename=loadtest-" + scenarioId + ".ndjson")
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+    
+    /**
+     * Streams the scenario's metrics as CSV while they are read, optionally
+     * narrowed to one execution, a time range and a set of columns, and
+     * gzipped.
+     */
     @GetMapping("/{scenarioId}/csv")
-    public ResponseEntity<byte[]> exportCsv(@PathVariable String scenarioId) {
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @PathVariable String scenarioId,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> columns,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        List<String> selected;
         try {
-            byte[] data = exportService.exportToCsv(scenarioId);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                    "attachment; filename=loadtest-" + scenarioId + ".csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            selected = exportService.resolveCsvColumns(columns);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+        MetricExportFilter filter = filter(scenarioId, executionId, from, to);
+        
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.streamCsv(filter, selected, compressed);
+                compressed.finish();
+            } else {
+                exportService.streamCsv(filter, selected, out);
+            }
+        };
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, 
+                "attachment; filename=loadtest-" + scenarioId + (gzip ? ".csv.gz" : ".csv"))
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+            .body(body);
+    }
+    
+    /**
+     * Streams the scenario's metrics, or their per-second rollups with
+     * {@code table=rollups}, as an Arrow IPC stream for pandas, Polars or
+     * Spark.
+     */
+    @GetMapping("/{scenarioId}/arrow")
+    public ResponseEntity<StreamingResponseBody> exportArrow(
+            @PathVariable String scenarioId,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "metrics") String table) {
+        ExportService.ArrowTable arrowTable;
+        try {
+            arrowTable = ExportService.ArrowTable.valueOf(table.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        MetricExportFilter filter = filter(scenarioId, executionId, from, to);
+        StreamingResponseBody body = out -> exportService.streamArrow(filter, arrowTable, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, 
+                "attachment; filename=loadtest-" + scenarioId + "-" + table.toLowerCase() + ".arrows")
+            .contentType(MediaType.parseMediaType("application/vnd.apache.arrow.stream"))
+            .body(body);
     }
     
     @GetMapping("/{scenarioId}/html")
-    public ResponseEntity<byte[]> exportHtml(@PathVariable String scenarioId) {
+    public ResponseEntity<?> exportHtml(@PathVariable String scenarioId) {
+        LoadTestScenario scenario = exportService.getScenario(scenarioId);
+        Optional<ReportArtifact> artifact = reportArtifactService.find(scenario, ReportArtifactKind.HTML);
+        if (artifact.isPresent()) {
+            return artifact(artifact.get(), CacheControl.noCache(), "loadtest-" + scenarioId + ".html");
+        }
         try {
             byte[] data = exportService.exportToHtml(scenarioId);
             
@@ -62,8 +168,52 @@ public class ExportController {
     }
     
     @GetMapping("/{scenarioId}/report")
-    public ResponseEntity<TestReport> getReport(@PathVariable String scenarioId) {
+    public ResponseEntity<?> getReport(@PathVariable String scenarioId) {
+        LoadTestScenario scenario = exportService.getScenario(scenarioId);
+        Optional<ReportArtifact> artifact = reportArtifactService.find(scenario, ReportArtifactKind.REPORT);
+        if (artifact.isPresent()) {
+            return artifact(artifact.get(), CacheControl.noCache(), null);
+        }
         TestReport report = exportService.generateReport(scenarioId);
         return ResponseEntity.ok(report);
     }
+    
+    /**
+     * A stored artifact by content hash. The bytes behind a hash never
+     * change, so it may be cached for good.
+     */
+    @GetMapping("/artifacts/{sha256}")
+    public ResponseEntity<Resource> getArtifact(@PathVariable String sha256) {
+        return reportArtifactService.findBySha256(sha256)
+            .map(a -> artifact(a, CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable(), null))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Serves an artifact with its hash as a strong ETag, so If-None-Match
+     * gets a 304, and as a Resource, so Range requests get a 206. The
+     * scenario URLs are revalidated on every use since a new run changes
+     * what they point at; Content-Location names the immutable URL.
+     */
+    private ResponseEntity<Resource> artifact(ReportArtifact artifact, CacheControl cacheControl, String filename) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag("\"" + artifact.getSha256() + "\"")
+            .cacheControl(cacheControl)
+            .lastModified(artifact.getCreatedAt())
+            .header(HttpHeaders.CONTENT_LOCATION, "/api/v1/export/artifacts/" + artifact.getSha256())
+            .contentType(MediaType.parseMediaType(artifact.getContentType()));
+        if (filename != null) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        }
+        return response.body(reportArtifactService.open(artifact));
+    }
+    
+    private static MetricExportFilter filter(String scenarioId, String executionId, Instant from, Instant to) {
+        return MetricExportFilter.builder()
+            .scenarioId(scenarioId)
+            .executionId(executionId)
+            .from(from)
+            .to(to)
+            .build();
+    }
 }
@@ -1,10 +1,17 @@
 package com.loadtest.controller;
 
 import com.loadtest.dto.CreateScenarioRequest;
+import com.loadtest.dto.QueueStatus;
+import com.loadtest.dto.SchedulePreview;
 import com.loadtest.model.*;
+import com.loadtest.notification.RecipientValidator;
 import com.loadtest.repository.ScenarioRepository;
+import com.loadtest.service.AdaptiveLoadService;
+import com.loadtest.service.ExecutionQueueService;
+import com.loadtest.service.ExecutionService;
 import com.loadtest.service.LoadTestOrchestrationService;
 import com.loadtest.service.MetricsAggregationService;
+import com.loadtest.service.TaskPlannerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +33,11 @@ public class ScenarioController {
     private final ScenarioRepository scenarioRepository;
     private final LoadTestOrchestrationService orchestrationService;
     private final MetricsAggregationService metricsService;
+    private final TaskPlannerService taskPlannerService;
+    private final AdaptiveLoadService adaptiveLoadService;
+    private final ExecutionQueueService executionQueueService;
+    private final ExecutionService executionService;
+    private final RecipientValidator recipientValidator;
 
     @PostMapping
     public ResponseEntity<LoadTestScenario> create(
@@ -49,6 +61,8 @@ public class ScenarioController {
                                             .rps(b.getRps())
                                             .build())
                                     .collect(Collectors.toList()))
+                    .stepRps(request.getLoadProfile().getStepRps())
+                    .holdSeconds(request.getLoadProfile().getHoldSeconds())
                     .build();
         }
 
@@ -63,6 +77,43 @@ public class ScenarioController {
                     .build();
         }
 
+        AbortPolicy abortPolicy = null;
+        if (request.getAbortPolicy() != null && request.getAbortPolicy().getConditions() != null) {
+            abortPolicy = AbortPolicy.builder()
+                    .conditions(request.getAbortPolicy().getConditions().stream()
+                            .map(c -> AbortPolicy.Condition.builder()
+                                    .metric(c.getMetric())
+                                    .threshold(c.getThreshold())
+                                    .forSeconds(c.getForSeconds())
+                                    .build())
+                            .toList())
+                    .build();
+        }
+
+        ConvergencePolicy convergencePolicy = null;
+        if (request.getConvergencePolicy() != null) {
+            convergencePolicy = ConvergencePolicy.builder()
+                    .percentiles(request.getConvergencePolicy().getPercentiles())
+                    .tolerancePercent(request.getConvergencePolicy().getTolerancePercent())
+                    .confidence(request.getConvergencePolicy().getConfidence())
+                    .minDurationSeconds(request.getConvergencePolicy().getMinDurationSeconds())
+                    .stableSeconds(request.getConvergencePolicy().getStableSeconds())
+                    .build();
+        }
+
+        List<AlertSubscription> alertSubscriptions = null;
+        if (request.getAlerts() != null) {
+            request.getAlerts().forEach(a -> recipientValidator.validate(a.getChannel(), a.getRecipient()));
+            alertSubscriptions = request.getAlerts().stream()
+                    .map(a -> AlertSubscription.builder()
+                            .type(a.getType())
+                            .channel(a.getChannel())
+                            .recipient(a.getRecipient())
+                            .config(a.getConfig())
+                            .build())
+                    .toList();
+        }
+
         LoadTestScenario scenario = LoadTestScenario.builder()
                 .userId(userId)
                 .name(request.getName())
@@ -74,6 +125,9 @@ public class ScenarioController {
                 .numWorkers(request.getNumWorkers())
                 .loadProfile(profile)
                 .slaConfig(sla)
+                .abortPolicy(abortPolicy)
+                .convergencePolicy(convergencePolicy)
+                .alertSubscriptions(alertSubscriptions)
                 .status(ScenarioStatus.DRAFT)
                 .approvalStatus(ApprovalStatus.APPROVED) // Auto-approve so they can be run immediately
                 .ignoreTlsErrors(request.getIgnoreTlsErrors() != null ? request.getIgnoreTlsErrors() : false)
@@ -107,6 +161,31 @@ public class ScenarioController {
 
     @PostMapping("/{id}/start")
     public ResponseEntity<StartResponse> start(
+            Authentication authentication,
+            @PathVariable String id,
+            @RequestParam(defaultValue = "NORMAL") ExecutionPriority priority) {
+        String userId = (String) authentication.getPrincipal();
+        LoadTestScenario scenario = scenarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Scenario not found"));
+
+        if (!scenario.getUserId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        String executionId = orchestrationService.startScenario(id, priority);
+
+        QueueStatus queued = executionQueueService.getStatus(executionId)
+                .filter(status -> status.getStatus() == PendingExecutionStatus.QUEUED)
+                .orElse(null);
+        if (queued != null) {
+            return ResponseEntity.accepted().body(new StartResponse(
+                    executionId, ScenarioStatus.QUEUED, queued.getPosition(), queued.getEstimatedStartAt()));
+        }
+        return ResponseEntity.ok(new StartResponse(executionId, ScenarioStatus.RUNNING, null, null));
+    }
+
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<SchedulePreview> previewSchedule(
             Authentication authentication,
             @PathVariable String id) {
         String userId = (String) authentication.getPrincipal();
@@ -117,11 +196,24 @@ public class ScenarioController {
             return ResponseEntity.status(403).build();
         }
 
-        String executionId = orchestrationService.startScenario(id);
-        scenario.setStatus(ScenarioStatus.RUNNING);
-        scenarioRepository.save(scenario);
+        return ResponseEntity.ok(taskPlannerService.preview(scenario));
+    }
+
+    @GetMapping("/{id}/capacity")
+    public ResponseEntity<CapacitySearch> getCapacitySearch(
+            Authentication authentication,
+            @PathVariable String id) {
+        String userId = (String) authentication.getPrincipal();
+        LoadTestScenario scenario = scenarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Scenario not found"));
+
+        if (!scenario.getUserId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
 
-        return ResponseEntity.ok(new StartResponse(executionId));
+        return adaptiveLoadService.getLatest(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{id}/stop")
@@ -137,16 +229,33 @@ public class ScenarioController {
         }
 
         if (scenario.getLastExecutionId() != null) {
-            orchestrationService.stopScenario(scenario.getLastExecutionId());
+            orchestrationService.stopScenario(scenario.getLastExecutionId()); // Saves the scenario as CANCELLED
+        } else {
+            scenario.setRunning(false);
+            scenario.setStatus(ScenarioStatus.CANCELLED);
+            scenarioRepository.save(scenario);
         }
 
-        scenario.setRunning(false);
-        scenario.setStatus(ScenarioStatus.CANCELLED);
-        scenarioRepository.save(scenario);
-
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{id}/executions")
+    public ResponseEntity<List<Execution>> getExecutions(
+            Authentication authentication,
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        String userId = (String) authentication.getPrincipal();
+        LoadTestScenario scenario = scenarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Scenario not found"));
+
+        if (!scenario.getUserId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(executionService.history(id, Math.max(0, page), Math.min(Math.max(1, size), 100)));
+    }
+
     @GetMapping("/{id}/stats/realtime")
     public ResponseEntity<ScenarioStats> getStats(
             Authentication authentication,
@@ -167,5 +276,8 @@ public class ScenarioController {
     @lombok.Value
     public static class StartResponse {
         String executionId;
+        ScenarioStatus status;
+        Integer queuePosition;    // Only while QUEUED
+        Instant estimatedStartAt; // Only while QUEUED
     }
 }
@@ -1,8 +1,11 @@
 package com.loadtest.controller;
 
+import com.loadtest.dto.StopLatencyReport;
 import com.loadtest.dto.WorkerMetrics;
+import com.loadtest.model.RebalanceEvent;
 import com.loadtest.model.WorkerHeartbeat;
 import com.loadtest.model.WorkerStatus;
+import com.loadtest.service.ExecutionMonitorService;
 import com.loadtest.service.RedisQueueService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +21,7 @@ import java.util.stream.Collectors;
 public class WorkerController {
 
     private final RedisQueueService queueService;
+    private final ExecutionMonitorService executionMonitorService;
 
     @GetMapping("/status")
     public ResponseEntity<List<WorkerMetrics>> getStatus() {
@@ -45,4 +49,18 @@ public class WorkerController {
         }
         return ResponseEntity.ok(heartbeat);
     }
+
+    @GetMapping("/cancellations/{executionId}")
+    public ResponseEntity<StopLatencyReport> getStopLatency(@PathVariable String executionId) {
+        StopLatencyReport report = queueService.getStopLatencyReport(executionId);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/rebalances/{executionId}")
+    public ResponseEntity<List<RebalanceEvent>> getRebalances(@PathVariable String executionId) {
+        return ResponseEntity.ok(executionMonitorService.getRebalanceEvents(executionId));
+    }
 }
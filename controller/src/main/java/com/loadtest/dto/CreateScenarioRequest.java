@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.loadtest.model.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import java.time.Instant;
 import java.util.List;
@@ -41,7 +42,10 @@ public class CreateScenarioRequest {
     
     private LoadProfileRequest loadProfile;
     private SlaConfigRequest slaConfig;
-    private List<AlertConfigRequest> alerts;
+    @Valid
+    private AbortPolicyRequest abortPolicy;
+    private ConvergencePolicyRequest convergencePolicy;
+    private List<@Valid AlertConfigRequest> alerts;
     private Boolean ignoreTlsErrors;
 
     @Data
@@ -53,6 +57,8 @@ public class CreateScenarioRequest {
         private int targetRps;
         private int rampUpSeconds;
         private List<BurstConfigRequest> bursts;
+        private int stepRps;
+        private int holdSeconds;
     }
 
     @Data
@@ -101,12 +107,43 @@ public class CreateScenarioRequest {
         private double maxErrorRate = 1.0;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AbortPolicyRequest {
+        private List<@Valid AbortConditionRequest> conditions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AbortConditionRequest {
+        @NotNull
+        private AbortMetric metric;
+        private double threshold;
+        @Min(value = 1, message = "An abort condition must hold for at least 1 second")
+        private int forSeconds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConvergencePolicyRequest {
+        private List<Double> percentiles = List.of(50.0, 95.0, 99.0);
+        private double tolerancePercent = 5.0;
+        private double confidence = 0.95;
+        private int minDurationSeconds = 60;
+        private int stableSeconds = 10;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     public static class AlertConfigRequest {
         private AlertType type;
+        @NotNull
         private AlertChannel channel;
+        @NotBlank(message = "An alert needs a recipient: an email address or a webhook URL")
         private String recipient;
         private Map<String, String> config;
     }
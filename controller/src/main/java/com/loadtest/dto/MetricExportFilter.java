@@ -0,0 +1,22 @@
+package com.loadtest.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.Instant;
+
+/**
+ * Which metrics of a scenario an export covers. Everything but the
+ * scenario is optional.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricExportFilter {
+    private String scenarioId;
+    private String executionId; // Only this run; metrics stored before executions were recorded have none
+    private Instant from;       // Inclusive
+    private Instant to;         // Exclusive
+}
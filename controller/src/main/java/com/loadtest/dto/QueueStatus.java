@@ -0,0 +1,28 @@
+package com.loadtest.dto;
+
+import com.loadtest.model.ExecutionPriority;
+import com.loadtest.model.PendingExecutionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatus {
+    private String executionId;
+    private String scenarioId;
+    private String userId;
+    private String tenantId;
+    private ExecutionPriority priority;
+    private PendingExecutionStatus status;
+    private String reason;
+    private Integer position;         // 1-based place in dispatch order, null once it has left the queue
+    private Instant estimatedStartAt; // Conservative: assumes everything ahead runs one after another
+    private Instant enqueuedAt;
+    private Instant dispatchedAt;
+}
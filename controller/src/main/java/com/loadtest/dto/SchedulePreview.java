@@ -0,0 +1,32 @@
+package com.loadtest.dto;
+
+import com.loadtest.model.RateSegment;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulePreview {
+    private String scenarioId;
+    private int durationSeconds;
+    private int peakRps;
+    private int capacityRps;
+    private List<RateSegment> aggregate;
+    private List<WorkerSchedule> workers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkerSchedule {
+        private int slot;
+        private String workerId; // null when no idle worker is available for the slot yet
+        private int peakRps;
+        private List<RateSegment> segments;
+    }
+}
@@ -0,0 +1,20 @@
+package com.loadtest.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StopLatencyReport {
+    private String executionId;
+    private Instant issuedAt;
+    private long workersAcknowledged;
+    private double p50PropagationMs;
+    private double p99PropagationMs;
+    private double maxPropagationMs;
+}
@@ -0,0 +1,7 @@
+package com.loadtest.exception;
+
+public class InsufficientCapacityException extends RuntimeException {
+    public InsufficientCapacityException(int requestedRps, int availableRps) {
+        super("Insufficient worker capacity. Requested: " + requestedRps + " RPS, Available: " + availableRps + " RPS");
+    }
+}
@@ -0,0 +1,7 @@
+package com.loadtest.exception;
+
+public class InvalidRecipientException extends RuntimeException {
+    public InvalidRecipientException(String recipient, String reason) {
+        super("Invalid alert recipient " + recipient + ": " + reason);
+    }
+}
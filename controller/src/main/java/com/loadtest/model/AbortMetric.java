@@ -0,0 +1,8 @@
+package com.loadtest.model;
+
+public enum AbortMetric {
+    ERROR_RATE,   // Percent of requests failing
+    AVG_LATENCY,  // Milliseconds
+    P95_LATENCY,  // Milliseconds
+    P99_LATENCY   // Milliseconds
+}
@@ -0,0 +1,30 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+/**
+ * Opt-in conditions that end an execution early, e.g. "error rate above 5%
+ * for 30 seconds". Any one condition held for its full duration aborts the
+ * run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AbortPolicy {
+    private List<Condition> conditions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Condition {
+        private AbortMetric metric;
+        private double threshold;  // Breached while the metric is above this
+        private int forSeconds;    // How long it must stay breached
+    }
+}
@@ -7,9 +7,10 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
+import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "alerts")
@@ -18,10 +19,28 @@ public class Alert {
     private String id;
     private String userId;
     private String scenarioId;
+    private String executionId;
+    private String rule; // SLA rule that raised it, e.g. "p95-latency"
     private String type;
     private String severity;
     private String title;
     private String message;
     private boolean acknowledged;
     private Instant createdAt;
+    private Instant resolvedAt; // Set when the condition clears
+    private Window window;      // Series points that raised an ANOMALY alert
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Window {
+        private String series;        // "latency" (avg ms per second) or "error-rate" (% per second)
+        private Instant from;
+        private Instant to;
+        private List<Instant> timestamps;
+        private List<Double> values;
+        private double baseline;      // Expected value when the anomaly started
+        private double deviation;     // Expected spread around it
+    }
 }
@@ -0,0 +1,22 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+/**
+ * Where a scenario's alerts are delivered, e.g. every SLA breach to an email
+ * address or every alert to a webhook.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertSubscription {
+    private AlertType type;        // Only alerts of this type, all of them when null
+    private AlertChannel channel;
+    private String recipient;      // Email address for EMAIL, URL for SLACK and WEBHOOK
+    private Map<String, String> config; // Channel options, e.g. extra webhook headers
+}
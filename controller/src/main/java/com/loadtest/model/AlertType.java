@@ -3,5 +3,6 @@ package com.loadtest.model;
 public enum AlertType {
     SLA_BREACH,
     SYSTEM_ERROR,
-    WORKER_OFFLINE
+    WORKER_OFFLINE,
+    ANOMALY // Sudden shift in a live latency or error series
 }
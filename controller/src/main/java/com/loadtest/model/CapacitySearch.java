@@ -0,0 +1,52 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress and outcome of an ADAPTIVE execution's search for the highest
+ * rate that holds the scenario's SLA.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "capacity_searches")
+public class CapacitySearch {
+    @Id
+    private String id;
+    private String executionId;
+    private String scenarioId;
+    private CapacitySearchStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    private int currentRps;
+    private Instant rateChangedAt;
+    private int lowerBoundRps;     // Highest rate that held the SLA so far
+    private Integer upperBoundRps; // Lowest rate that broke it, null until the first breach
+    private int limitRps;          // Search never goes above this
+    private Integer maxSustainableRps;
+
+    private List<Step> steps;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Step {
+        private int rps;
+        private Instant evaluatedAt;
+        private double achievedRps;
+        private double p99LatencyMs;
+        private double successRate;
+        private boolean held;
+        private String breach;
+    }
+}
@@ -0,0 +1,8 @@
+package com.loadtest.model;
+
+public enum CapacitySearchStatus {
+    SEARCHING,      // Still stepping or bisecting
+    CONVERGED,      // Bounds closed to the search resolution
+    LIMIT_REACHED,  // SLA held at the profile's targetRps or the worker capacity
+    STOPPED         // Execution ended before the search finished
+}
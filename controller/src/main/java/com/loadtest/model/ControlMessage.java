@@ -0,0 +1,24 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Execution-scoped command published once on the worker control channel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ControlMessage {
+    private ControlType type;
+    private String executionId;
+    private long issuedAt; // epoch millis, used by workers to report propagation latency
+    private Map<String, Integer> taskRates; // RATE: new requests per second by task id
+    private Long startAt; // START: new start epoch in epoch millis
+    private List<String> taskIds; // REVOKE: tasks to stop
+}
@@ -0,0 +1,8 @@
+package com.loadtest.model;
+
+public enum ControlType {
+    CANCEL, // Stop every task of an execution
+    RATE,   // Replace the rate of an execution's tasks
+    START,  // Move the coordinated start epoch of an execution
+    REVOKE  // Stop some tasks of an execution, e.g. ones moved off a lost worker
+}
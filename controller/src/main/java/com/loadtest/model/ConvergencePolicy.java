@@ -0,0 +1,27 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+/**
+ * Opt-in early stop for runs whose latency distribution has settled. Each
+ * listed percentile is estimated every second; once the run is past
+ * {@code minDurationSeconds} and, for every percentile, both the batch-means
+ * confidence interval of those estimates and their drift have stayed within
+ * {@code tolerancePercent} of the estimate for {@code stableSeconds}, the
+ * run completes early. Zero or missing values take the defaults in brackets.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConvergencePolicy {
+    private List<Double> percentiles;  // e.g. [50, 95, 99] (the default)
+    private double tolerancePercent;   // Interval half-width and drift relative to the estimate (5)
+    private double confidence;         // Confidence level of the interval (0.95)
+    private int minDurationSeconds;    // Never stop before this (60)
+    private int stableSeconds;         // Drift window, and how long it must all stay within tolerance (10)
+}
@@ -0,0 +1,48 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * One run of a scenario, kept after the next run starts. Once it is
+ * {@link ExecutionPhase#DONE} its aggregate stats are frozen in
+ * {@code finalStats}, so its report no longer needs the raw metrics.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "executions")
+@CompoundIndexes({
+    @CompoundIndex(name = "scenario_created", def = "{'scenarioId': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "phase_ended", def = "{'phase': 1, 'endedAt': 1}")
+})
+public class Execution {
+    @Id
+    private String id; // The execution id, the prefix of its task ids
+    private String scenarioId;
+    private String userId;
+    private String scenarioName;
+    private ExecutionPriority priority;
+    private int numWorkers;
+    private int durationSeconds;
+
+    private ExecutionPhase phase;
+    private ScenarioStatus outcome; // COMPLETED, CANCELLED, ABORTED or FAILED once it has ended
+    private String reason;
+
+    private Instant createdAt;
+    private Instant dispatchedAt;
+    private Instant startedAt;   // When load began, after the start barrier if there is one
+    private Instant endedAt;
+    private Instant finalizedAt;
+
+    private ScenarioStats finalStats;
+}
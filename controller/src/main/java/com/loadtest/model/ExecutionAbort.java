@@ -0,0 +1,42 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Why an execution was stopped by its abort policy, with the per-second
+ * values of the breached metric that led up to it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "execution_aborts")
+public class ExecutionAbort {
+    @Id
+    private String id;
+    private String executionId;
+    private String scenarioId;
+    private String reason;
+    private AbortPolicy.Condition condition;
+    private Instant breachStartedAt;
+    private Instant abortedAt;
+
+    private List<Point> timeline;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private Instant at;
+        private double value;     // Metric over the trailing evaluation window ending at this second
+        private boolean breached;
+    }
+}
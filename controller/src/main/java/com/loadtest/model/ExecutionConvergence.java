@@ -0,0 +1,62 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * How the percentile estimates of an execution with a
+ * {@link ConvergencePolicy} and their batch-means confidence intervals
+ * developed, and whether it stopped early.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "execution_convergence")
+public class ExecutionConvergence {
+    @Id
+    private String id;
+    private String executionId;
+    private String scenarioId;
+    private ConvergencePolicy policy;
+    private boolean converged;
+    private Instant convergedAt;
+    private long elapsedSeconds;
+    private int plannedDurationSeconds;
+    private long savedSeconds;     // Planned duration not run because of the early stop
+
+    private List<TracePoint> trace;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TracePoint {
+        private Instant at;
+        private long elapsedSeconds;
+        private long requests;
+        private boolean withinTolerance;
+        private List<Estimate> estimates;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Estimate {
+        private double percentile;
+        private double valueMs;          // Mean of the per-second estimates so far
+        private double lowerMs;
+        private double upperMs;
+        private double halfWidthPercent; // Half the interval as a share of the estimate
+        private double driftPercent;     // Movement of the estimate over the stable window, same share
+        private int batches;             // Batch means the interval is taken over
+        private int batchSeconds;        // Seconds per batch
+    }
+}
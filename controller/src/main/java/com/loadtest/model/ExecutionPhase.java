@@ -0,0 +1,12 @@
+package com.loadtest.model;
+
+/**
+ * Lifecycle of an {@link Execution}, in order. Phases only move forward.
+ */
+public enum ExecutionPhase {
+    QUEUED,       // Accepted, waiting for worker capacity
+    DISPATCHING,  // Tasks published, waiting for the start barrier
+    RUNNING,      // Workers are generating load
+    FINALIZING,   // Stopped, late results may still arrive
+    DONE          // Final stats frozen, nothing changes any more
+}
@@ -0,0 +1,7 @@
+package com.loadtest.model;
+
+public enum ExecutionPriority {
+    LOW,
+    NORMAL,
+    HIGH
+}
@@ -16,4 +16,6 @@ public class LoadProfile {
     private int targetRps;
     private int rampUpSeconds;
     private List<BurstConfig> bursts;
+    private int stepRps;      // ADAPTIVE: increase per step until the SLA first breaks
+    private int holdSeconds;  // ADAPTIVE: how long a rate must hold the SLA to count
 }
@@ -5,8 +5,10 @@ import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -34,16 +36,21 @@ public class LoadTestScenario {
     private int version;
     private String configJson; // For versioning/snapshots
     
-    private String lastExecutionId;
+    @Indexed
+    private String lastExecutionId; // Its full history is in the executions collection
     private Instant lastExecutedAt;
     private boolean running;
     
     private String approvedBy;
     private String approvalComment;
     private SlaConfig slaConfig;
+    private AbortPolicy abortPolicy; // Optional, ends the run early on a sustained breach
+    private ConvergencePolicy convergencePolicy; // Optional, ends the run once its percentiles are stable
+    private List<AlertSubscription> alertSubscriptions; // Where its alerts are delivered
     private boolean ignoreTlsErrors;
     
     private Instant createdAt;
     private Instant startedAt;
     private Instant completedAt;
+    private Instant endedAt; // When the last execution stopped, however it ended
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
 
@@ -13,10 +15,15 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "metrics")
+@CompoundIndexes({
+    @CompoundIndex(name = "scenario_time", def = "{'scenarioId': 1, 'timestamp': -1}"),
+    @CompoundIndex(name = "execution_time", def = "{'executionId': 1, 'timestamp': -1}")
+})
 public class Metric {
     @Id
     private String id;
     private String scenarioId;
+    private String executionId;
     private String workerId;
     
     private Instant timestamp;
@@ -0,0 +1,51 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An execution waiting in the capacity queue, kept after dispatch as a
+ * record of how long it waited.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pending_executions")
+public class PendingExecution {
+    @Id
+    private String id;
+    private String executionId;
+    private String scenarioId;
+    private String userId;     // Scenario owner; only they see or cancel the entry
+    private String tenantId;   // Organization, or the scenario owner when there is none
+    private ExecutionPriority priority;
+    private PendingExecutionStatus status;
+    private String reason;
+
+    private int requiredWorkers;
+    private int durationSeconds;
+
+    private Instant enqueuedAt;
+    private Instant dispatchedAt;
+
+    @Builder.Default
+    private List<Transition> transitions = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Transition {
+        private PendingExecutionStatus status;
+        private Instant at;
+        private String detail;
+    }
+}
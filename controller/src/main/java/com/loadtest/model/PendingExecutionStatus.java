@@ -0,0 +1,8 @@
+package com.loadtest.model;
+
+public enum PendingExecutionStatus {
+    QUEUED,      // Waiting for enough idle worker capacity
+    DISPATCHED,  // Tasks published, the execution is running
+    CANCELLED,   // Stopped before it was dispatched
+    FAILED       // Dispatch failed, see reason
+}
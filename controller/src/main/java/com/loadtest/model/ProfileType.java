@@ -4,5 +4,6 @@ public enum ProfileType {
     CONSTANT,  // Fixed RPS
     RAMP,      // Gradual increase
     BURST,     // Sudden spikes
-    SPIKE      // Single large spike
+    SPIKE,     // Single large spike
+    ADAPTIVE   // Closed-loop search for the highest RPS that holds the SLA
 }
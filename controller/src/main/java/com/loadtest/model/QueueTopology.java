@@ -0,0 +1,7 @@
+package com.loadtest.model;
+
+public enum QueueTopology {
+    SHARED,   // Single task list shared by all workers
+    SHARDED,  // Tasks spread over N shard lists
+    WORKER    // Tasks pushed to per-worker inboxes
+}
@@ -0,0 +1,15 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateSegment {
+    private int offsetSeconds; // Seconds after task start at which this rate takes effect
+    private int rps;
+}
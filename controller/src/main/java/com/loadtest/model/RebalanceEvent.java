@@ -0,0 +1,33 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "rebalance_events")
+public class RebalanceEvent {
+    @Id
+    private String id;
+    private String executionId;
+    private String scenarioId;
+    private String lostWorkerId;
+    private List<String> lostTaskIds;
+    private List<String> reissuedTaskIds;
+    private List<String> replacementWorkerIds;
+    private Instant detectedAt;
+    private int elapsedSeconds;
+
+    private int intendedRps;        // Aggregate the plan asks for at detection time
+    private int reissuedRps;        // Share of it that was running on the lost worker
+    private double achievedRpsBefore;
+    private Double achievedRpsAfter; // Filled in once the replacement tasks have settled
+}
@@ -0,0 +1,35 @@
+package com.loadtest.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * A report of a finished execution, rendered once. The bytes live in
+ * GridFS under their SHA-256, so identical renders are stored once and the
+ * hash doubles as a strong ETag.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "report_artifacts")
+public class ReportArtifact {
+    @Id
+    private String id; // executionId:kind
+    private String executionId;
+    private String scenarioId;
+    private ReportArtifactKind kind;
+    @Indexed
+    private int formatVersion; // Rendered by this ReportArtifactService.FORMAT_VERSION
+    @Indexed
+    private String sha256;
+    private String contentType;
+    private long length;
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package com.loadtest.model;
+
+public enum ReportArtifactKind {
+    REPORT, // TestReport as JSON, GET /export/{scenarioId}/report
+    HTML,   // GET /export/{scenarioId}/html
+    JSON    // Metrics of the execution, GET /export/{scenarioId}/json?executionId=
+}
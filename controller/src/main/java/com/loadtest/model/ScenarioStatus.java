@@ -6,5 +6,6 @@ public enum ScenarioStatus {
     RUNNING,
     COMPLETED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    ABORTED   // Stopped by its abort policy
 }
@@ -26,5 +26,6 @@ public class ScheduledTest {
     private Instant lastRunAt;
     private String lastRunStatus;
     private String lastRunScenarioId;
+    private String lastRunKey;  // Idempotency key of the last fired run: {id}:{slot epoch ms}
     private Instant createdAt;
 }
@@ -0,0 +1,6 @@
+package com.loadtest.model;
+
+public enum StartMode {
+    IMMEDIATE,   // Each worker starts as soon as it pops its task
+    COORDINATED  // All workers start together at a start epoch chosen by the controller
+}
@@ -19,5 +19,7 @@ public class TestReport {
     private ScenarioStats stats;
     private List<String> insights;
     private List<String> recommendations;
+    private ExecutionAbort abort; // Set when the last run was stopped by its abort policy
+    private ExecutionConvergence convergence; // Set when the last run had a convergence policy
     private Instant generatedAt;
 }
@@ -16,4 +16,5 @@ public class WorkerHeartbeat {
     private WorkerStatus status;
     private String currentTaskId;
     private long requestsProcessed;
+    private double saturatedRps; // Achieved RPS the last time the worker fell short of its target, 0 if it never has
 }
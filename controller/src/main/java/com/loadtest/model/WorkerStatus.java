@@ -3,6 +3,7 @@ package com.loadtest.model;
 public enum WorkerStatus {
     IDLE,
     BUSY,
+    DRAINING,
     ERROR,
     OFFLINE
 }
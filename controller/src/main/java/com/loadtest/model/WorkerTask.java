@@ -4,17 +4,19 @@ import lombok.Data;
 import lombok.Builder;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import com.loadtest.utils.RateScheduleCompiler;
 import java.time.Instant;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class WorkerTask {
     private String taskId;
+    private String executionId;
     private String scenarioId;
     private String targetUrl;
     private HttpMethod method;
@@ -27,34 +29,51 @@ public class WorkerTask {
     private Integer timeoutSeconds;
     private Boolean ignoreTlsErrors;
     private LoadProfile loadProfile;
+    private List<RateSegment> schedule; // This task's share of the profile; takes precedence over loadProfile
+    private String assignedWorkerId;
 
-    public static List<WorkerTask> fromScenario(LoadTestScenario scenario, String executionId) {
+    /**
+     * Builds one task per schedule that ever sends traffic. {@code workerIds},
+     * when present, pins the task at the same index to that worker.
+     */
+    public static List<WorkerTask> fromScenario(LoadTestScenario scenario, String executionId,
+                                                List<List<RateSegment>> schedules, List<String> workerIds) {
         List<WorkerTask> tasks = new ArrayList<>();
-        int workers = scenario.getNumWorkers() > 0 ? scenario.getNumWorkers() : 1;
-        
-        int baseRps = 10;
-        if (scenario.getLoadProfile() != null) {
-            baseRps = scenario.getLoadProfile().getTargetRps() > 0 ? scenario.getLoadProfile().getTargetRps() / workers : scenario.getLoadProfile().getInitialRps() / workers;
-            if (baseRps <= 0) baseRps = 1;
-        }
-
-        for (int i = 0; i < workers; i++) {
+        for (int i = 0; i < schedules.size(); i++) {
+            int peakRps = RateScheduleCompiler.peak(schedules.get(i));
+            if (peakRps <= 0) {
+                continue; // fewer requests per second than workers
+            }
             tasks.add(WorkerTask.builder()
                     .taskId(executionId + "-w" + i)
+                    .executionId(executionId)
                     .scenarioId(scenario.getId())
                     .targetUrl(scenario.getTargetUrl())
                     .method(scenario.getMethod())
                     .headers(scenario.getHeaders())
                     .body(scenario.getBody())
-                    .rps(baseRps)
+                    .rps(peakRps)
                     .durationSeconds(scenario.getDurationSeconds())
                     .startTime(Instant.now())
                     .timeoutSeconds(30)
                     .ignoreTlsErrors(scenario.isIgnoreTlsErrors())
                     .loadProfile(scenario.getLoadProfile())
+                    .schedule(schedules.get(i))
+                    .assignedWorkerId(i < workerIds.size() ? workerIds.get(i) : null)
                     .build());
         }
         return tasks;
     }
-}
 
+    /**
+     * Total requests per second the scenario asks for across all workers.
+     */
+    public static int aggregateRps(LoadTestScenario scenario) {
+        LoadProfile profile = scenario.getLoadProfile();
+        if (profile == null) {
+            return 10 * Math.max(1, scenario.getNumWorkers());
+        }
+        int rps = profile.getTargetRps() > 0 ? profile.getTargetRps() : profile.getInitialRps();
+        return Math.max(1, rps);
+    }
+}
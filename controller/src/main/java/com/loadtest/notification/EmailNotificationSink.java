@@ -0,0 +1,56 @@
+package com.loadtest.notification;
+
+import com.loadtest.model.Alert;
+import com.loadtest.model.AlertChannel;
+import com.loadtest.model.AlertSubscription;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sends alert batches as one plain-text email per batch over the SMTP
+ * server configured under {@code spring.mail}. Locally that is a catcher
+ * such as Mailpit on port 1025.
+ */
+@Component
+public class EmailNotificationSink implements NotificationSink {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final String from;
+
+    public EmailNotificationSink(
+            ObjectProvider<JavaMailSender> mailSender,
+            @Value("${loadtest.notifications.email.from:loadtest@localhost}") String from
+    ) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public boolean supports(AlertChannel channel) {
+        return channel == AlertChannel.EMAIL;
+    }
+
+    @Override
+    public void send(AlertSubscription subscription, List<Alert> alerts) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            throw new IllegalStateException("No SMTP server configured, set spring.mail.host");
+        }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(subscription.getRecipient());
+        Alert first = alerts.get(0);
+        message.setSubject(alerts.size() == 1
+            ? String.format("[%s] %s%s", first.getSeverity(), first.getTitle(), first.getResolvedAt() != null ? " resolved" : "")
+            : alerts.size() + " load test alerts");
+        message.setText(alerts.stream().map(NotificationSink::describe).collect(Collectors.joining("\n")));
+        sender.send(message);
+    }
+}
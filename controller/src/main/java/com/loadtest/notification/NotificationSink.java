@@ -0,0 +1,27 @@
+package com.loadtest.notification;
+
+import com.loadtest.model.Alert;
+import com.loadtest.model.AlertChannel;
+import com.loadtest.model.AlertSubscription;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of alert transitions to one subscriber. Called from the
+ * notification delivery threads, never from result ingest; a failure is
+ * thrown and retried with backoff by the caller.
+ */
+public interface NotificationSink {
+
+    boolean supports(AlertChannel channel);
+
+    void send(AlertSubscription subscription, List<Alert> alerts) throws Exception;
+
+    /**
+     * One line per alert, e.g. "[CRITICAL] SLA Breach - checkout: ... (resolved)".
+     */
+    static String describe(Alert alert) {
+        return String.format("[%s] %s: %s%s", alert.getSeverity(), alert.getTitle(), alert.getMessage(),
+            alert.getResolvedAt() != null ? " (resolved)" : "");
+    }
+}
@@ -0,0 +1,113 @@
+package com.loadtest.notification;
+
+import com.loadtest.exception.InvalidRecipientException;
+import com.loadtest.model.AlertChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Checks alert recipients when a scenario is created, and webhook URLs again
+ * right before each delivery, since a host name can resolve elsewhere later.
+ * <p>
+ * {@code EMAIL} needs a well-formed address. {@code WEBHOOK} and
+ * {@code SLACK} need an http or https URL without credentials whose host
+ * resolves only to public addresses: loopback, private, link-local (which
+ * includes cloud metadata endpoints), carrier-grade NAT and unique-local
+ * ranges are refused unless {@code allow-internal-addresses} is set. When
+ * {@code allowed-hosts} is set, the host must also be one of them or a
+ * subdomain of one.
+ */
+@Component
+public class RecipientValidator {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final List<String> allowedHosts;
+    private final boolean allowInternalAddresses;
+
+    public RecipientValidator(
+            @Value("${loadtest.notifications.webhook.allowed-hosts:}") List<String> allowedHosts,
+            @Value("${loadtest.notifications.webhook.allow-internal-addresses:false}") boolean allowInternalAddresses
+    ) {
+        this.allowedHosts = allowedHosts.stream()
+            .map(String::trim)
+            .filter(host -> !host.isEmpty())
+            .map(host -> host.toLowerCase(Locale.ROOT))
+            .toList();
+        this.allowInternalAddresses = allowInternalAddresses;
+    }
+
+    public void validate(AlertChannel channel, String recipient) {
+        if (recipient == null || recipient.isBlank()) {
+            throw new InvalidRecipientException(String.valueOf(recipient), "missing");
+        }
+        if (channel == AlertChannel.EMAIL) {
+            if (!EMAIL.matcher(recipient).matches()) {
+                throw new InvalidRecipientException(recipient, "not an email address");
+            }
+            return;
+        }
+        validateUrl(recipient);
+    }
+
+    private void validateUrl(String recipient) {
+        URI uri;
+        try {
+            uri = new URI(recipient);
+        } catch (URISyntaxException e) {
+            throw new InvalidRecipientException(recipient, "not a valid URL");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new InvalidRecipientException(recipient, "only http and https URLs are allowed");
+        }
+        if (uri.getHost() == null) {
+            throw new InvalidRecipientException(recipient, "no host");
+        }
+        if (uri.getRawUserInfo() != null) {
+            throw new InvalidRecipientException(recipient, "credentials in the URL are not allowed");
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!allowedHosts.isEmpty()
+                && allowedHosts.stream().noneMatch(allowed -> host.equals(allowed) || host.endsWith("." + allowed))) {
+            throw new InvalidRecipientException(recipient, "host is not in the allowed list");
+        }
+        if (allowInternalAddresses) {
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new InvalidRecipientException(recipient, "host does not resolve");
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new InvalidRecipientException(recipient, "host resolves to internal address " + address.getHostAddress());
+            }
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            return (bytes[0] & 0xfe) == 0xfc; // fc00::/7 unique local
+        }
+        return (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64 // 100.64.0.0/10 carrier-grade NAT
+            || (bytes[0] & 0xff) == 0;                             // 0.0.0.0/8
+    }
+}
@@ -0,0 +1,76 @@
+package com.loadtest.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.model.Alert;
+import com.loadtest.model.AlertChannel;
+import com.loadtest.model.AlertSubscription;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * POSTs alert batches as JSON. {@code WEBHOOK} subscribers get
+ * {@code {"alerts": [...]}} with the full alerts and the subscription's
+ * config as extra request headers; {@code SLACK} subscribers get an
+ * incoming-webhook {@code {"text": ...}} message. Any 2xx counts as
+ * delivered. The URL is checked by {@link RecipientValidator} before every
+ * delivery, and redirects are not followed, so a target that has moved to
+ * an internal address is never reached.
+ */
+@Component
+public class WebhookNotificationSink implements NotificationSink {
+
+    private final ObjectMapper objectMapper;
+    private final RecipientValidator recipientValidator;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public WebhookNotificationSink(
+            ObjectMapper objectMapper,
+            RecipientValidator recipientValidator,
+            @Value("${loadtest.notifications.webhook.timeout-ms:5000}") long timeoutMs
+    ) {
+        this.objectMapper = objectMapper;
+        this.recipientValidator = recipientValidator;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    @Override
+    public boolean supports(AlertChannel channel) {
+        return channel == AlertChannel.WEBHOOK || channel == AlertChannel.SLACK;
+    }
+
+    @Override
+    public void send(AlertSubscription subscription, List<Alert> alerts) throws Exception {
+        recipientValidator.validate(subscription.getChannel(), subscription.getRecipient());
+        Object payload = subscription.getChannel() == AlertChannel.SLACK
+            ? Map.of("text", alerts.stream().map(NotificationSink::describe).collect(Collectors.joining("\n")))
+            : Map.of("alerts", alerts);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(subscription.getRecipient()))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)));
+        if (subscription.getChannel() == AlertChannel.WEBHOOK && subscription.getConfig() != null) {
+            subscription.getConfig().forEach(request::header);
+        }
+
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + subscription.getRecipient() + " returned " + response.statusCode());
+        }
+    }
+}
@@ -10,5 +10,4 @@ import java.util.List;
 public interface AlertRepository extends MongoRepository<Alert, String> {
     List<Alert> findByUserIdAndAcknowledgedFalseOrderByCreatedAtDesc(String userId);
     List<Alert> findByScenarioId(String scenarioId);
-    boolean existsByScenarioIdAndAcknowledgedFalse(String scenarioId);
 }
@@ -0,0 +1,12 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.CapacitySearch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CapacitySearchRepository extends MongoRepository<CapacitySearch, String> {
+    Optional<CapacitySearch> findFirstByScenarioIdOrderByStartedAtDesc(String scenarioId);
+}
@@ -0,0 +1,12 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.ExecutionAbort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExecutionAbortRepository extends MongoRepository<ExecutionAbort, String> {
+    Optional<ExecutionAbort> findByExecutionId(String executionId);
+}
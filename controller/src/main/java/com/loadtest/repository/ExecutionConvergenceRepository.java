@@ -0,0 +1,12 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.ExecutionConvergence;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExecutionConvergenceRepository extends MongoRepository<ExecutionConvergence, String> {
+    Optional<ExecutionConvergence> findByExecutionId(String executionId);
+}
@@ -0,0 +1,20 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.Execution;
+import com.loadtest.model.ExecutionPhase;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExecutionRepository extends MongoRepository<Execution, String> {
+    List<Execution> findByScenarioIdOrderByCreatedAtDesc(String scenarioId, Pageable pageable);
+
+    List<Execution> findByPhaseIn(Collection<ExecutionPhase> phases);
+
+    List<Execution> findByPhaseAndEndedAtBefore(ExecutionPhase phase, Instant endedAt, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.PendingExecution;
+import com.loadtest.model.PendingExecutionStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PendingExecutionRepository extends MongoRepository<PendingExecution, String> {
+    List<PendingExecution> findByStatus(PendingExecutionStatus status);
+
+    long countByStatus(PendingExecutionStatus status);
+
+    Optional<PendingExecution> findByExecutionId(String executionId);
+}
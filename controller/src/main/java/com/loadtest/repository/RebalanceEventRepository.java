@@ -0,0 +1,12 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.RebalanceEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RebalanceEventRepository extends MongoRepository<RebalanceEvent, String> {
+    List<RebalanceEvent> findByExecutionIdOrderByDetectedAtAsc(String executionId);
+}
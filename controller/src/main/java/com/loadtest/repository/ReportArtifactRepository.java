@@ -0,0 +1,18 @@
+package com.loadtest.repository;
+
+import com.loadtest.model.ReportArtifact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportArtifactRepository extends MongoRepository<ReportArtifact, String> {
+    Optional<ReportArtifact> findFirstBySha256(String sha256);
+
+    boolean existsBySha256(String sha256);
+
+    List<ReportArtifact> findByFormatVersionLessThan(int formatVersion, Pageable pageable);
+}
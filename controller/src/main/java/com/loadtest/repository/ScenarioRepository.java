@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,8 @@ public interface ScenarioRepository extends MongoRepository<LoadTestScenario, St
     java.util.Optional<LoadTestScenario> findByLastExecutionId(String lastExecutionId);
     
     List<LoadTestScenario> findByStatus(ScenarioStatus status);
+
+    List<LoadTestScenario> findByRunningFalseAndEndedAtBetween(Instant from, Instant to);
     
     @Query("{ 'userId': ?0, 'status': ?1 }")
     List<LoadTestScenario> findByUserIdAndStatus(String userId, ScenarioStatus status);
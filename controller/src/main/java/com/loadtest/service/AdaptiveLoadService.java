@@ -0,0 +1,258 @@
+package com.loadtest.service;
+
+import com.loadtest.model.CapacitySearch;
+import com.loadtest.model.CapacitySearchStatus;
+import com.loadtest.model.LoadProfile;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.ScenarioStats;
+import com.loadtest.model.SlaConfig;
+import com.loadtest.model.WorkerTask;
+import com.loadtest.repository.CapacitySearchRepository;
+import com.loadtest.utils.RateAllocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drives ADAPTIVE executions: steps the aggregate rate up by
+ * {@code stepRps} while the SLA holds for {@code holdSeconds}, then
+ * bisects between the highest rate that held and the lowest that broke it.
+ * New rates are pushed to the running workers over the control channel.
+ * <p>
+ * The search ends when the bounds are within a tenth of a step, or when the
+ * SLA still holds at {@code targetRps} or the combined worker caps. The
+ * highest rate that held is recorded as the scenario's max sustainable
+ * throughput, and the execution is then stopped.
+ */
+@Slf4j
+@Service
+public class AdaptiveLoadService {
+
+    private static final int DEFAULT_HOLD_SECONDS = 30;
+
+    private final ExecutionMonitorService executionMonitorService;
+    private final RedisQueueService redisQueueService;
+    private final MetricsAggregationService metricsService;
+    private final CapacitySearchRepository capacitySearchRepository;
+    private final LoadTestOrchestrationService orchestrationService;
+
+    private final Map<String, ActiveSearch> searches = new ConcurrentHashMap<>();
+    private final ReentrantLock evaluateLock = new ReentrantLock(); // Fixed-rate runs can overlap on virtual threads
+
+    @Value("${loadtest.worker.max-rps:10000}")
+    private int maxRpsPerWorker;
+
+    @Value("${loadtest.adaptive.min-achieved-ratio:0.9}")
+    private double minAchievedRatio;
+
+    public AdaptiveLoadService(
+            ExecutionMonitorService executionMonitorService,
+            RedisQueueService redisQueueService,
+            MetricsAggregationService metricsService,
+            CapacitySearchRepository capacitySearchRepository,
+            @Lazy LoadTestOrchestrationService orchestrationService
+    ) {
+        this.executionMonitorService = executionMonitorService;
+        this.redisQueueService = redisQueueService;
+        this.metricsService = metricsService;
+        this.capacitySearchRepository = capacitySearchRepository;
+        this.orchestrationService = orchestrationService;
+    }
+
+    public void start(String executionId, LoadTestScenario scenario, Instant startAt) {
+        LoadProfile profile = scenario.getLoadProfile();
+        int capacity = executionMonitorService.activeTasks(executionId).size() * maxRpsPerWorker;
+        int limit = profile.getTargetRps() > 0 ? Math.min(profile.getTargetRps(), capacity) : capacity;
+        Instant now = Instant.now();
+        Instant firstRateAt = startAt.isAfter(now) ? startAt : now;
+
+        CapacitySearch search = capacitySearchRepository.save(CapacitySearch.builder()
+            .executionId(executionId)
+            .scenarioId(scenario.getId())
+            .status(CapacitySearchStatus.SEARCHING)
+            .startedAt(now)
+            .currentRps(Math.max(1, profile.getInitialRps()))
+            .rateChangedAt(firstRateAt)
+            .limitRps(limit)
+            .steps(new ArrayList<>())
+            .build());
+
+        searches.put(executionId, new ActiveSearch(search, profile,
+            scenario.getSlaConfig() != null ? scenario.getSlaConfig() : new SlaConfig()));
+        log.info("Started capacity search for execution {} from {} RPS (limit {})",
+            executionId, search.getCurrentRps(), limit);
+    }
+
+    /**
+     * Closes the search of an execution that ended before it converged.
+     */
+    public void finish(String executionId) {
+        ActiveSearch active = searches.remove(executionId);
+        if (active != null) {
+            complete(active.search, CapacitySearchStatus.STOPPED);
+        }
+    }
+
+    public Optional<CapacitySearch> getLatest(String scenarioId) {
+        return capacitySearchRepository.findFirstByScenarioIdOrderByStartedAtDesc(scenarioId);
+    }
+
+    @Scheduled(fixedRate = 1000) // Every second
+    public void evaluate() {
+        if (!evaluateLock.tryLock()) {
+            return; // Previous run still going
+        }
+        try {
+            Instant now = Instant.now();
+            searches.values().forEach(active -> {
+                try {
+                    evaluate(active, now);
+                } catch (Exception e) {
+                    log.error("Failed to evaluate capacity search for execution {}", active.search.getExecutionId(), e);
+                }
+            });
+        } finally {
+            evaluateLock.unlock();
+        }
+    }
+
+    private void evaluate(ActiveSearch active, Instant now) {
+        CapacitySearch search = active.search;
+        int hold = active.profile.getHoldSeconds() > 0 ? active.profile.getHoldSeconds() : DEFAULT_HOLD_SECONDS;
+        if (search.getRateChangedAt().plusSeconds(hold).isAfter(now)) {
+            return;
+        }
+
+        int rps = search.getCurrentRps();
+        ScenarioStats stats = metricsService.getRealTimeStats(search.getScenarioId(), hold);
+        String breach = findBreach(stats, active.sla, rps);
+        boolean held = breach == null;
+
+        search.getSteps().add(CapacitySearch.Step.builder()
+            .rps(rps)
+            .evaluatedAt(now)
+            .achievedRps(stats.getCurrentRps())
+            .p99LatencyMs(stats.getP99LatencyMs())
+            .successRate(stats.getSuccessRate() * 100)
+            .held(held)
+            .breach(breach)
+            .build());
+
+        if (held) {
+            search.setLowerBoundRps(Math.max(search.getLowerBoundRps(), rps));
+        } else {
+            search.setUpperBoundRps(rps);
+            log.info("Execution {} broke its SLA at {} RPS: {}", search.getExecutionId(), rps, breach);
+        }
+
+        int step = active.profile.getStepRps() > 0
+            ? active.profile.getStepRps()
+            : Math.max(1, active.profile.getInitialRps());
+        int next;
+        if (search.getUpperBoundRps() == null) {
+            if (rps >= search.getLimitRps()) {
+                finishSearch(active, CapacitySearchStatus.LIMIT_REACHED);
+                return;
+            }
+            next = Math.min(rps + step, search.getLimitRps());
+        } else {
+            if (search.getUpperBoundRps() - search.getLowerBoundRps() <= Math.max(1, step / 10)) {
+                finishSearch(active, CapacitySearchStatus.CONVERGED);
+                return;
+            }
+            next = (search.getLowerBoundRps() + search.getUpperBoundRps()) / 2;
+        }
+
+        pushRate(search, next, now);
+        capacitySearchRepository.save(search);
+    }
+
+    private String findBreach(ScenarioStats stats, SlaConfig sla, int targetRps) {
+        if (stats.getTotalRequests() == 0) {
+            return "No traffic recorded";
+        }
+        double successRate = stats.getSuccessRate() * 100;
+        if (successRate < sla.getMinSuccessRate()) {
+            return String.format("Success rate %.2f%% below %.2f%%", successRate, sla.getMinSuccessRate());
+        }
+        if (100 - successRate > sla.getMaxErrorRate()) {
+            return String.format("Error rate %.2f%% above %.2f%%", 100 - successRate, sla.getMaxErrorRate());
+        }
+        if (stats.getP99LatencyMs() > sla.getMaxP99LatencyMs()) {
+            return String.format("P99 latency %.2fms above %.2fms", stats.getP99LatencyMs(), sla.getMaxP99LatencyMs());
+        }
+        // A rate the workers could not actually drive has not been shown to hold
+        if (stats.getCurrentRps() < targetRps * minAchievedRatio) {
+            return String.format("Achieved %.0f of %d RPS", stats.getCurrentRps(), targetRps);
+        }
+        return null;
+    }
+
+    /**
+     * Splits the new aggregate over the execution's running tasks in
+     * proportion to their current rates and publishes it.
+     */
+    private void pushRate(CapacitySearch search, int aggregate, Instant now) {
+        List<WorkerTask> tasks = executionMonitorService.activeTasks(search.getExecutionId());
+        double[] weights = new double[tasks.size()];
+        int[] caps = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            weights[i] = Math.max(1, tasks.get(i).getRps());
+            caps[i] = maxRpsPerWorker;
+        }
+        int[] shares = RateAllocator.allocate(aggregate, weights, caps);
+
+        Map<String, Integer> taskRates = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            taskRates.put(tasks.get(i).getTaskId(), shares[i]);
+        }
+        if (!taskRates.isEmpty()) {
+            redisQueueService.publishRates(search.getExecutionId(), taskRates);
+            executionMonitorService.applyRates(search.getExecutionId(), taskRates);
+        }
+
+        search.setCurrentRps(aggregate);
+        search.setRateChangedAt(now);
+        log.info("Execution {} moving to {} RPS (held {}, broke {})", search.getExecutionId(), aggregate,
+            search.getLowerBoundRps(), search.getUpperBoundRps());
+    }
+
+    private void finishSearch(ActiveSearch active, CapacitySearchStatus status) {
+        searches.remove(active.search.getExecutionId());
+        complete(active.search, status);
+        orchestrationService.completeScenario(active.search.getExecutionId(), String.format(
+            "Capacity search %s: max sustainable %d RPS", status, active.search.getMaxSustainableRps()));
+    }
+
+    private void complete(CapacitySearch search, CapacitySearchStatus status) {
+        search.setStatus(status);
+        search.setFinishedAt(Instant.now());
+        search.setMaxSustainableRps(search.getLowerBoundRps());
+        capacitySearchRepository.save(search);
+        log.info("Capacity search for execution {} finished ({}): max sustainable {} RPS",
+            search.getExecutionId(), status, search.getMaxSustainableRps());
+    }
+
+    private static class ActiveSearch {
+        final CapacitySearch search;
+        final LoadProfile profile;
+        final SlaConfig sla;
+
+        ActiveSearch(CapacitySearch search, LoadProfile profile, SlaConfig sla) {
+            this.search = search;
+            this.profile = profile;
+            this.sla = sla;
+        }
+    }
+}
@@ -1,47 +1,202 @@
 package com.loadtest.service;
 
 import admission.AdmissionServiceGrpc;
+import admission.Admission.BatchExecutionRequest;
 import admission.Admission.ExecutionRequest;
+import admission.Admission.ExecutionResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.loadtest.tenant.TenantContext;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import javax.annotation.PreDestroy;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client for the admission service.
+ * <p>
+ * Calls go through the async stub with a deadline of {@code deadline-ms},
+ * so a slow admission service fails the start fast instead of stalling it.
+ * Decisions are cached for {@code cache-ttl-ms} per identical request, and
+ * identical calls already in flight share one RPC. A burst of scheduled
+ * starts therefore costs one call per distinct scenario. {@link #validateAll}
+ * admits many executions with one {@code ValidateExecutions} round trip and
+ * falls back to single calls against an admission service without it.
+ * Latency is recorded in the {@code loadtest.admission.latency} histogram.
+ */
+@Slf4j
 @Service
 public class AdmissionClient {
 
-    private final AdmissionServiceGrpc.AdmissionServiceBlockingStub stub;
+    private static final int MAX_BATCH = 100; // Server-side limit of ValidateExecutions
+
+    private final AdmissionServiceGrpc.AdmissionServiceFutureStub stub;
     private final ManagedChannel channel;
+    private final MeterRegistry meterRegistry;
+    private final long deadlineMs;
+    private final AsyncCache<ExecutionRequest, ExecutionResponse> decisions;
 
     public AdmissionClient(
             @Value("${loadtest.admission.host}") String host,
-            @Value("${loadtest.admission.port}") int port
+            @Value("${loadtest.admission.port}") int port,
+            @Value("${loadtest.admission.deadline-ms:2000}") long deadlineMs,
+            @Value("${loadtest.admission.cache-ttl-ms:5000}") long cacheTtlMs,
+            MeterRegistry meterRegistry
     ) {
         this.channel = ManagedChannelBuilder
                 .forAddress(host, port)
                 .usePlaintext()
                 .build();
 
-        this.stub = AdmissionServiceGrpc.newBlockingStub(channel);
+        this.stub = AdmissionServiceGrpc.newFutureStub(channel);
+        this.meterRegistry = meterRegistry;
+        this.deadlineMs = deadlineMs;
+        this.decisions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(10_000)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, "admission-decisions");
     }
 
     @CircuitBreaker(name = "admission")
     @Retry(name = "admission")
     public void validate(String scenarioId, int users, int duration, String status) {
-        var response = stub.validateExecution(
-            ExecutionRequest.newBuilder()
+        ExecutionResponse response = await(validateAsync(request(scenarioId, users, duration, status)));
+
+        if (!response.getAllowed()) {
+            throw new RuntimeException(response.getReason());
+        }
+    }
+
+    public static ExecutionRequest request(String scenarioId, int users, int duration, String status) {
+        String orgId = TenantContext.getOrgId();
+        return ExecutionRequest.newBuilder()
+                .setOrgId(orgId != null ? orgId : "")
                 .setScenarioId(scenarioId)
                 .setUsers(users)
                 .setDuration(duration)
                 .setApprovalStatus(status)
-                .build()
-        );
+                .build();
+    }
 
-        if (!response.getAllowed()) {
-            throw new RuntimeException(response.getReason());
+    public CompletableFuture<ExecutionResponse> validateAsync(ExecutionRequest request) {
+        return decisions.get(request, (key, executor) -> timed("single",
+                stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS).validateExecution(key)));
+    }
+
+    /**
+     * Admits every request, in order. Cached decisions are reused; the rest
+     * go out in batches and are cached for the single calls that follow.
+     */
+    public CompletableFuture<List<ExecutionResponse>> validateAll(List<ExecutionRequest> requests) {
+        List<ExecutionRequest> missing = new ArrayList<>();
+        for (ExecutionRequest request : new LinkedHashSet<>(requests)) {
+            if (decisions.getIfPresent(request) == null) {
+                missing.add(request);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += MAX_BATCH) {
+            List<ExecutionRequest> chunk = missing.subList(from, Math.min(missing.size(), from + MAX_BATCH));
+            CompletableFuture<List<ExecutionResponse>> batch = validateBatch(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = i;
+                decisions.put(chunk.get(i), batch.thenApply(responses -> responses.get(index)));
+            }
+        }
+
+        List<CompletableFuture<ExecutionResponse>> results = requests.stream()
+                .map(this::validateAsync)
+                .toList();
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<List<ExecutionResponse>> validateBatch(List<ExecutionRequest> requests) {
+        BatchExecutionRequest batch = BatchExecutionRequest.newBuilder().addAllRequests(requests).build();
+        return timed("batch", stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS).validateExecutions(batch))
+                .thenApply(response -> {
+                    if (response.getResponsesCount() != requests.size()) {
+                        throw new IllegalStateException("Admission batch returned " + response.getResponsesCount()
+                                + " decisions for " + requests.size() + " requests");
+                    }
+                    return response.getResponsesList();
+                })
+                .exceptionallyCompose(e -> {
+                    if (Status.fromThrowable(e).getCode() != Status.Code.UNIMPLEMENTED) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                    log.debug("Admission service has no batch RPC, validating {} request(s) one by one", requests.size());
+                    List<CompletableFuture<ExecutionResponse>> singles = requests.stream()
+                            .map(request -> timed("single",
+                                    stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS).validateExecution(request)))
+                            .toList();
+                    return CompletableFuture.allOf(singles.toArray(CompletableFuture[]::new))
+                            .thenApply(ignored -> singles.stream().map(CompletableFuture::join).toList());
+                });
+    }
+
+    private <T> CompletableFuture<T> timed(String rpc, ListenableFuture<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T response) {
+                String outcome = response instanceof ExecutionResponse single && !single.getAllowed() ? "denied" : "ok";
+                sample.stop(latencyTimer(rpc, outcome));
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                sample.stop(latencyTimer(rpc, Status.fromThrowable(t).getCode().name().toLowerCase()));
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private Timer latencyTimer(String rpc, String outcome) {
+        return Timer.builder("loadtest.admission.latency")
+                .description("Admission service call latency")
+                .tag("rpc", rpc)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime
+                    ? runtime
+                    : new RuntimeException("Admission check failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for admission", e);
         }
     }
 
@@ -1,72 +1,135 @@
 package com.loadtest.service;
 
-import com.loadtest.model.*;
+import com.loadtest.model.Alert;
 import com.loadtest.repository.AlertRepository;
-import com.loadtest.repository.ScenarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * Persists alert transitions and announces them: as an
+ * {@link AlertTransition} event inside the controller, which is what
+ * {@link NotificationService} delivers from, and on
+ * {@code /topic/alerts/{scenarioId}}. Deciding when something is worth an
+ * alert is up to the caller, e.g. {@link SlaEngineService}.
+ * <p>
+ * Callers sit on the result ingest path, so the write and the announcement
+ * happen on a single writer thread, the only one that ever writes alerts,
+ * which keeps a raise ahead of its resolve. The alert gets its id up front
+ * so the caller can resolve it before it has been written. Should the
+ * writer fall {@code loadtest.alerts.write-queue-capacity} transitions
+ * behind, further transitions are dropped and counted rather than waited
+ * on, like in {@link NotificationService}, so ingest never blocks here.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AlertService {
 
     private final AlertRepository alertRepository;
-    private final ScenarioRepository scenarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
 
-    public void checkSla(String scenarioId, ScenarioStats stats) {
-        LoadTestScenario scenario = scenarioRepository.findById(scenarioId).orElse(null);
-        if (scenario == null || scenario.getSlaConfig() == null) {
-            return;
-        }
+    @Value("${loadtest.alerts.write-queue-capacity:1000}")
+    private int writeQueueCapacity;
 
-        SlaConfig sla = scenario.getSlaConfig();
-        List<String> violations = new ArrayList<>();
+    private BlockingQueue<Alert> writes;
+    private Thread writer;
+    private Counter dropped;
 
-        if (stats.getSuccessRate() * 100 < sla.getMinSuccessRate()) {
-            violations.add(String.format("Success rate %.2f%% is below SLA threshold of %.2f%%", 
-                stats.getSuccessRate() * 100, sla.getMinSuccessRate()));
+    @PostConstruct
+    public void init() {
+        writes = new ArrayBlockingQueue<>(writeQueueCapacity);
+        dropped = Counter.builder("loadtest.alerts.dropped")
+            .description("Alert transitions dropped because the writer fell behind")
+            .register(meterRegistry);
+        writer = new Thread(this::drain, "alert-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.interrupt();
+        writer.join(5000);
+    }
+
+    public Alert raise(Alert alert) {
+        if (alert.getId() == null) {
+            alert.setId(new ObjectId().toHexString());
         }
+        alert.setAcknowledged(false);
+        alert.setCreatedAt(Instant.now());
+        write(alert);
+        return alert;
+    }
+
+    public Alert resolve(Alert alert) {
+        alert.setResolvedAt(Instant.now());
+        write(alert);
+        return alert;
+    }
 
-        if (stats.getAvgLatencyMs() > sla.getMaxAvgLatencyMs()) {
-            violations.add(String.format("Average latency %.2fms exceeds SLA threshold of %.2fms", 
-                stats.getAvgLatencyMs(), sla.getMaxAvgLatencyMs()));
+    private void write(Alert alert) {
+        Alert copy = alert.toBuilder().build(); // The caller may resolve it while this one is queued
+        if (writes.offer(copy)) {
+            return;
         }
+        dropped.increment();
+        log.error("Alert write queue full, dropping {} of alert {} for scenario {}",
+            copy.getResolvedAt() != null ? "resolve" : "raise", copy.getId(), copy.getScenarioId());
+    }
 
-        if (stats.getP95LatencyMs() > sla.getMaxP95LatencyMs()) {
-            violations.add(String.format("P95 latency %.2fms exceeds SLA threshold of %.2fms", 
-                stats.getP95LatencyMs(), sla.getMaxP95LatencyMs()));
+    private void drain() {
+        try {
+            while (true) {
+                store(writes.take());
+            }
+        } catch (InterruptedException e) {
+            // Shutting down; write what is already queued
+            List<Alert> rest = new ArrayList<>();
+            writes.drainTo(rest);
+            rest.forEach(this::store);
         }
+    }
 
-        if (stats.getP99LatencyMs() > sla.getMaxP99LatencyMs()) {
-            violations.add(String.format("P99 latency %.2fms exceeds SLA threshold of %.2fms", 
-                stats.getP99LatencyMs(), sla.getMaxP99LatencyMs()));
+    private void store(Alert alert) {
+        try {
+            announce(alertRepository.save(alert));
+        } catch (Exception e) {
+            log.error("Failed to store alert {} for scenario {}", alert.getId(), alert.getScenarioId(), e);
         }
+    }
 
-        if (!violations.isEmpty()) {
-            String message = String.join("; ", violations);
-            log.warn("SLA breach detected for scenario {}: {}", scenarioId, message);
-            
-            // Check if we already raised an unacknowledged alert for this scenario to avoid spamming
-            boolean exists = alertRepository.existsByScenarioIdAndAcknowledgedFalse(scenarioId);
-            if (!exists) {
-                Alert alert = Alert.builder()
-                        .userId(scenario.getUserId())
-                        .scenarioId(scenarioId)
-                        .type("SLA_BREACH")
-                        .severity("CRITICAL")
-                        .title("SLA Violation - " + scenario.getName())
-                        .message(message)
-                        .acknowledged(false)
-                        .createdAt(Instant.now())
-                        .build();
-                alertRepository.save(alert);
-            }
+    private void announce(Alert alert) {
+        eventPublisher.publishEvent(new AlertTransition(alert));
+        try {
+            messagingTemplate.convertAndSend("/topic/alerts/" + alert.getScenarioId(), alert);
+        } catch (Exception e) {
+            log.warn("Failed to publish alert {} for scenario {}", alert.getId(), alert.getScenarioId(), e);
         }
     }
+
+    /**
+     * An alert was raised, or resolved if {@code resolvedAt} is set.
+     */
+    @lombok.Value
+    public static class AlertTransition {
+        Alert alert;
+    }
 }
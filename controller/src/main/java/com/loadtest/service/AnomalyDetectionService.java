@@ -0,0 +1,138 @@
+package com.loadtest.service;
+
+import com.loadtest.model.Alert;
+import com.loadtest.model.AlertType;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.utils.LiveWindow;
+import com.loadtest.utils.StreamingAnomalyDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches each running execution's per-second average latency and error
+ * rate for sudden rises, with a {@link StreamingAnomalyDetector} per series.
+ * An update costs the same however long the run is.
+ * <p>
+ * When a series shifts an {@code ANOMALY} alert is raised with the last
+ * {@code window-seconds} points attached, and resolved once the series has
+ * settled. This runs in-process on every completed second; the analytics
+ * service's batch detector is still there for offline analysis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnomalyDetectionService implements LiveMetricsListener {
+
+    private final AlertService alertService;
+
+    private final Map<String, ExecutionDetectors> executions = new ConcurrentHashMap<>();
+
+    @Value("${loadtest.anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loadtest.anomaly.alpha:0.1}")
+    private double alpha;
+
+    @Value("${loadtest.anomaly.slack:0.5}")
+    private double slack;
+
+    @Value("${loadtest.anomaly.threshold:5.0}")
+    private double threshold;
+
+    @Value("${loadtest.anomaly.warmup-seconds:30}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.anomaly.window-seconds:30}")
+    private int windowSeconds;
+
+    @Override
+    public void onRegister(LiveMetricsService.LiveExecution execution, LoadTestScenario scenario) {
+        if (!enabled) {
+            return;
+        }
+        executions.put(execution.getExecutionId(), new ExecutionDetectors(
+            // Latency may wander by 1ms or 5%, error rate by one percentage point, before it counts
+            new StreamingAnomalyDetector(alpha, slack, threshold, warmupSeconds, windowSeconds, 1.0, 0.05),
+            new StreamingAnomalyDetector(alpha, slack, threshold, warmupSeconds, windowSeconds, 1.0, 0.0)
+        ));
+    }
+
+    @Override
+    public void onUnregister(LiveMetricsService.LiveExecution execution) {
+        executions.remove(execution.getExecutionId());
+    }
+
+    @Override
+    public void onSecond(LiveMetricsService.LiveExecution execution, long epochSecond, LiveWindow.Snapshot second) {
+        ExecutionDetectors detectors = executions.get(execution.getExecutionId());
+        if (detectors == null) {
+            return;
+        }
+        observe(execution, detectors, "latency", detectors.getLatency(), epochSecond, second.getAvgLatencyMs(), "ms");
+        observe(execution, detectors, "error-rate", detectors.getErrorRate(), epochSecond, second.getErrorRate() * 100, "%");
+    }
+
+    private void observe(LiveMetricsService.LiveExecution execution, ExecutionDetectors detectors, String series,
+                         StreamingAnomalyDetector detector, long epochSecond, double value, String unit) {
+        double baseline = detector.getBaseline();
+        double deviation = detector.getDeviation();
+        StreamingAnomalyDetector.Signal signal = detector.update(epochSecond, value);
+
+        if (signal == StreamingAnomalyDetector.Signal.STARTED) {
+            String message = String.format("%s rose to %.2f%s against a baseline of %.2f%s ± %.2f%s",
+                "latency".equals(series) ? "Average latency" : "Error rate",
+                value, unit, baseline, unit, deviation, unit);
+            log.warn("Anomaly detected for scenario {}: {}", execution.getScenarioId(), message);
+            detectors.getOpen().put(series, alertService.raise(Alert.builder()
+                .userId(execution.getUserId())
+                .scenarioId(execution.getScenarioId())
+                .executionId(execution.getExecutionId())
+                .rule("anomaly:" + series)
+                .type(AlertType.ANOMALY.name())
+                .severity("WARNING")
+                .title("Anomaly - " + execution.getScenarioName())
+                .message(message)
+                .window(window(series, detector, baseline, deviation))
+                .build()));
+        } else if (signal == StreamingAnomalyDetector.Signal.ENDED) {
+            Alert open = detectors.getOpen().remove(series);
+            if (open != null) {
+                log.info("Anomaly in {} settled for scenario {}", series, execution.getScenarioId());
+                alertService.resolve(open);
+            }
+        }
+    }
+
+    private static Alert.Window window(String series, StreamingAnomalyDetector detector, double baseline, double deviation) {
+        long[] seconds = detector.windowSeconds();
+        List<Instant> timestamps = new ArrayList<>(seconds.length);
+        for (long second : seconds) {
+            timestamps.add(Instant.ofEpochSecond(second));
+        }
+        return Alert.Window.builder()
+            .series(series)
+            .from(timestamps.get(0))
+            .to(timestamps.get(timestamps.size() - 1))
+            .timestamps(timestamps)
+            .values(Arrays.stream(detector.windowValues()).boxed().toList())
+            .baseline(baseline)
+            .deviation(deviation)
+            .build();
+    }
+
+    @lombok.Value
+    private static class ExecutionDetectors {
+        StreamingAnomalyDetector latency;
+        StreamingAnomalyDetector errorRate;
+        Map<String, Alert> open = new ConcurrentHashMap<>(); // Series to its unresolved alert
+    }
+}
@@ -0,0 +1,243 @@
+package com.loadtest.service;
+
+import com.loadtest.model.AbortMetric;
+import com.loadtest.model.AbortPolicy;
+import com.loadtest.model.ExecutionAbort;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.repository.ExecutionAbortRepository;
+import com.loadtest.utils.LiveWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ends an execution early when its scenario's {@link AbortPolicy} holds,
+ * instead of loading an already broken target until the stop timer fires.
+ * <p>
+ * Every completed second, each condition's metric is taken over the
+ * trailing {@code window-seconds} of the live window, which smooths single
+ * bad seconds without hiding a trend. A condition that stays breached for
+ * its {@code forSeconds} stops the execution with the condition as the
+ * abort reason. The reason and the per-second timeline that led to it are
+ * stored as an {@link ExecutionAbort} and show up in the report.
+ * <p>
+ * Seconds without results are checked too, from a once-a-second tick, since
+ * a target that stopped answering altogether sends none. Once the
+ * execution's first result has arrived, a window without any results counts
+ * as 0 RPS with 100% errors. Latency conditions have nothing to measure
+ * then and keep their current streak. The abort itself runs on the task
+ * executor, off the ingest thread.
+ */
+@Slf4j
+@Service
+public class AutoAbortService implements LiveMetricsListener {
+
+    private static final int LEAD_IN_SECONDS = 10; // Timeline also shows the seconds before the breach began
+    private static final int SETTLE_SECONDS = 2; // The tick leaves the last second to ingest, which may still be adding to it
+
+    private final ExecutionAbortRepository executionAbortRepository;
+    private final LoadTestOrchestrationService orchestrationService;
+    private final TaskExecutor taskExecutor;
+
+    private final Map<String, ExecutionState> executions = new ConcurrentHashMap<>();
+
+    @Value("${loadtest.abort.window-seconds:5}")
+    private int windowSeconds;
+
+    public AutoAbortService(
+            ExecutionAbortRepository executionAbortRepository,
+            @Lazy LoadTestOrchestrationService orchestrationService,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor
+    ) {
+        this.executionAbortRepository = executionAbortRepository;
+        this.orchestrationService = orchestrationService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void onRegister(LiveMetricsService.LiveExecution execution, LoadTestScenario scenario) {
+        AbortPolicy policy = scenario.getAbortPolicy();
+        if (policy == null || policy.getConditions() == null || policy.getConditions().isEmpty()) {
+            return;
+        }
+        List<ConditionState> states = new ArrayList<>();
+        for (AbortPolicy.Condition condition : policy.getConditions()) {
+            if (condition.getMetric() != null) {
+                states.add(new ConditionState(condition));
+            }
+        }
+        if (!states.isEmpty()) {
+            executions.put(execution.getExecutionId(),
+                new ExecutionState(execution, states, execution.getLastClosedSecond()));
+        }
+    }
+
+    @Override
+    public void onUnregister(LiveMetricsService.LiveExecution execution) {
+        executions.remove(execution.getExecutionId());
+    }
+
+    @Override
+    public void onBatch(LiveMetricsService.LiveExecution execution, long nowSecond) {
+        ExecutionState state = executions.get(execution.getExecutionId());
+        if (state == null) {
+            return;
+        }
+        if (!state.isStarted()) {
+            // Seconds before the first result are the start-up, not an outage
+            state.getLock().lock();
+            try {
+                state.setEvaluatedSecond(Math.max(state.getEvaluatedSecond(), nowSecond - 1));
+                state.setStarted(true);
+            } finally {
+                state.getLock().unlock();
+            }
+        }
+        evaluate(state, nowSecond - 1);
+    }
+
+    /**
+     * Covers the seconds no batch closed, i.e. those without any results.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void evaluateSilentSeconds() {
+        long upTo = Instant.now().getEpochSecond() - SETTLE_SECONDS;
+        for (ExecutionState state : executions.values()) {
+            if (state.isStarted()) {
+                try {
+                    evaluate(state, upTo);
+                } catch (Exception e) {
+                    log.error("Abort check failed for execution {}", state.getExecution().getExecutionId(), e);
+                }
+            }
+        }
+    }
+
+    private void evaluate(ExecutionState state, long upTo) {
+        state.getLock().lock();
+        try {
+            for (long second = state.getEvaluatedSecond() + 1; second <= upTo; second++) {
+                if (executions.get(state.getExecution().getExecutionId()) != state) {
+                    return; // Stopped or aborted meanwhile
+                }
+                state.setEvaluatedSecond(second);
+                check(state, second, state.getExecution().getWindow().snapshot(second, windowSeconds));
+            }
+        } finally {
+            state.getLock().unlock();
+        }
+    }
+
+    /**
+     * Checks every condition against the window ending at
+     * {@code epochSecond}.
+     */
+    private void check(ExecutionState execution, long epochSecond, LiveWindow.Snapshot window) {
+        boolean silent = window.getRequests() == 0;
+        for (ConditionState state : execution.getConditions()) {
+            AbortPolicy.Condition condition = state.getCondition();
+            if (silent && condition.getMetric() != AbortMetric.ERROR_RATE) {
+                continue; // No latency to measure, the streak neither grows nor breaks
+            }
+            double value = silent ? 100 : measure(condition, window);
+            boolean breached = value > condition.getThreshold();
+
+            state.getTimeline().addLast(ExecutionAbort.Point.builder()
+                .at(Instant.ofEpochSecond(epochSecond))
+                .value(value)
+                .breached(breached)
+                .build());
+            while (state.getTimeline().size() > Math.max(1, condition.getForSeconds()) + LEAD_IN_SECONDS) {
+                state.getTimeline().removeFirst();
+            }
+
+            if (!breached) {
+                state.setBreachStartedAt(null);
+                continue;
+            }
+            if (state.getBreachStartedAt() == null) {
+                state.setBreachStartedAt(epochSecond);
+            }
+            if (epochSecond - state.getBreachStartedAt() + 1 >= condition.getForSeconds()) {
+                abort(execution.getExecution(), state, value);
+                return;
+            }
+        }
+    }
+
+    private void abort(LiveMetricsService.LiveExecution execution, ConditionState state, double value) {
+        executions.remove(execution.getExecutionId());
+        AbortPolicy.Condition condition = state.getCondition();
+        String reason = describe(condition, value);
+        log.warn("Aborting execution {} of scenario {}: {}", execution.getExecutionId(), execution.getScenarioId(), reason);
+
+        ExecutionAbort record = ExecutionAbort.builder()
+            .executionId(execution.getExecutionId())
+            .scenarioId(execution.getScenarioId())
+            .reason(reason)
+            .condition(condition)
+            .breachStartedAt(Instant.ofEpochSecond(state.getBreachStartedAt()))
+            .abortedAt(Instant.now())
+            .timeline(new ArrayList<>(state.getTimeline()))
+            .build();
+        taskExecutor.execute(() -> {
+            try {
+                executionAbortRepository.save(record);
+            } catch (Exception e) {
+                log.error("Failed to record abort of execution {}", execution.getExecutionId(), e);
+            }
+            orchestrationService.stopScenario(execution.getExecutionId(), reason);
+        });
+    }
+
+    private static double measure(AbortPolicy.Condition condition, LiveWindow.Snapshot window) {
+        return switch (condition.getMetric()) {
+            case ERROR_RATE -> window.getErrorRate() * 100;
+            case AVG_LATENCY -> window.getAvgLatencyMs();
+            case P95_LATENCY -> window.percentile(0.95);
+            case P99_LATENCY -> window.percentile(0.99);
+        };
+    }
+
+    private static String describe(AbortPolicy.Condition condition, double value) {
+        return switch (condition.getMetric()) {
+            case ERROR_RATE -> String.format("Error rate above %.2f%% for %ds (%.2f%% at abort)",
+                condition.getThreshold(), condition.getForSeconds(), value);
+            case AVG_LATENCY -> String.format("Average latency above %.0fms for %ds (%.2fms at abort)",
+                condition.getThreshold(), condition.getForSeconds(), value);
+            case P95_LATENCY -> String.format("P95 latency above %.0fms for %ds (%.2fms at abort)",
+                condition.getThreshold(), condition.getForSeconds(), value);
+            case P99_LATENCY -> String.format("P99 latency above %.0fms for %ds (%.2fms at abort)",
+                condition.getThreshold(), condition.getForSeconds(), value);
+        };
+    }
+
+    @lombok.Data
+    private static class ExecutionState {
+        private final LiveMetricsService.LiveExecution execution;
+        private final List<ConditionState> conditions;
+        private final ReentrantLock lock = new ReentrantLock(); // Ingest and the silent-second tick both evaluate
+        private long evaluatedSecond; // Newest second already checked
+        private volatile boolean started; // First result arrived, so silence now means the target stopped answering
+    }
+
+    @lombok.Data
+    private static class ConditionState {
+        private final AbortPolicy.Condition condition;
+        private final Deque<ExecutionAbort.Point> timeline = new ArrayDeque<>();
+        private Long breachStartedAt; // Epoch second, null while the condition is not breached
+    }
+}
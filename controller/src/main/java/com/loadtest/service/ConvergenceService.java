@@ -0,0 +1,322 @@
+package com.loadtest.service;
+
+import com.loadtest.model.ConvergencePolicy;
+import com.loadtest.model.ExecutionConvergence;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.repository.ExecutionConvergenceRepository;
+import com.loadtest.utils.LiveWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Completes an execution early once the latency percentiles named in its
+ * {@link ConvergencePolicy} have stopped moving.
+ * <p>
+ * Each completed second yields one estimate of every percentile, read from
+ * that second's totals in the live window. Requests under load are not
+ * independent, and neighbouring seconds are not either, so the uncertainty
+ * is judged from the series of these estimates rather than from the request
+ * count: the seconds are grouped into batches and the confidence interval
+ * is taken over the batch means, with as many degrees of freedom as there
+ * are batches. The number of batches is kept between {@value #MIN_BATCHES}
+ * and {@value #MAX_BATCHES} by merging neighbours and doubling the batch
+ * length, so batches grow with the run and their means become close to
+ * independent. A percentile is within tolerance once the half-width of its
+ * interval and the drift of its estimate across the last
+ * {@code stableSeconds} are both within {@code tolerancePercent} of the
+ * estimate; a level still trending up or down fails the drift check even
+ * when the interval is narrow. Past the minimum duration, once every
+ * percentile has stayed within tolerance for {@code stableSeconds}, the run
+ * completes.
+ * <p>
+ * The trace of estimates and intervals is sampled every
+ * {@code trace-interval-seconds} and kept under {@code max-trace-points} by
+ * halving its resolution when full. It is stored as an
+ * {@link ExecutionConvergence} when the run ends, early or not, and shows up
+ * in the report.
+ */
+@Slf4j
+@Service
+public class ConvergenceService implements LiveMetricsListener {
+
+    private static final int MIN_BATCHES = 10;
+    private static final int MAX_BATCHES = 2 * MIN_BATCHES;
+
+    private final ExecutionConvergenceRepository executionConvergenceRepository;
+    private final LoadTestOrchestrationService orchestrationService;
+
+    private final Map<String, ExecutionState> executions = new ConcurrentHashMap<>();
+
+    @Value("${loadtest.convergence.trace-interval-seconds:5}")
+    private int traceIntervalSeconds;
+
+    @Value("${loadtest.convergence.max-trace-points:720}")
+    private int maxTracePoints;
+
+    public ConvergenceService(
+            ExecutionConvergenceRepository executionConvergenceRepository,
+            @Lazy LoadTestOrchestrationService orchestrationService
+    ) {
+        this.executionConvergenceRepository = executionConvergenceRepository;
+        this.orchestrationService = orchestrationService;
+    }
+
+    @Override
+    public void onRegister(LiveMetricsService.LiveExecution execution, LoadTestScenario scenario) {
+        if (scenario.getConvergencePolicy() == null) {
+            return;
+        }
+        executions.put(execution.getExecutionId(), new ExecutionState(withDefaults(scenario.getConvergencePolicy()),
+            scenario.getDurationSeconds(), Instant.now().getEpochSecond(), traceIntervalSeconds));
+    }
+
+    @Override
+    public void onSecond(LiveMetricsService.LiveExecution execution, long epochSecond, LiveWindow.Snapshot second) {
+        ExecutionState state = executions.get(execution.getExecutionId());
+        if (state == null || second.getRequests() == 0) {
+            return;
+        }
+
+        ConvergencePolicy policy = state.getPolicy();
+        state.setRequests(state.getRequests() + second.getRequests());
+        for (PercentileSeries series : state.getSeries()) {
+            series.add(second.percentile(series.getPercentile() / 100));
+        }
+        List<ExecutionConvergence.Estimate> estimates = estimate(state, policy);
+        boolean within = estimates.stream().allMatch(e -> e.getBatches() >= MIN_BATCHES
+            && e.getHalfWidthPercent() <= policy.getTolerancePercent()
+            && e.getDriftPercent() <= policy.getTolerancePercent());
+        if (!within) {
+            state.setWithinSince(null);
+        } else if (state.getWithinSince() == null) {
+            state.setWithinSince(epochSecond);
+        }
+
+        long elapsed = epochSecond - state.getStartedSecond() + 1;
+        boolean converged = within
+            && elapsed >= policy.getMinDurationSeconds()
+            && epochSecond - state.getWithinSince() + 1 >= policy.getStableSeconds();
+
+        if (converged || epochSecond >= state.getNextTraceSecond()) {
+            trace(state, epochSecond, elapsed, within, estimates);
+        }
+        if (converged) {
+            finish(execution, state, epochSecond, elapsed, estimates);
+        }
+    }
+
+    @Override
+    public void onUnregister(LiveMetricsService.LiveExecution execution) {
+        ExecutionState state = executions.remove(execution.getExecutionId());
+        if (state != null && !state.getTrace().isEmpty()) {
+            // Ran its course without converging; keep the trace for the report
+            save(execution, state, false, null, Instant.now().getEpochSecond() - state.getStartedSecond());
+        }
+    }
+
+    private void finish(LiveMetricsService.LiveExecution execution, ExecutionState state, long epochSecond,
+                        long elapsed, List<ExecutionConvergence.Estimate> estimates) {
+        executions.remove(execution.getExecutionId());
+        String reason = String.format("Percentiles %s converged within ±%.1f%% after %ds",
+            estimates.stream().map(e -> String.format("p%s", format(e.getPercentile()))).collect(Collectors.joining("/")),
+            state.getPolicy().getTolerancePercent(), elapsed);
+        log.info("Completing execution {} of scenario {} early: {}", execution.getExecutionId(), execution.getScenarioId(), reason);
+
+        save(execution, state, true, Instant.ofEpochSecond(epochSecond), elapsed);
+        orchestrationService.completeScenario(execution.getExecutionId(), reason);
+    }
+
+    private void save(LiveMetricsService.LiveExecution execution, ExecutionState state, boolean converged,
+                      Instant convergedAt, long elapsed) {
+        try {
+            executionConvergenceRepository.save(ExecutionConvergence.builder()
+                .executionId(execution.getExecutionId())
+                .scenarioId(execution.getScenarioId())
+                .policy(state.getPolicy())
+                .converged(converged)
+                .convergedAt(convergedAt)
+                .elapsedSeconds(elapsed)
+                .plannedDurationSeconds(state.getPlannedDurationSeconds())
+                .savedSeconds(converged ? Math.max(0, state.getPlannedDurationSeconds() - elapsed) : 0)
+                .trace(new ArrayList<>(state.getTrace()))
+                .build());
+        } catch (Exception e) {
+            log.error("Failed to record convergence of execution {}", execution.getExecutionId(), e);
+        }
+    }
+
+    private void trace(ExecutionState state, long epochSecond, long elapsed, boolean within,
+                       List<ExecutionConvergence.Estimate> estimates) {
+        List<ExecutionConvergence.TracePoint> trace = state.getTrace();
+        if (trace.size() >= maxTracePoints) {
+            // Halve the resolution rather than grow or drop the start of the run
+            List<ExecutionConvergence.TracePoint> kept = new ArrayList<>();
+            for (int i = 0; i < trace.size(); i += 2) {
+                kept.add(trace.get(i));
+            }
+            trace.clear();
+            trace.addAll(kept);
+            state.setTraceInterval(state.getTraceInterval() * 2);
+        }
+        trace.add(ExecutionConvergence.TracePoint.builder()
+            .at(Instant.ofEpochSecond(epochSecond))
+            .elapsedSeconds(elapsed)
+            .requests(state.getRequests())
+            .withinTolerance(within)
+            .estimates(estimates)
+            .build());
+        state.setNextTraceSecond(epochSecond + state.getTraceInterval());
+    }
+
+    private static List<ExecutionConvergence.Estimate> estimate(ExecutionState state, ConvergencePolicy policy) {
+        List<ExecutionConvergence.Estimate> estimates = new ArrayList<>();
+        for (PercentileSeries series : state.getSeries()) {
+            List<Double> means = series.getBatchMeans();
+            int k = means.size();
+            double value = series.mean();
+            double halfWidth = 0;
+            if (k >= 2) {
+                double grand = means.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+                double squares = means.stream().mapToDouble(m -> (m - grand) * (m - grand)).sum();
+                double t = studentQuantile(1 - (1 - policy.getConfidence()) / 2, k - 1);
+                halfWidth = t * Math.sqrt(squares / (k - 1) / k);
+            }
+            double drift = Collections.max(series.getRecent()) - Collections.min(series.getRecent());
+            estimates.add(ExecutionConvergence.Estimate.builder()
+                .percentile(series.getPercentile())
+                .valueMs(value)
+                .lowerMs(Math.max(0, value - halfWidth))
+                .upperMs(value + halfWidth)
+                .halfWidthPercent(value > 0 ? halfWidth / value * 100 : 0)
+                .driftPercent(value > 0 ? drift / value * 100 : 0)
+                .batches(k)
+                .batchSeconds(series.getBatchSeconds())
+                .build());
+        }
+        return estimates;
+    }
+
+    /**
+     * Student t quantile for {@code p} with {@code df} degrees of freedom,
+     * from the normal quantile with the Cornish-Fisher expansion; within 1%
+     * from ten degrees of freedom on, which is all the batch count allows.
+     */
+    private static double studentQuantile(double p, int df) {
+        double z = normalQuantile(p);
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        return z + (z3 + z) / (4.0 * df) + (5 * z5 + 16 * z3 + 3 * z) / (96.0 * df * df);
+    }
+
+    /**
+     * Standard normal quantile for {@code p} in (0, 1), Abramowitz and
+     * Stegun 26.2.23; absolute error below 4.5e-4.
+     */
+    private static double normalQuantile(double p) {
+        double tail = Math.min(p, 1 - p);
+        double t = Math.sqrt(-2 * Math.log(tail));
+        double x = t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+            / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+        return p < 0.5 ? -x : x;
+    }
+
+    private static ConvergencePolicy withDefaults(ConvergencePolicy policy) {
+        return ConvergencePolicy.builder()
+            .percentiles(policy.getPercentiles() != null && !policy.getPercentiles().isEmpty()
+                ? List.copyOf(policy.getPercentiles())
+                : List.of(50.0, 95.0, 99.0))
+            .tolerancePercent(policy.getTolerancePercent() > 0 ? policy.getTolerancePercent() : 5.0)
+            .confidence(policy.getConfidence() > 0 && policy.getConfidence() < 1 ? policy.getConfidence() : 0.95)
+            .minDurationSeconds(policy.getMinDurationSeconds() > 0 ? policy.getMinDurationSeconds() : 60)
+            .stableSeconds(policy.getStableSeconds() > 0 ? policy.getStableSeconds() : 10)
+            .build();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    @lombok.Data
+    private static class ExecutionState {
+        private final ConvergencePolicy policy;
+        private final int plannedDurationSeconds;
+        private final long startedSecond;
+        private final List<PercentileSeries> series;
+        private final List<ExecutionConvergence.TracePoint> trace = new ArrayList<>();
+        private long requests;
+        private int traceInterval;
+        private long nextTraceSecond;
+        private Long withinSince; // First second of the current within-tolerance streak
+
+        ExecutionState(ConvergencePolicy policy, int plannedDurationSeconds, long startedSecond, int traceInterval) {
+            this.policy = policy;
+            this.plannedDurationSeconds = plannedDurationSeconds;
+            this.startedSecond = startedSecond;
+            this.traceInterval = traceInterval;
+            this.series = policy.getPercentiles().stream()
+                .map(p -> new PercentileSeries(p, policy.getStableSeconds()))
+                .toList();
+        }
+    }
+
+    /**
+     * The per-second estimates of one percentile, kept as batch means plus
+     * the running mean over the last {@code stableSeconds}.
+     */
+    @lombok.Data
+    private static class PercentileSeries {
+        private final double percentile;
+        private final int stableSeconds;
+        private final List<Double> batchMeans = new ArrayList<>();
+        private final Deque<Double> recent = new ArrayDeque<>(); // Running mean after each of the last seconds
+        private int batchSeconds = 1;
+        private double batchSum;
+        private int batchFill;
+        private double sum;
+        private long seconds;
+
+        PercentileSeries(double percentile, int stableSeconds) {
+            this.percentile = percentile;
+            this.stableSeconds = stableSeconds;
+        }
+
+        void add(double estimate) {
+            sum += estimate;
+            seconds++;
+            batchSum += estimate;
+            if (++batchFill == batchSeconds) {
+                batchMeans.add(batchSum / batchSeconds);
+                batchSum = 0;
+                batchFill = 0;
+                if (batchMeans.size() == MAX_BATCHES) {
+                    // Halve the count rather than let short, correlated batches pile up
+                    for (int i = 0; i < MIN_BATCHES; i++) {
+                        batchMeans.set(i, (batchMeans.get(2 * i) + batchMeans.get(2 * i + 1)) / 2);
+                    }
+                    batchMeans.subList(MIN_BATCHES, MAX_BATCHES).clear();
+                    batchSeconds *= 2;
+                }
+            }
+            recent.addLast(mean());
+            if (recent.size() > stableSeconds) {
+                recent.removeFirst();
+            }
+        }
+
+        double mean() {
+            return seconds > 0 ? sum / seconds : 0;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.loadtest.service;
+
+import com.loadtest.model.RateSegment;
+import com.loadtest.model.RebalanceEvent;
+import com.loadtest.model.WorkerHeartbeat;
+import com.loadtest.model.WorkerStatus;
+import com.loadtest.model.WorkerTask;
+import com.loadtest.repository.RebalanceEventRepository;
+import com.loadtest.utils.RateScheduleCompiler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Watches worker heartbeats for running executions and moves the remaining
+ * schedule of a lost worker onto idle workers.
+ * <p>
+ * A worker owns a task once it is pinned to it or once its heartbeat reports
+ * the task as current. When that worker's heartbeat expires, goes stale or
+ * reports OFFLINE, every task it owns is re-planned from the current offset
+ * and republished, and a {@link RebalanceEvent} records the intended and
+ * achieved rate before and after the move. The lost tasks are revoked first
+ * and its inbox is cleared, so a worker that is only partitioned stops its
+ * copy instead of doubling the load alongside the replacements. Workers
+ * handed a replacement are left out of the rest of the pass; they still
+ * heartbeat IDLE until their next beat.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExecutionMonitorService {
+
+    private static final int ACHIEVED_RPS_WINDOW_SECONDS = 10;
+    private static final Duration REVOCATION_GRACE = Duration.ofMinutes(10); // Tombstone outlives the task by this much
+
+    private final RedisQueueService redisQueueService;
+    private final TaskPlannerService taskPlannerService;
+    private final MetricsAggregationService metricsService;
+    private final RebalanceEventRepository rebalanceEventRepository;
+
+    private final Map<String, TrackedExecution> executions = new ConcurrentHashMap<>();
+    private final ReentrantLock checkLock = new ReentrantLock(); // Fixed-rate runs can overlap on virtual threads
+
+    @Value("${loadtest.worker.timeout:30000}")
+    private long workerTimeoutMs;
+
+    @Value("${loadtest.worker.rebalance-settle-seconds:30}")
+    private int settleSeconds;
+
+    public void track(String executionId, String scenarioId, List<WorkerTask> tasks) {
+        executions.put(executionId, new TrackedExecution(executionId, scenarioId, tasks));
+    }
+
+    public void untrack(String executionId) {
+        executions.remove(executionId);
+    }
+
+    /**
+     * Tasks of an execution that are still expected to run, including
+     * replacements issued by earlier rebalances.
+     */
+    public List<WorkerTask> activeTasks(String executionId) {
+        TrackedExecution execution = executions.get(executionId);
+        return execution != null ? new ArrayList<>(execution.tasks.values()) : List.of();
+    }
+
+    /**
+     * Records rates pushed to running tasks so a later rebalance reissues
+     * the current rate rather than the original schedule.
+     */
+    public void applyRates(String executionId, Map<String, Integer> taskRates) {
+        TrackedExecution execution = executions.get(executionId);
+        if (execution == null) {
+            return;
+        }
+        taskRates.forEach((taskId, rps) -> {
+            WorkerTask task = execution.tasks.get(taskId);
+            if (task != null) {
+                task.setRps(rps);
+                task.setSchedule(List.of(new RateSegment(0, rps)));
+            }
+        });
+    }
+
+    public List<RebalanceEvent> getRebalanceEvents(String executionId) {
+        return rebalanceEventRepository.findByExecutionIdOrderByDetectedAtAsc(executionId);
+    }
+
+    @Scheduled(fixedRate = 5000) // Every 5 seconds
+    public void checkWorkers() {
+        if (!checkLock.tryLock()) {
+            return; // Previous run still going
+        }
+        try {
+            if (executions.isEmpty()) {
+                return;
+            }
+
+            Map<String, WorkerHeartbeat> heartbeats = redisQueueService.getWorkerHeartbeats();
+            Instant now = Instant.now();
+
+            for (TrackedExecution execution : executions.values()) {
+                try {
+                    if (execution.isFinished(now)) {
+                        executions.remove(execution.executionId);
+                        continue;
+                    }
+                    heartbeats.values().stream()
+                        .filter(hb -> hb.getCurrentTaskId() != null && execution.tasks.containsKey(hb.getCurrentTaskId()))
+                        .forEach(hb -> execution.owners.put(hb.getCurrentTaskId(), hb.getWorkerId()));
+
+                    Set<String> lostWorkers = execution.owners.values().stream()
+                        .filter(workerId -> isLost(heartbeats.get(workerId), now))
+                        .collect(Collectors.toSet());
+                    Set<String> excluded = new HashSet<>(lostWorkers); // Grows with every worker handed a replacement
+                    for (String workerId : lostWorkers) {
+                        rebalance(execution, workerId, excluded, now);
+                    }
+
+                    settle(execution, now);
+                } catch (Exception e) {
+                    log.error("Failed to check workers for execution {}", execution.executionId, e);
+                }
+            }
+        } finally {
+            checkLock.unlock();
+        }
+    }
+
+    private boolean isLost(WorkerHeartbeat heartbeat, Instant now) {
+        return heartbeat == null
+            || heartbeat.getStatus() == WorkerStatus.OFFLINE
+            || (heartbeat.getTimestamp() != null
+                && heartbeat.getTimestamp().isBefore(now.minusMillis(workerTimeoutMs)));
+    }
+
+    private void rebalance(TrackedExecution execution, String lostWorkerId, Set<String> excluded, Instant now) {
+        List<WorkerTask> lostTasks = execution.owners.entrySet().stream()
+            .filter(entry -> entry.getValue().equals(lostWorkerId))
+            .map(entry -> execution.tasks.get(entry.getKey()))
+            .collect(Collectors.toList());
+        int elapsed = execution.elapsedSeconds(now);
+
+        // Forget the lost tasks first so a failed republish is not retried forever
+        lostTasks.forEach(task -> {
+            execution.owners.remove(task.getTaskId());
+            execution.tasks.remove(task.getTaskId());
+        });
+        redisQueueService.clearWorkerInbox(lostWorkerId);
+        redisQueueService.revokeTasks(execution.executionId,
+            lostTasks.stream().map(WorkerTask::getTaskId).collect(Collectors.toList()),
+            Duration.ofSeconds(Math.max(0, execution.durationSeconds - elapsed)).plus(REVOCATION_GRACE));
+
+        List<WorkerTask> replacements = new ArrayList<>();
+        int reissuedRps = 0;
+        for (WorkerTask task : lostTasks) {
+            int taskElapsed = (int) Duration.between(task.getStartTime(), now).getSeconds();
+            reissuedRps += RateScheduleCompiler.rateAt(scheduleOf(task), taskElapsed);
+            List<WorkerTask> reissued = taskPlannerService.planReissue(
+                task, taskElapsed, execution.nextAttempt(), excluded);
+            reissued.stream()
+                .map(WorkerTask::getAssignedWorkerId)
+                .filter(id -> id != null)
+                .forEach(excluded::add);
+            replacements.addAll(reissued);
+        }
+
+        if (!replacements.isEmpty()) {
+            redisQueueService.publishTasks(replacements);
+            for (WorkerTask replacement : replacements) {
+                execution.tasks.put(replacement.getTaskId(), replacement);
+                if (replacement.getAssignedWorkerId() != null) {
+                    execution.owners.put(replacement.getTaskId(), replacement.getAssignedWorkerId());
+                }
+            }
+        }
+
+        RebalanceEvent event = rebalanceEventRepository.save(RebalanceEvent.builder()
+            .executionId(execution.executionId)
+            .scenarioId(execution.scenarioId)
+            .lostWorkerId(lostWorkerId)
+            .lostTaskIds(lostTasks.stream().map(WorkerTask::getTaskId).collect(Collectors.toList()))
+            .reissuedTaskIds(replacements.stream().map(WorkerTask::getTaskId).collect(Collectors.toList()))
+            .replacementWorkerIds(replacements.stream()
+                .map(WorkerTask::getAssignedWorkerId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList()))
+            .detectedAt(now)
+            .elapsedSeconds(elapsed)
+            .intendedRps(execution.intendedRpsAt(elapsed))
+            .reissuedRps(reissuedRps)
+            .achievedRpsBefore(achievedRps(execution))
+            .build());
+        execution.pending.add(event);
+
+        log.warn("Worker {} lost during execution {}: moved {} RPS from {} task(s) to {} replacement(s)",
+            lostWorkerId, execution.executionId, reissuedRps, lostTasks.size(), replacements.size());
+    }
+
+    /**
+     * Records the achieved rate once replacements have had time to ramp up.
+     */
+    private void settle(TrackedExecution execution, Instant now) {
+        execution.pending.removeIf(event -> {
+            if (event.getDetectedAt().plusSeconds(settleSeconds).isAfter(now)) {
+                return false;
+            }
+            event.setAchievedRpsAfter(achievedRps(execution));
+            rebalanceEventRepository.save(event);
+            return true;
+        });
+    }
+
+    private double achievedRps(TrackedExecution execution) {
+        return metricsService.getRealTimeStats(execution.scenarioId, ACHIEVED_RPS_WINDOW_SECONDS).getCurrentRps();
+    }
+
+    private static List<RateSegment> scheduleOf(WorkerTask task) {
+        return task.getSchedule() != null && !task.getSchedule().isEmpty()
+            ? task.getSchedule()
+            : List.of(new RateSegment(0, task.getRps()));
+    }
+
+    private static class TrackedExecution {
+        final String executionId;
+        final String scenarioId;
+        final List<WorkerTask> planned;
+        final Map<String, WorkerTask> tasks = new ConcurrentHashMap<>();
+        final Map<String, String> owners = new ConcurrentHashMap<>();
+        final List<RebalanceEvent> pending = new ArrayList<>();
+        final int durationSeconds;
+        int attempts;
+
+        TrackedExecution(String executionId, String scenarioId, List<WorkerTask> planned) {
+            this.executionId = executionId;
+            this.scenarioId = scenarioId;
+            this.planned = planned;
+            this.durationSeconds = planned.stream().mapToInt(WorkerTask::getDurationSeconds).max().orElse(0);
+            for (WorkerTask task : planned) {
+                tasks.put(task.getTaskId(), task);
+                if (task.getAssignedWorkerId() != null) {
+                    owners.put(task.getTaskId(), task.getAssignedWorkerId());
+                }
+            }
+        }
+
+        // Follows the coordinated start epoch, which can move before the run begins
+        int elapsedSeconds(Instant now) {
+            Instant startedAt = planned.isEmpty() || planned.get(0).getStartTime() == null
+                ? now
+                : planned.get(0).getStartTime();
+            return (int) Duration.between(startedAt, now).getSeconds();
+        }
+
+        boolean isFinished(Instant now) {
+            return elapsedSeconds(now) > durationSeconds && pending.isEmpty();
+        }
+
+        int nextAttempt() {
+            return ++attempts;
+        }
+
+        int intendedRpsAt(int elapsed) {
+            return planned.stream()
+                .mapToInt(task -> RateScheduleCompiler.rateAt(scheduleOf(task), elapsed))
+                .sum();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.loadtest.service;
+
+import com.loadtest.dto.QueueStatus;
+import com.loadtest.model.*;
+import com.loadtest.repository.PendingExecutionRepository;
+import com.loadtest.repository.ScenarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Holds executions back until the worker registry has enough idle capacity
+ * for them.
+ * <p>
+ * Dispatch order is by priority first. Among equal priorities the tenant
+ * that was served least recently goes next, and each tenant's own entries
+ * go FIFO. The head of that order blocks everything behind it, so a large
+ * execution is not starved by smaller ones slipping past. An execution that
+ * no longer fits the registered workers at all, e.g. after some left, is
+ * passed over instead of blocking, and one that waited past
+ * {@code max-wait-seconds} is failed, so no entry holds the queue forever. Workers that were
+ * just handed work still look idle until their next heartbeat, so they are
+ * reserved for {@code reservation-ms} and left out of capacity checks.
+ * <p>
+ * The queue lives in Mongo and is dispatched by the leader only. Every
+ * transition, and every position change while queued, is sent to
+ * {@code /topic/executions/{executionId}}.
+ */
+@Slf4j
+@Service
+public class ExecutionQueueService {
+
+    private final PendingExecutionRepository pendingExecutionRepository;
+    private final ExecutionService executionService;
+    private final ScenarioRepository scenarioRepository;
+    private final TaskPlannerService taskPlannerService;
+    private final LeaderElectionService leaderElectionService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LoadTestOrchestrationService orchestrationService;
+
+    private final Map<String, Instant> reservedWorkers = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastServed = new ConcurrentHashMap<>();
+    private final AtomicLong serveSequence = new AtomicLong();
+
+    @Value("${loadtest.queue.reservation-ms:10000}")
+    private long reservationMs;
+
+    @Value("${loadtest.queue.max-wait-seconds:1800}")
+    private long maxWaitSeconds;
+
+    public ExecutionQueueService(
+            PendingExecutionRepository pendingExecutionRepository,
+            ExecutionService executionService,
+            ScenarioRepository scenarioRepository,
+            TaskPlannerService taskPlannerService,
+            LeaderElectionService leaderElectionService,
+            SimpMessagingTemplate messagingTemplate,
+            @Lazy LoadTestOrchestrationService orchestrationService
+    ) {
+        this.pendingExecutionRepository = pendingExecutionRepository;
+        this.executionService = executionService;
+        this.scenarioRepository = scenarioRepository;
+        this.taskPlannerService = taskPlannerService;
+        this.leaderElectionService = leaderElectionService;
+        this.messagingTemplate = messagingTemplate;
+        this.orchestrationService = orchestrationService;
+    }
+
+    /**
+     * Whether a new execution may skip the queue: nothing is waiting and
+     * the idle workers can take it right away.
+     */
+    public boolean canStartNow(LoadTestScenario scenario) {
+        return pendingExecutionRepository.countByStatus(PendingExecutionStatus.QUEUED) == 0
+            && taskPlannerService.fitsIdleCapacity(scenario, reservedWorkers());
+    }
+
+    public PendingExecution enqueue(LoadTestScenario scenario, String executionId, String tenantId, ExecutionPriority priority) {
+        PendingExecution pending = PendingExecution.builder()
+            .executionId(executionId)
+            .scenarioId(scenario.getId())
+            .userId(scenario.getUserId())
+            .tenantId(tenantId)
+            .priority(priority)
+            .requiredWorkers(scenario.getNumWorkers())
+            .durationSeconds(scenario.getDurationSeconds())
+            .enqueuedAt(Instant.now())
+            .build();
+        transition(pending, PendingExecutionStatus.QUEUED, null);
+        log.info("Queued execution {} of scenario {} for tenant {} at {} priority",
+            executionId, scenario.getId(), tenantId, priority);
+        return pending;
+    }
+
+    /**
+     * Takes a queued execution out of the queue. Returns false when it was
+     * not waiting, e.g. already dispatched.
+     */
+    public boolean cancel(String executionId, String reason) {
+        return pendingExecutionRepository.findByExecutionId(executionId)
+            .filter(pending -> pending.getStatus() == PendingExecutionStatus.QUEUED)
+            .map(pending -> {
+                transition(pending, PendingExecutionStatus.CANCELLED, reason);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    /**
+     * Keeps the workers an execution was just pinned to out of capacity
+     * checks until their heartbeats have caught up.
+     */
+    public void reserve(List<WorkerTask> tasks) {
+        Instant until = Instant.now().plusMillis(reservationMs);
+        tasks.stream()
+            .map(WorkerTask::getAssignedWorkerId)
+            .filter(Objects::nonNull)
+            .forEach(workerId -> reservedWorkers.put(workerId, until));
+    }
+
+    public Set<String> reservedWorkers() {
+        Instant now = Instant.now();
+        reservedWorkers.values().removeIf(until -> until.isBefore(now));
+        return Set.copyOf(reservedWorkers.keySet());
+    }
+
+    public Optional<QueueStatus> getStatus(String executionId) {
+        return pendingExecutionRepository.findByExecutionId(executionId).map(pending -> {
+            if (pending.getStatus() != PendingExecutionStatus.QUEUED) {
+                return toStatus(pending, null, null);
+            }
+            return getQueue().stream()
+                .filter(status -> status.getExecutionId().equals(executionId))
+                .findFirst()
+                .orElseGet(() -> toStatus(pending, null, null));
+        });
+    }
+
+    /**
+     * The caller's queued executions in dispatch order. Positions and ETAs
+     * count everything ahead of them, other users' entries included.
+     */
+    public List<QueueStatus> getQueue(String userId) {
+        return getQueue().stream()
+            .filter(status -> userId.equals(status.getUserId()))
+            .toList();
+    }
+
+    /**
+     * Queued executions in dispatch order, with positions and ETAs.
+     */
+    public List<QueueStatus> getQueue() {
+        List<PendingExecution> ordered = dispatchOrder(pendingExecutionRepository.findByStatus(PendingExecutionStatus.QUEUED));
+        Instant eta = Instant.now().plusSeconds(runningDrainSeconds());
+
+        List<QueueStatus> queue = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            PendingExecution pending = ordered.get(i);
+            queue.add(toStatus(pending, i + 1, eta));
+            eta = eta.plusSeconds(pending.getDurationSeconds());
+        }
+        return queue;
+    }
+
+    @Scheduled(fixedDelay = 2000)
+    public void dispatch() {
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+
+        List<PendingExecution> ordered = dispatchOrder(pendingExecutionRepository.findByStatus(PendingExecutionStatus.QUEUED));
+        boolean changed = false;
+        Instant deadline = Instant.now().minusSeconds(maxWaitSeconds);
+        for (PendingExecution pending : ordered) {
+            LoadTestScenario scenario = scenarioRepository.findById(pending.getScenarioId()).orElse(null);
+            if (scenario == null) {
+                fail(pending, null, "Scenario no longer exists");
+                changed = true;
+                continue;
+            }
+            if (pending.getEnqueuedAt().isBefore(deadline)) {
+                fail(pending, scenario, "Waited longer than " + maxWaitSeconds + "s for worker capacity");
+                changed = true;
+                continue;
+            }
+            try {
+                taskPlannerService.checkFeasible(scenario);
+            } catch (RuntimeException e) {
+                // Workers may come back, so it keeps its place until max-wait
+                log.debug("Passing over queued execution {}: {}", pending.getExecutionId(), e.getMessage());
+                continue;
+            }
+            if (!taskPlannerService.fitsIdleCapacity(scenario, reservedWorkers())) {
+                break; // Head of line waits, nothing behind it jumps ahead
+            }
+
+            try {
+                orchestrationService.launch(pending.getExecutionId(), scenario);
+                pending.setDispatchedAt(Instant.now());
+                transition(pending, PendingExecutionStatus.DISPATCHED,
+                    "Waited " + Duration.between(pending.getEnqueuedAt(), pending.getDispatchedAt()).getSeconds() + "s");
+            } catch (Exception e) {
+                log.error("Failed to dispatch queued execution {}", pending.getExecutionId(), e);
+                fail(pending, scenario, e.getMessage());
+            }
+            lastServed.put(pending.getTenantId(), serveSequence.incrementAndGet());
+            changed = true;
+        }
+
+        if (changed) {
+            getQueue().forEach(this::publish);
+        }
+    }
+
+    /**
+     * Takes the execution out of the queue as FAILED, and the scenario too
+     * while this is its last execution.
+     */
+    private void fail(PendingExecution pending, LoadTestScenario scenario, String reason) {
+        log.warn("Failing queued execution {}: {}", pending.getExecutionId(), reason);
+        transition(pending, PendingExecutionStatus.FAILED, reason);
+        executionService.end(pending.getExecutionId(), ScenarioStatus.FAILED, reason, false);
+        if (scenario != null && pending.getExecutionId().equals(scenario.getLastExecutionId())) {
+            scenario.setStatus(ScenarioStatus.FAILED);
+            scenarioRepository.save(scenario);
+        }
+    }
+
+    private List<PendingExecution> dispatchOrder(List<PendingExecution> queued) {
+        Comparator<PendingExecution> withinTenant = Comparator
+            .comparing(PendingExecution::getPriority, Comparator.reverseOrder())
+            .thenComparing(PendingExecution::getEnqueuedAt);
+
+        Map<String, Deque<PendingExecution>> byTenant = queued.stream()
+            .sorted(withinTenant)
+            .collect(Collectors.groupingBy(PendingExecution::getTenantId, LinkedHashMap::new,
+                Collectors.toCollection(ArrayDeque::new)));
+
+        Map<String, Long> served = new HashMap<>(lastServed);
+        long sequence = serveSequence.get();
+        List<PendingExecution> ordered = new ArrayList<>(queued.size());
+        while (!byTenant.isEmpty()) {
+            Map.Entry<String, Deque<PendingExecution>> next = byTenant.entrySet().stream()
+                .min(Comparator
+                    .comparing((Map.Entry<String, Deque<PendingExecution>> e) -> e.getValue().peek().getPriority(),
+                        Comparator.reverseOrder())
+                    .thenComparing(e -> served.getOrDefault(e.getKey(), 0L))
+                    .thenComparing(e -> e.getValue().peek().getEnqueuedAt()))
+                .orElseThrow();
+
+            ordered.add(next.getValue().poll());
+            served.put(next.getKey(), ++sequence);
+            if (next.getValue().isEmpty()) {
+                byTenant.remove(next.getKey());
+            }
+        }
+        return ordered;
+    }
+
+    private long runningDrainSeconds() {
+        Instant now = Instant.now();
+        return executionService.active().stream()
+            .filter(execution -> execution.getDispatchedAt() != null)
+            .mapToLong(execution -> Duration.between(now,
+                execution.getDispatchedAt().plusSeconds(execution.getDurationSeconds())).getSeconds())
+            .max()
+            .orElse(0L);
+    }
+
+    private void transition(PendingExecution pending, PendingExecutionStatus status, String detail) {
+        pending.setStatus(status);
+        pending.setReason(detail);
+        pending.getTransitions().add(PendingExecution.Transition.builder()
+            .status(status)
+            .at(Instant.now())
+            .detail(detail)
+            .build());
+        pendingExecutionRepository.save(pending);
+        publish(status == PendingExecutionStatus.QUEUED
+            ? getStatus(pending.getExecutionId()).orElse(toStatus(pending, null, null))
+            : toStatus(pending, null, null));
+    }
+
+    private void publish(QueueStatus status) {
+        try {
+            messagingTemplate.convertAndSend("/topic/executions/" + status.getExecutionId(), status);
+        } catch (Exception e) {
+            log.warn("Failed to publish queue status for execution {}", status.getExecutionId(), e);
+        }
+    }
+
+    private QueueStatus toStatus(PendingExecution pending, Integer position, Instant estimatedStartAt) {
+        return QueueStatus.builder()
+            .executionId(pending.getExecutionId())
+            .scenarioId(pending.getScenarioId())
+            .userId(pending.getUserId())
+            .tenantId(pending.getTenantId())
+            .priority(pending.getPriority())
+            .status(pending.getStatus())
+            .reason(pending.getReason())
+            .position(position)
+            .estimatedStartAt(estimatedStartAt)
+            .enqueuedAt(pending.getEnqueuedAt())
+            .dispatchedAt(pending.getDispatchedAt())
+            .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.loadtest.service;
+
+import com.loadtest.dto.MetricExportFilter;
+import com.loadtest.model.Execution;
+import com.loadtest.model.ExecutionPhase;
+import com.loadtest.model.ExecutionPriority;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.ScenarioStats;
+import com.loadtest.model.ScenarioStatus;
+import com.loadtest.repository.ExecutionRepository;
+import com.loadtest.repository.ScenarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps an {@link Execution} record per run and moves it through its
+ * {@link ExecutionPhase}s.
+ * <p>
+ * Every transition is a conditional update that only applies from an
+ * earlier phase, so a late or repeated call, e.g. the start barrier passing
+ * after the run was already stopped, cannot move a record backwards. A
+ * stopped run stays FINALIZING for {@code settle-seconds} so results still
+ * in flight are stored; the leader then computes its stats from the
+ * metrics once and freezes them into the record as it becomes DONE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExecutionService {
+
+    private final ExecutionRepository executionRepository;
+    private final ScenarioRepository scenarioRepository;
+    private final ExportService exportService;
+    private final LeaderElectionService leaderElectionService;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${loadtest.executions.settle-seconds:15}")
+    private int settleSeconds;
+
+    @Value("${loadtest.executions.finalize-batch-size:20}")
+    private int finalizeBatchSize;
+
+    public Execution create(LoadTestScenario scenario, String executionId, ExecutionPriority priority) {
+        return executionRepository.save(Execution.builder()
+            .id(executionId)
+            .scenarioId(scenario.getId())
+            .userId(scenario.getUserId())
+            .scenarioName(scenario.getName())
+            .priority(priority)
+            .numWorkers(scenario.getNumWorkers())
+            .durationSeconds(scenario.getDurationSeconds())
+            .phase(ExecutionPhase.QUEUED)
+            .createdAt(Instant.now())
+            .build());
+    }
+
+    public void dispatching(String executionId) {
+        advance(executionId, ExecutionPhase.DISPATCHING, new Update().set("dispatchedAt", Instant.now()));
+    }
+
+    public void running(String executionId, Instant startedAt) {
+        advance(executionId, ExecutionPhase.RUNNING, new Update().set("startedAt", startedAt));
+    }
+
+    /**
+     * Records how the execution ended. One that never reached the workers
+     * has no metrics to wait for and is DONE right away.
+     */
+    public void end(String executionId, ScenarioStatus outcome, String reason, boolean dispatched) {
+        Instant now = Instant.now();
+        Update update = new Update()
+            .set("outcome", outcome)
+            .set("reason", reason)
+            .set("endedAt", now);
+        if (dispatched) {
+            advance(executionId, ExecutionPhase.FINALIZING, update);
+        } else {
+            advance(executionId, ExecutionPhase.DONE, update.set("finalizedAt", now));
+        }
+    }
+
+    public Optional<Execution> find(String executionId) {
+        return executionRepository.findById(executionId);
+    }
+
+    /**
+     * Executions whose workers have their tasks.
+     */
+    public List<Execution> active() {
+        return executionRepository.findByPhaseIn(List.of(ExecutionPhase.DISPATCHING, ExecutionPhase.RUNNING));
+    }
+
+    /**
+     * Newest first.
+     */
+    public List<Execution> history(String scenarioId, int page, int size) {
+        return executionRepository.findByScenarioIdOrderByCreatedAtDesc(scenarioId, PageRequest.of(page, size));
+    }
+
+    /**
+     * The scenario an execution belongs to. Runs started before executions
+     * were recorded are found through the scenario's last execution id.
+     */
+    public Optional<String> scenarioIdOf(String executionId) {
+        return executionRepository.findById(executionId)
+            .map(Execution::getScenarioId)
+            .or(() -> scenarioRepository.findByLastExecutionId(executionId).map(LoadTestScenario::getId));
+    }
+
+    @Scheduled(fixedDelayString = "${loadtest.executions.finalize-interval-ms:5000}")
+    public void finalizeEnded() {
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+        List<Execution> settled = executionRepository.findByPhaseAndEndedAtBefore(ExecutionPhase.FINALIZING,
+            Instant.now().minusSeconds(settleSeconds), PageRequest.of(0, finalizeBatchSize));
+        for (Execution execution : settled) {
+            try {
+                ScenarioStats stats = exportService.computeStats(MetricExportFilter.builder()
+                    .scenarioId(execution.getScenarioId())
+                    .executionId(execution.getId())
+                    .build());
+                advance(execution.getId(), ExecutionPhase.DONE, new Update()
+                    .set("finalStats", stats)
+                    .set("finalizedAt", Instant.now()));
+                log.info("Froze stats of execution {}: {} requests, p95 {}ms",
+                    execution.getId(), stats.getTotalRequests(), stats.getP95LatencyMs());
+            } catch (Exception e) {
+                log.error("Failed to finalize execution {}", execution.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Moves the execution to {@code phase} if it is in an earlier one.
+     */
+    private void advance(String executionId, ExecutionPhase phase, Update update) {
+        List<ExecutionPhase> earlier = Arrays.stream(ExecutionPhase.values())
+            .filter(p -> p.compareTo(phase) < 0)
+            .toList();
+        Query query = Query.query(Criteria.where("_id").is(executionId).and("phase").in(earlier));
+        if (mongoTemplate.updateFirst(query, update.set("phase", phase), Execution.class).getModifiedCount() == 0) {
+            log.debug("Execution {} not moved to {}, unknown or already there", executionId, phase);
+        }
+    }
+}
@@ -1,23 +1,45 @@
 package com.loadtest.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.dto.MetricExportFilter;
+import com.loadtest.exception.ResourceNotFoundException;
 import com.loadtest.model.*;
+import com.loadtest.repository.ExecutionAbortRepository;
+import com.loadtest.repository.ExecutionConvergenceRepository;
 import com.loadtest.repository.MetricRepository;
 import com.loadtest.repository.ScenarioRepository;
+import com.loadtest.utils.ArrowRecordWriter;
+import com.loadtest.utils.MetricStatsAccumulator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -27,63 +49,285 @@ public class ExportService {
     private final ScenarioRepository scenarioRepository;
     private final MetricRepository metricRepository;
     private final MetricsAggregationService metricsService;
+    private final ExecutionAbortRepository executionAbortRepository;
+    private final ExecutionConvergenceRepository executionConvergenceRepository;
     private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
     
     private static final DateTimeFormatter FORMATTER = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             .withZone(ZoneId.systemDefault());
     
-    public byte[] exportToJson(String scenarioId) throws IOException {
-        LoadTestScenario scenario = scenarioRepository.findById(scenarioId)
-            .orElseThrow(() -> new RuntimeException("Scenario not found"));
-        
-        ScenarioStats stats = metricsService.getAggregatedStats(scenarioId);
-        List<Metric> metrics = metricRepository.findByScenarioId(scenarioId);
-        
-        Map<String, Object> export = new LinkedHashMap<>();
-        export.put("scenario", scenario);
-        export.put("stats", stats);
-        export.put("metrics", metrics);
-        export.put("exportedAt", Instant.now());
-        
-        return objectMapper.writerWithDefaultPrettyPrinter()
-            .writeValueAsBytes(export);
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+    
+    private static final Map<String, CsvColumn> CSV_COLUMNS = new LinkedHashMap<>();
+    static {
+        csvColumn("timestamp", "Timestamp", m -> m.getTimestamp() != null ? FORMATTER.format(m.getTimestamp()) : "");
+        csvColumn("executionId", "Execution ID", Metric::getExecutionId);
+        csvColumn("workerId", "Worker ID", Metric::getWorkerId);
+        csvColumn("latencyMs", "Latency (ms)", Metric::getLatencyMs);
+        csvColumn("statusCode", "Status Code", Metric::getStatusCode);
+        csvColumn("success", "Success", Metric::isSuccess);
+        csvColumn("errorMessage", "Error Message", m -> m.getErrorMessage() != null ? m.getErrorMessage() : "");
+        csvColumn("requestCount", "Request Count", Metric::getRequestCount);
     }
     
-    public byte[] exportToCsv(String scenarioId) throws IOException {
-        List<Metric> metrics = metricRepository.findByScenarioId(scenarioId);
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
-        
+    public static final List<String> DEFAULT_CSV_COLUMNS = List.of(
+        "timestamp", "workerId", "latencyMs", "statusCode", "success", "errorMessage", "requestCount");
+    
+    @Value("${loadtest.export.cursor-batch-size:1000}")
+    private int cursorBatchSize;
+    
+    @Value("${loadtest.export.arrow.batch-rows:65536}")
+    private int arrowBatchRows;
+    
+    @Value("${loadtest.export.arrow.max-memory-bytes:268435456}")
+    private long arrowMaxMemoryBytes;
+    
+    private BufferAllocator arrowAllocator;
+    
+    public enum ArrowTable {
+        METRICS, // One row per stored metric
+        ROLLUPS  // One row per second and execution
+    }
+    
+    private static final List<ArrowRecordWriter.Column<Metric>> ARROW_METRIC_COLUMNS = List.of(
+        new ArrowRecordWriter.Column<>("timestamp", ArrowRecordWriter.Type.TIMESTAMP, Metric::getTimestamp),
+        new ArrowRecordWriter.Column<>("executionId", ArrowRecordWriter.Type.DICTIONARY, Metric::getExecutionId),
+        new ArrowRecordWriter.Column<>("workerId", ArrowRecordWriter.Type.DICTIONARY, Metric::getWorkerId),
+        new ArrowRecordWriter.Column<>("latencyMs", ArrowRecordWriter.Type.INT64, Metric::getLatencyMs),
+        new ArrowRecordWriter.Column<>("statusCode", ArrowRecordWriter.Type.INT32, Metric::getStatusCode),
+        new ArrowRecordWriter.Column<>("success", ArrowRecordWriter.Type.BOOL, Metric::isSuccess),
+        new ArrowRecordWriter.Column<>("errorMessage", ArrowRecordWriter.Type.DICTIONARY, Metric::getErrorMessage),
+        new ArrowRecordWriter.Column<>("requestCount", ArrowRecordWriter.Type.INT32, Metric::getRequestCount)
+    );
+    
+    private static final List<ArrowRecordWriter.Column<SecondRollup>> ARROW_ROLLUP_COLUMNS = List.of(
+        new ArrowRecordWriter.Column<>("second", ArrowRecordWriter.Type.TIMESTAMP, SecondRollup::getSecond),
+        new ArrowRecordWriter.Column<>("executionId", ArrowRecordWriter.Type.DICTIONARY, SecondRollup::getExecutionId),
+        new ArrowRecordWriter.Column<>("requests", ArrowRecordWriter.Type.INT64, SecondRollup::getRequests),
+        new ArrowRecordWriter.Column<>("failures", ArrowRecordWriter.Type.INT64, SecondRollup::getFailures),
+        new ArrowRecordWriter.Column<>("avgLatencyMs", ArrowRecordWriter.Type.FLOAT64, SecondRollup::getAvgLatencyMs),
+        new ArrowRecordWriter.Column<>("minLatencyMs", ArrowRecordWriter.Type.INT64, SecondRollup::getMinLatencyMs),
+        new ArrowRecordWriter.Column<>("maxLatencyMs", ArrowRecordWriter.Type.INT64, SecondRollup::getMaxLatencyMs),
+        new ArrowRecordWriter.Column<>("workers", ArrowRecordWriter.Type.INT32, r -> r.getWorkers().size())
+    );
+    
+    @PostConstruct
+    public void init() {
+        arrowAllocator = new RootAllocator(arrowMaxMemoryBytes);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        arrowAllocator.close();
+    }
+    
+    public LoadTestScenario getScenario(String scenarioId) {
+        return scenarioRepository.findById(scenarioId)
+            .orElseThrow(() -> new ResourceNotFoundException("Scenario not found: " + scenarioId));
+    }
+    
+    /**
+     * Writes {@code {"scenario", "exportedAt", "metrics": [...], "stats"}}
+     * with a streaming generator. The header is flushed before the first
+     * metric is read, metrics are written one at a time from a cursor, and
+     * the stats of the exported metrics are accumulated on the way and
+     * written last. Flushes but does not close {@code out}.
+     */
+    public void streamJson(LoadTestScenario scenario, MetricExportFilter filter, boolean pretty, OutputStream out)
+            throws IOException {
+        MetricStatsAccumulator stats = new MetricStatsAccumulator();
+        try (JsonGenerator generator = createGenerator(out)) {
+            if (pretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            generator.writeObjectField("scenario", scenario);
+            generator.writeObjectField("exportedAt", Instant.now());
+            generator.writeArrayFieldStart("metrics");
+            generator.flush();
+            
+            try (Stream<Metric> metrics = streamMetrics(filter)) {
+                Iterator<Metric> it = metrics.iterator();
+                while (it.hasNext()) {
+                    Metric metric = it.next();
+                    generator.writeObject(metric);
+                    stats.add(metric);
+                }
+            }
+            
+            generator.writeEndArray();
+            generator.writeObjectField("stats", stats.build(scenario.getId()));
+            generator.writeEndObject();
+        }
+    }
+    
+    /**
+     * Same content as {@link #streamJson} as newline-delimited JSON: a
+     * {@code {"scenario", "exportedAt"}} line, one line per metric, and a
+     * closing {@code {"stats"}} line.
+     */
+    public void streamNdjson(LoadTestScenario scenario, MetricExportFilter filter, OutputStream out) throws IOException {
+        MetricStatsAccumulator stats = new MetricStatsAccumulator();
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            generator.writeStartObject();
+            generator.writeObjectField("scenario", scenario);
+            generator.writeObjectField("exportedAt", Instant.now());
+            generator.writeEndObject();
+            generator.flush();
+            
+            try (Stream<Metric> metrics = streamMetrics(filter)) {
+                Iterator<Metric> it = metrics.iterator();
+                while (it.hasNext()) {
+                    Metric metric = it.next();
+                    generator.writeObject(metric);
+                    stats.add(metric);
+                }
+            }
+            
+            generator.writeStartObject();
+            generator.writeObjectField("stats", stats.build(scenario.getId()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+    
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // Closing flushes the buffer, the response stays open
+        return generator;
+    }
+    
+    /**
+     * Checks the requested CSV columns, falling back to
+     * {@link #DEFAULT_CSV_COLUMNS}. Called before the response starts so
+     * that a bad column is still a 400.
+     */
+    public List<String> resolveCsvColumns(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return DEFAULT_CSV_COLUMNS;
+        }
+        for (String column : requested) {
+            if (!CSV_COLUMNS.containsKey(column)) {
+                throw new IllegalArgumentException("Unknown column '" + column + "', expected one of " + CSV_COLUMNS.keySet());
+            }
+        }
+        return requested;
+    }
+    
+    /**
+     * Writes the filtered metrics as CSV, one row at a time from a Mongo
+     * cursor, so memory stays flat however long the run was. Flushes but
+     * does not close {@code out}.
+     */
+    public void streamCsv(MetricExportFilter filter, List<String> columns, OutputStream out) throws IOException {
+        List<CsvColumn> selected = columns.stream().map(CSV_COLUMNS::get).toList();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_BYTES);
         CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
-            .setHeader(
-                "Timestamp",
-                "Worker ID",
-                "Latency (ms)",
-                "Status Code",
-                "Success",
-                "Error Message",
-                "Request Count"
-            )
+            .setHeader(selected.stream().map(CsvColumn::getHeader).toArray(String[]::new))
             .build());
         
-        for (Metric metric : metrics) {
-            csvPrinter.printRecord(
-                FORMATTER.format(metric.getTimestamp()),
-                metric.getWorkerId(),
-                metric.getLatencyMs(),
-                metric.getStatusCode(),
-                metric.isSuccess(),
-                metric.getErrorMessage() != null ? metric.getErrorMessage() : "",
-                metric.getRequestCount()
-            );
+        Object[] row = new Object[selected.size()];
+        long rows = 0;
+        try (Stream<Metric> metrics = streamMetrics(filter)) {
+            Iterator<Metric> it = metrics.iterator();
+            while (it.hasNext()) {
+                Metric metric = it.next();
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = selected.get(i).getValue().apply(metric);
+                }
+                csvPrinter.printRecord(row);
+                rows++;
+            }
         }
-        
         csvPrinter.flush();
-        writer.flush();
-        
-        return out.toByteArray();
+        log.debug("Exported {} metric rows of scenario {} as CSV", rows, filter.getScenarioId());
+    }
+    
+    /**
+     * Writes the filtered metrics, or their per-second rollups, as an Arrow
+     * IPC stream with typed columns. Record batches of
+     * {@code loadtest.export.arrow.batch-rows} rows are written as the
+     * cursor advances; worker ids, execution ids and error messages are
+     * dictionary-encoded. Does not close {@code out}.
+     */
+    public void streamArrow(MetricExportFilter filter, ArrowTable table, OutputStream out) throws IOException {
+        try (BufferAllocator allocator = arrowAllocator.newChildAllocator("export-" + filter.getScenarioId(), 0, Long.MAX_VALUE);
+             Stream<Metric> metrics = streamMetrics(filter)) {
+            Iterator<Metric> it = metrics.iterator();
+            if (table == ArrowTable.METRICS) {
+                try (ArrowRecordWriter<Metric> writer = new ArrowRecordWriter<>(ARROW_METRIC_COLUMNS, allocator, out, arrowBatchRows)) {
+                    while (it.hasNext()) {
+                        writer.write(it.next());
+                    }
+                    writer.finish();
+                    log.debug("Exported {} metric rows of scenario {} as Arrow", writer.getTotal(), filter.getScenarioId());
+                }
+            } else {
+                try (ArrowRecordWriter<SecondRollup> writer = new ArrowRecordWriter<>(ARROW_ROLLUP_COLUMNS, allocator, out, arrowBatchRows)) {
+                    // Metrics come in timestamp order, so a second is complete once a later one shows up
+                    Map<String, SecondRollup> open = new LinkedHashMap<>();
+                    while (it.hasNext()) {
+                        Metric metric = it.next();
+                        if (metric.getTimestamp() == null) {
+                            continue;
+                        }
+                        Instant second = metric.getTimestamp().truncatedTo(ChronoUnit.SECONDS);
+                        if (!open.isEmpty() && !open.values().iterator().next().getSecond().equals(second)) {
+                            for (SecondRollup rollup : open.values()) {
+                                writer.write(rollup);
+                            }
+                            open.clear();
+                        }
+                        open.computeIfAbsent(String.valueOf(metric.getExecutionId()),
+                            k -> new SecondRollup(second, metric.getExecutionId())).add(metric);
+                    }
+                    for (SecondRollup rollup : open.values()) {
+                        writer.write(rollup);
+                    }
+                    writer.finish();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Stats of the metrics matching the filter, read through a cursor like
+     * the exports, so percentiles are accurate to about 2%.
+     */
+    public ScenarioStats computeStats(MetricExportFilter filter) {
+        MetricStatsAccumulator stats = new MetricStatsAccumulator();
+        try (Stream<Metric> metrics = streamMetrics(filter)) {
+            metrics.forEach(stats::add);
+        }
+        return stats.build(filter.getScenarioId());
+    }
+    
+    /**
+     * Metrics matching the filter in timestamp order, read through a
+     * server-side cursor {@code loadtest.export.cursor-batch-size} documents
+     * at a time. Must be closed.
+     */
+    private Stream<Metric> streamMetrics(MetricExportFilter filter) {
+        Criteria criteria = Criteria.where("scenarioId").is(filter.getScenarioId());
+        if (filter.getExecutionId() != null) {
+            criteria = criteria.and("executionId").is(filter.getExecutionId());
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (filter.getFrom() != null) {
+                timestamp.gte(filter.getFrom());
+            }
+            if (filter.getTo() != null) {
+                timestamp.lt(filter.getTo());
+            }
+        }
+        Query query = Query.query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+            .cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, Metric.class);
     }
     
     public byte[] exportToHtml(String scenarioId) throws IOException {
@@ -105,6 +349,20 @@ public class ExportService {
         List<String> insights = generateInsights(stats);
         List<String> recommendations = generateRecommendations(stats);
         
+        ExecutionAbort abort = scenario.getLastExecutionId() != null
+            ? executionAbortRepository.findByExecutionId(scenario.getLastExecutionId()).orElse(null)
+            : null;
+        if (abort != null) {
+            insights.add(0, "Run was aborted early: " + abort.getReason());
+        }
+        ExecutionConvergence convergence = scenario.getLastExecutionId() != null
+            ? executionConvergenceRepository.findByExecutionId(scenario.getLastExecutionId()).orElse(null)
+            : null;
+        if (convergence != null && convergence.isConverged()) {
+            insights.add(0, String.format("Percentiles converged after %ds, so the run stopped %ds early",
+                convergence.getElapsedSeconds(), convergence.getSavedSeconds()));
+        }
+        
         String summary = generateSummary(scenario, stats);
         
         return TestReport.builder()
@@ -115,6 +373,8 @@ public class ExportService {
             .stats(stats)
             .insights(insights)
             .recommendations(recommendations)
+            .abort(abort)
+            .convergence(convergence)
             .generatedAt(Instant.now())
             .build();
     }
@@ -385,4 +645,44 @@ public class ExportService {
             scenario.getLoadProfile().getType()
         );
     }
-}
\ No newline at end of file
+    
+    private static void csvColumn(String name, String header, Function<Metric, Object> value) {
+        CSV_COLUMNS.put(name, new CsvColumn(header, value));
+    }
+    
+    @lombok.Value
+    private static class CsvColumn {
+        String header;
+        Function<Metric, Object> value;
+    }
+    
+    @lombok.Data
+    private static class SecondRollup {
+        private final Instant second;
+        private final String executionId;
+        private final Set<String> workers = new HashSet<>();
+        private long requests;
+        private long failures;
+        private double latencyProduct;
+        private long minLatencyMs = Long.MAX_VALUE;
+        private long maxLatencyMs;
+        
+        void add(Metric metric) {
+            long count = metric.getRequestCount() > 0 ? metric.getRequestCount() : 1;
+            requests += count;
+            if (!metric.isSuccess()) {
+                failures += count;
+            }
+            latencyProduct += metric.getLatencyMs() * count;
+            minLatencyMs = Math.min(minLatencyMs, metric.getLatencyMs());
+            maxLatencyMs = Math.max(maxLatencyMs, metric.getLatencyMs());
+            if (metric.getWorkerId() != null) {
+                workers.add(metric.getWorkerId());
+            }
+        }
+        
+        double getAvgLatencyMs() {
+            return requests > 0 ? latencyProduct / requests : 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.loadtest.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis lease leader election among controller replicas, the same scheme the
+ * admission service uses in {@code leadership/leader.go}: SET NX with a TTL
+ * to acquire and a compare-and-PEXPIRE script to renew. Only the leader
+ * fires cron schedules and stop timers.
+ * <p>
+ * Renewal runs well inside the TTL, and a leader steps down as soon as a
+ * renewal fails. On shutdown the lease is released so another replica
+ * takes over on its next tick instead of waiting for the TTL to run out.
+ * {@link LeadershipAcquired} is published on the application task executor
+ * once the lease lock is released, so listeners that reload state never
+ * hold up the next renewal.
+ */
+@Slf4j
+@Service
+public class LeaderElectionService {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then\n" +
+        "  return redis.call('pexpire', KEYS[1], ARGV[2])\n" +
+        "else\n" +
+        "  return 0\n" +
+        "end",
+        Long.class
+    );
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then\n" +
+        "  return redis.call('del', KEYS[1])\n" +
+        "else\n" +
+        "  return 0\n" +
+        "end",
+        Long.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean leader = new AtomicBoolean(false);
+    private final ReentrantLock leaseLock = new ReentrantLock(); // Fixed-rate runs can overlap on virtual threads
+
+    @Value("${loadtest.leader.key:loadtest:controller:leader}")
+    private String leaderKey;
+
+    @Value("${loadtest.leader.ttl-ms:5000}")
+    private long leaseTtlMs;
+
+    public LeaderElectionService(
+            RedisTemplate<String, String> redisTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public boolean isLeader() {
+        return leader.get();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainLease();
+    }
+
+    @Scheduled(fixedRateString = "${loadtest.leader.renew-interval-ms:1000}")
+    public void maintainLease() {
+        if (!leaseLock.tryLock()) {
+            return; // Previous run still going
+        }
+        boolean acquired = false;
+        try {
+            boolean wasLeader = leader.get();
+            boolean isLeader;
+            try {
+                if (wasLeader) {
+                    Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(leaderKey),
+                        nodeId, String.valueOf(leaseTtlMs));
+                    isLeader = renewed != null && renewed == 1L;
+                } else {
+                    isLeader = Boolean.TRUE.equals(
+                        redisTemplate.opsForValue().setIfAbsent(leaderKey, nodeId, Duration.ofMillis(leaseTtlMs)));
+                }
+            } catch (Exception e) {
+                log.warn("Leader lease check failed", e);
+                isLeader = false;
+            }
+
+            leader.set(isLeader);
+            if (isLeader && !wasLeader) {
+                log.info("Controller {} became leader", nodeId);
+                acquired = true;
+            } else if (!isLeader && wasLeader) {
+                log.warn("Controller {} lost leadership", nodeId);
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+        if (acquired) {
+            // Listeners reload whole collections; renewals must not wait for them
+            taskExecutor.execute(() -> eventPublisher.publishEvent(new LeadershipAcquired(nodeId)));
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (leader.getAndSet(false)) {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(leaderKey), nodeId);
+                log.info("Controller {} released leadership", nodeId);
+            } catch (Exception e) {
+                log.warn("Failed to release leader lease", e);
+            }
+        }
+    }
+
+    /**
+     * Published when this replica takes over, so leader-only work can pick
+     * up anything the previous leader left behind.
+     */
+    @lombok.Value
+    public static class LeadershipAcquired {
+        String nodeId;
+    }
+}
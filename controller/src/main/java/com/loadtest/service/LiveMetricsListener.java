@@ -0,0 +1,44 @@
+package com.loadtest.service;
+
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.WorkerResult;
+import com.loadtest.utils.LiveWindow;
+
+/**
+ * Consumer of the live per-execution metrics kept by
+ * {@link LiveMetricsService}. {@link #onResult}, {@link #onSecond} and
+ * {@link #onBatch} run on the result processor one batch at a time, so
+ * state touched only there needs no locking. Registration callbacks come
+ * from the launching and stopping threads.
+ */
+public interface LiveMetricsListener {
+
+    /**
+     * The execution launched, or was picked up from its first result after
+     * a controller restart.
+     */
+    default void onRegister(LiveMetricsService.LiveExecution execution, LoadTestScenario scenario) {
+    }
+
+    /**
+     * A result was added to the execution's window.
+     */
+    default void onResult(LiveMetricsService.LiveExecution execution, WorkerResult result) {
+    }
+
+    /**
+     * Second {@code epochSecond} is complete; {@code second} holds its
+     * totals. Seconds without results are skipped.
+     */
+    default void onSecond(LiveMetricsService.LiveExecution execution, long epochSecond, LiveWindow.Snapshot second) {
+    }
+
+    /**
+     * An ingest batch added results to the execution.
+     */
+    default void onBatch(LiveMetricsService.LiveExecution execution, long nowSecond) {
+    }
+
+    default void onUnregister(LiveMetricsService.LiveExecution execution) {
+    }
+}
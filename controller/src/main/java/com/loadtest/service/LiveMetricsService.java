@@ -0,0 +1,196 @@
+package com.loadtest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loadtest.model.ExecutionPhase;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.WorkerResult;
+import com.loadtest.repository.ExecutionRepository;
+import com.loadtest.repository.ScenarioRepository;
+import com.loadtest.utils.LiveWindow;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last {@code history-seconds} of every running execution's
+ * results in memory and hands them to the {@link LiveMetricsListener}s
+ * (SLA, anomaly detection, abort and convergence policies) as they arrive,
+ * so none of them reads metrics back from Mongo.
+ * <p>
+ * Results are bucketed by arrival second rather than by the worker's
+ * timestamp, so worker clock skew cannot push them out of range. A second
+ * is complete once results for a later second arrive. Executions that were
+ * already running when the controller started are picked up from their
+ * first result. Each replica sees only the results it drained itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveMetricsService {
+
+    private final ScenarioRepository scenarioRepository;
+    private final ExecutionRepository executionRepository;
+    private final List<LiveMetricsListener> listeners;
+
+    private final Map<String, LiveExecution> executions = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> finished = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .maximumSize(10_000)
+        .build(); // So late results of a stopped execution cost no lookup
+
+    @Value("${loadtest.live.history-seconds:300}")
+    private int historySeconds;
+
+    public void register(String executionId, LoadTestScenario scenario) {
+        LiveExecution execution = new LiveExecution(executionId, scenario.getId(), scenario.getUserId(),
+            scenario.getName(), new LiveWindow(historySeconds), Instant.now().getEpochSecond() - 1);
+        executions.put(executionId, execution);
+        finished.invalidate(executionId);
+        for (LiveMetricsListener listener : listeners) {
+            try {
+                listener.onRegister(execution, scenario);
+            } catch (Exception e) {
+                log.error("Live metrics listener {} failed to register execution {}",
+                    listener.getClass().getSimpleName(), executionId, e);
+            }
+        }
+    }
+
+    public void unregister(String executionId) {
+        finished.put(executionId, Boolean.TRUE);
+        LiveExecution execution = executions.remove(executionId);
+        if (execution == null) {
+            return;
+        }
+        for (LiveMetricsListener listener : listeners) {
+            try {
+                listener.onUnregister(execution);
+            } catch (Exception e) {
+                log.error("Live metrics listener {} failed to unregister execution {}",
+                    listener.getClass().getSimpleName(), executionId, e);
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of results to the live windows, then notifies the
+     * listeners for every execution it touched.
+     */
+    public void ingest(List<WorkerResult> results) {
+        long nowSecond = Instant.now().getEpochSecond();
+        Set<LiveExecution> touched = new LinkedHashSet<>();
+        for (WorkerResult result : results) {
+            LiveExecution execution = lookup(executionIdOf(result.getTaskId()));
+            if (execution != null) {
+                record(execution.getWindow(), nowSecond, result);
+                touched.add(execution);
+                for (LiveMetricsListener listener : listeners) {
+                    try {
+                        listener.onResult(execution, result);
+                    } catch (Exception e) {
+                        log.error("Live metrics listener {} failed for execution {}",
+                            listener.getClass().getSimpleName(), execution.getExecutionId(), e);
+                    }
+                }
+            }
+        }
+
+        for (LiveExecution execution : touched) {
+            closeSeconds(execution, nowSecond);
+            for (LiveMetricsListener listener : listeners) {
+                try {
+                    listener.onBatch(execution, nowSecond);
+                } catch (Exception e) {
+                    log.error("Live metrics listener {} failed for execution {}",
+                        listener.getClass().getSimpleName(), execution.getExecutionId(), e);
+                }
+            }
+        }
+    }
+
+    private void closeSeconds(LiveExecution execution, long nowSecond) {
+        long from = Math.max(execution.getLastClosedSecond() + 1, nowSecond - historySeconds + 1);
+        for (long second = from; second < nowSecond; second++) {
+            LiveWindow.Snapshot totals = execution.getWindow().at(second);
+            if (totals.getRequests() == 0) {
+                continue;
+            }
+            for (LiveMetricsListener listener : listeners) {
+                try {
+                    listener.onSecond(execution, second, totals);
+                } catch (Exception e) {
+                    log.error("Live metrics listener {} failed for execution {}",
+                        listener.getClass().getSimpleName(), execution.getExecutionId(), e);
+                }
+            }
+        }
+        execution.setLastClosedSecond(Math.max(execution.getLastClosedSecond(), nowSecond - 1));
+    }
+
+    private LiveExecution lookup(String executionId) {
+        if (executionId == null) {
+            return null;
+        }
+        LiveExecution execution = executions.get(executionId);
+        if (execution != null || finished.getIfPresent(executionId) != null) {
+            return execution;
+        }
+
+        // Started before this controller did
+        executionRepository.findById(executionId)
+            .filter(e -> e.getPhase() == ExecutionPhase.DISPATCHING || e.getPhase() == ExecutionPhase.RUNNING)
+            .flatMap(e -> scenarioRepository.findById(e.getScenarioId()))
+            .ifPresentOrElse(scenario -> register(executionId, scenario),
+                () -> finished.put(executionId, Boolean.TRUE));
+        return executions.get(executionId);
+    }
+
+    private static void record(LiveWindow window, long nowSecond, WorkerResult result) {
+        if (result.getTotalRequests() > 0) {
+            window.record(nowSecond, result.getTotalRequests(), result.getErrorCount(),
+                result.getAvgLatencyMs(), result.getP95LatencyMs(), result.getP99LatencyMs());
+        } else {
+            window.record(nowSecond, 1, result.isSuccess() ? 0 : 1,
+                result.getLatencyMs(), 0, 0);
+        }
+    }
+
+    private static String executionIdOf(String taskId) {
+        if (taskId == null || !taskId.contains("-w")) {
+            return null;
+        }
+        return taskId.substring(0, taskId.lastIndexOf("-w"));
+    }
+
+    @Getter
+    public static class LiveExecution {
+        private final String executionId;
+        private final String scenarioId;
+        private final String userId;
+        private final String scenarioName;
+        private final LiveWindow window;
+        @lombok.Setter
+        private long lastClosedSecond; // Newest second already handed to onSecond
+
+        LiveExecution(String executionId, String scenarioId, String userId, String scenarioName,
+                      LiveWindow window, long lastClosedSecond) {
+            this.executionId = executionId;
+            this.scenarioId = scenarioId;
+            this.userId = userId;
+            this.scenarioName = scenarioName;
+            this.window = window;
+            this.lastClosedSecond = lastClosedSecond;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.loadtest.exception.InsufficientWorkersException;
 import com.loadtest.exception.ScenarioNotFoundException;
 import com.loadtest.model.*;
 import com.loadtest.repository.ScenarioRepository;
+import com.loadtest.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,14 +23,29 @@ public class LoadTestOrchestrationService {
     private final RedisQueueService redisQueueService;
     private final MetricsAggregationService metricsAggregationService;
     private final WebSocketMetricsStreamer webSocketMetricsStreamer;
-    private final SchedulerService schedulerService;
+    private final StopTimerService stopTimerService;
     private final AdmissionClient admissionClient;
+    private final TaskPlannerService taskPlannerService;
+    private final ExecutionMonitorService executionMonitorService;
+    private final AdaptiveLoadService adaptiveLoadService;
+    private final StartBarrierService startBarrierService;
+    private final ExecutionQueueService executionQueueService;
+    private final LiveMetricsService liveMetricsService;
+    private final ExecutionService executionService;
 
     /**
      * Entry point for executing a load test scenario.
      */
-    @Transactional
     public String startScenario(String scenarioId) {
+        return startScenario(scenarioId, ExecutionPriority.NORMAL);
+    }
+
+    /**
+     * Starts the scenario if the idle workers can take it now, otherwise
+     * queues it until they can. Either way the execution id is returned.
+     * Not transactional, so nothing is held open while admission answers.
+     */
+    public String startScenario(String scenarioId, ExecutionPriority priority) {
 
         LoadTestScenario scenario = scenarioRepository.findById(scenarioId)
                 .orElseThrow(() ->
@@ -55,37 +71,66 @@ public class LoadTestOrchestrationService {
         );
 
         /* ===============================
-           WORKER AVAILABILITY CHECK
+           WORKER AVAILABILITY (QUEUE)
            =============================== */
-        int requiredWorkers = scenario.getNumWorkers();
-        int availableWorkers = redisQueueService.getActiveWorkerCount();
-
-        if (availableWorkers < requiredWorkers) {
-            log.warn("Insufficient workers: required {}, available {}", requiredWorkers, availableWorkers);
-            // In a real generic pool, we might throw or queue. 
-            // For now allowing it but logging warning, or throw if strict.
-            // throw new InsufficientWorkersException(requiredWorkers, availableWorkers);
+        taskPlannerService.checkFeasible(scenario); // Never queue what can never dispatch
+        String executionId = UUID.randomUUID().toString();
+        executionService.create(scenario, executionId, priority);
+
+        if (!executionQueueService.canStartNow(scenario)) {
+            String tenantId = TenantContext.getOrgId() != null ? TenantContext.getOrgId() : scenario.getUserId();
+            executionQueueService.enqueue(scenario, executionId, tenantId, priority);
+            scenario.setLastExecutionId(executionId);
+            scenario.setStatus(ScenarioStatus.QUEUED);
+            scenarioRepository.save(scenario);
+            return executionId;
+        }
+
+        try {
+            launch(executionId, scenario);
+        } catch (RuntimeException e) {
+            executionService.end(executionId, ScenarioStatus.FAILED, e.getMessage(), false);
+            throw e;
         }
+        return executionId;
+    }
+
+    /**
+     * Plans and publishes an execution that has capacity, either straight
+     * from {@link #startScenario} or when the queue dispatches it.
+     */
+    @Transactional
+    public void launch(String executionId, LoadTestScenario scenario) {
+        String scenarioId = scenario.getId();
 
         /* ===============================
            EXECUTION CONTEXT
            =============================== */
-        String executionId = UUID.randomUUID().toString();
-
         scenario.setLastExecutionId(executionId);
         scenario.setLastExecutedAt(Instant.now());
         scenario.setRunning(true);
+        scenario.setStatus(ScenarioStatus.RUNNING);
         scenarioRepository.save(scenario);
+        executionService.dispatching(executionId);
 
         /* ===============================
            TASK DISTRIBUTION
            =============================== */
-        List<WorkerTask> tasks = WorkerTask.fromScenario(
+        List<WorkerTask> tasks = taskPlannerService.planTasks(
                 scenario,
-                executionId
+                executionId,
+                executionQueueService.reservedWorkers()
         );
+        executionQueueService.reserve(tasks);
+
+        Instant startAt = startBarrierService.isCoordinated()
+                ? startBarrierService.prepare(executionId, tasks)
+                : Instant.now();
+        Instant dispatchedAt = Instant.now();
 
+        liveMetricsService.register(executionId, scenario);
         redisQueueService.publishTasks(tasks);
+        executionMonitorService.track(executionId, scenario.getId(), tasks);
 
         /* ===============================
            METRICS PIPELINE INITIALIZATION
@@ -93,33 +138,89 @@ public class LoadTestOrchestrationService {
         // metricsAggregationService.initialize(executionId); // Auto-handled by data arrival
         webSocketMetricsStreamer.registerScenario(scenarioId);
 
+        /* ===============================
+           START (IMMEDIATE OR BARRIER)
+           =============================== */
+        if (startBarrierService.isCoordinated()) {
+            startBarrierService.await(executionId, scenario, tasks, dispatchedAt, startAt);
+        } else {
+            beginExecution(executionId, scenario, startAt);
+        }
+
+        log.info("Started scenario {} execution {}", scenarioId, executionId);
+    }
+
+    /**
+     * Runs once the workers are (about to be) generating load: right away in
+     * immediate mode, or when the start barrier passes in coordinated mode.
+     */
+    public void beginExecution(String executionId, LoadTestScenario scenario, Instant startAt) {
+        executionService.running(executionId, startAt);
+        if (scenario.getLoadProfile() != null && scenario.getLoadProfile().getType() == ProfileType.ADAPTIVE) {
+            adaptiveLoadService.start(executionId, scenario, startAt);
+        }
+
         /* ===============================
            SCHEDULER (TIME-BOUND EXECUTION)
            =============================== */
-        schedulerService.scheduleStop(
+        Instant loadStart = startAt.isAfter(Instant.now()) ? startAt : Instant.now();
+        stopTimerService.scheduleStop(
                 executionId,
-                scenario.getDurationSeconds()
+                loadStart.plusSeconds(scenario.getDurationSeconds())
         );
-
-        log.info("Started scenario {} execution {}", scenarioId, executionId);
-        return executionId;
     }
 
     @Transactional
     public void stopScenario(String executionId) {
-        log.info("Stopping execution {}", executionId);
+        stop(executionId, ScenarioStatus.CANCELLED, null);
+    }
+
+    /**
+     * Stops an execution whose abort policy fired; the scenario ends up
+     * ABORTED rather than CANCELLED.
+     */
+    @Transactional
+    public void stopScenario(String executionId, String abortReason) {
+        stop(executionId, ScenarioStatus.ABORTED, abortReason);
+    }
+
+    /**
+     * Ends an execution before its planned duration because it has nothing
+     * left to show, e.g. its percentiles converged.
+     */
+    @Transactional
+    public void completeScenario(String executionId, String reason) {
+        stop(executionId, ScenarioStatus.COMPLETED, reason);
+    }
+
+    private void stop(String executionId, ScenarioStatus finalStatus, String reason) {
+        log.info("Stopping execution {} as {}{}", executionId, finalStatus, reason != null ? ": " + reason : "");
+        stopTimerService.cancel(executionId);
+        boolean dispatched = !executionQueueService.cancel(executionId, "Stopped before dispatch");
         
-        LoadTestScenario scenario = scenarioRepository.findByLastExecutionId(executionId)
+        // A stale stop of an earlier run must not end the scenario's current one
+        LoadTestScenario scenario = executionService.scenarioIdOf(executionId)
+                .flatMap(scenarioRepository::findById)
+                .filter(s -> executionId.equals(s.getLastExecutionId()))
                 .orElse(null);
         
         if (scenario != null) {
-            redisQueueService.broadcastStop(executionId, scenario.getNumWorkers());
+            redisQueueService.broadcastStop(executionId);
+            adaptiveLoadService.finish(executionId);
+            executionMonitorService.untrack(executionId);
+            liveMetricsService.unregister(executionId);
             scenario.setRunning(false);
-            scenario.setStatus(ScenarioStatus.CANCELLED);
+            scenario.setStatus(finalStatus);
+            scenario.setEndedAt(Instant.now());
+            if (finalStatus == ScenarioStatus.COMPLETED) {
+                scenario.setCompletedAt(scenario.getEndedAt());
+            }
             scenarioRepository.save(scenario);
+            executionService.end(executionId, finalStatus, reason, dispatched);
             webSocketMetricsStreamer.unregisterScenario(scenario.getId());
         } else {
+            executionService.end(executionId, finalStatus, reason, dispatched);
             log.warn("Could not find scenario for execution ID: {}", executionId);
         }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,8 @@ package com.loadtest.service;
 import com.loadtest.model.Metric;
 import com.loadtest.model.ScenarioStats;
 import com.loadtest.model.WorkerResult;
+import com.loadtest.model.Execution;
+import com.loadtest.repository.ExecutionRepository;
 import com.loadtest.repository.MetricRepository;
 import com.loadtest.repository.ScenarioRepository;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +24,7 @@ public class MetricsAggregationService {
 
     private final MetricRepository metricRepository;
     private final ScenarioRepository scenarioRepository;
+    private final ExecutionRepository executionRepository;
     private final Map<String, String> executionToScenarioCache = new ConcurrentHashMap<>();
 
     public String getScenarioIdForTask(String taskId) {
@@ -30,8 +33,10 @@ public class MetricsAggregationService {
         }
         String executionId = taskId.substring(0, taskId.lastIndexOf("-w"));
         return executionToScenarioCache.computeIfAbsent(executionId, execId -> 
-            scenarioRepository.findByLastExecutionId(execId)
-                .map(com.loadtest.model.LoadTestScenario::getId)
+            executionRepository.findById(execId)
+                .map(Execution::getScenarioId)
+                // Started before executions were recorded
+                .or(() -> scenarioRepository.findByLastExecutionId(execId).map(com.loadtest.model.LoadTestScenario::getId))
                 .orElse(null)
         );
     }
@@ -61,8 +66,10 @@ public class MetricsAggregationService {
                 errorMsg = result.getErrorTypes().keySet().iterator().next();
             }
 
+            String taskId = result.getTaskId();
             Metric metric = Metric.builder()
                     .scenarioId(scenarioId) 
+                    .executionId(taskId != null && taskId.contains("-w") ? taskId.substring(0, taskId.lastIndexOf("-w")) : null)
                     .workerId(result.getWorkerId())
                     .timestamp(result.getTimestamp())
                     .latencyMs((long) result.getAvgLatencyMs())
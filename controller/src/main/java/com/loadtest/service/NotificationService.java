@@ -0,0 +1,296 @@
+package com.loadtest.service;
+
+import com.loadtest.exception.InvalidRecipientException;
+import com.loadtest.model.Alert;
+import com.loadtest.model.AlertSubscription;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.notification.NotificationSink;
+import com.loadtest.repository.ScenarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers alert transitions to the scenario's {@link AlertSubscription}s.
+ * <p>
+ * Transitions are only offered to a bounded queue when they are announced;
+ * when it is full they are dropped and counted, so a slow or dead endpoint
+ * can never hold up the caller. Every {@code batch-window-ms} the queue is
+ * drained and sorted into one pending batch per destination (channel and
+ * recipient). A batch keeps only the latest transition of each alert, so a
+ * breach that is raised and resolved within the window is sent once.
+ * <p>
+ * Each destination is delivered by at most one task at a time, retrying with
+ * exponential backoff. Transitions that arrive meanwhile join its next
+ * batch, so a destination that is down costs one sleeping delivery task and
+ * at most {@code max-batch-size} pending alerts, not a growing backlog.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final ScenarioRepository scenarioRepository;
+    private final List<NotificationSink> sinks;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${loadtest.notifications.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loadtest.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${loadtest.notifications.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${loadtest.notifications.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${loadtest.notifications.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${loadtest.notifications.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    @Value("${loadtest.notifications.delivery-threads:4}")
+    private int deliveryThreads;
+
+    private BlockingQueue<Alert> queue;
+    private TaskExecutor deliveryExecutor;
+    private Counter dropped;
+    private Counter delivered;
+    private Counter failed;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notify-");
+            executor.setVirtualThreads(true);
+            deliveryExecutor = executor;
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix("notify-");
+            executor.setCorePoolSize(deliveryThreads);
+            executor.setMaxPoolSize(deliveryThreads);
+            executor.initialize();
+            deliveryExecutor = executor;
+        }
+        dropped = outcome("dropped");
+        delivered = outcome("delivered");
+        failed = outcome("failed");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (deliveryExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @EventListener
+    public void onAlertTransition(AlertService.AlertTransition transition) {
+        if (!enabled) {
+            return;
+        }
+        if (!queue.offer(transition.getAlert())) {
+            dropped.increment();
+            log.warn("Notification queue full, dropping alert {} for scenario {}",
+                transition.getAlert().getId(), transition.getAlert().getScenarioId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${loadtest.notifications.batch-window-ms:2000}")
+    public void flush() {
+        List<Alert> alerts = new ArrayList<>();
+        queue.drainTo(alerts);
+        if (alerts.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<AlertSubscription>> subscriptions = new HashMap<>();
+        for (Alert alert : alerts) {
+            for (AlertSubscription subscription : subscriptions.computeIfAbsent(alert.getScenarioId(), this::subscriptionsOf)) {
+                if (subscription.getType() != null && !subscription.getType().name().equals(alert.getType())) {
+                    continue;
+                }
+                NotificationSink sink = sinkFor(subscription);
+                if (sink == null) {
+                    continue;
+                }
+                String key = subscription.getChannel() + " " + subscription.getRecipient() + " " + subscription.getConfig();
+                Destination destination = destinations.computeIfAbsent(key, k -> new Destination(k, subscription, sink));
+                if (destination.offer(alert)) {
+                    deliveryExecutor.execute(() -> drain(destination));
+                }
+            }
+        }
+    }
+
+    private List<AlertSubscription> subscriptionsOf(String scenarioId) {
+        try {
+            return scenarioRepository.findById(scenarioId)
+                .map(LoadTestScenario::getAlertSubscriptions)
+                .orElse(List.of());
+        } catch (Exception e) {
+            log.error("Failed to load alert subscriptions of scenario {}", scenarioId, e);
+            return List.of();
+        }
+    }
+
+    private NotificationSink sinkFor(AlertSubscription subscription) {
+        if (subscription.getChannel() == null || subscription.getRecipient() == null) {
+            return null;
+        }
+        for (NotificationSink sink : sinks) {
+            if (sink.supports(subscription.getChannel())) {
+                return sink;
+            }
+        }
+        log.warn("No notification sink for channel {}", subscription.getChannel());
+        return null;
+    }
+
+    private void drain(Destination destination) {
+        List<Alert> batch;
+        while ((batch = destination.take()) != null) {
+            deliver(destination, batch);
+        }
+    }
+
+    private void deliver(Destination destination, List<Alert> batch) {
+        AlertSubscription subscription = destination.getSubscription();
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                destination.getSink().send(subscription, batch);
+                delivered.increment(batch.size());
+                log.debug("Delivered {} alerts to {} {}", batch.size(), subscription.getChannel(), subscription.getRecipient());
+                return;
+            } catch (InvalidRecipientException e) {
+                // Retrying cannot make a refused destination acceptable
+                failed.increment(batch.size());
+                log.error("Refusing to deliver {} alerts: {}", batch.size(), e.getMessage());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failed.increment(batch.size());
+                    log.error("Giving up on {} alerts for {} {} after {} attempts",
+                        batch.size(), subscription.getChannel(), subscription.getRecipient(), attempt, e);
+                    return;
+                }
+                log.warn("Delivering {} alerts to {} {} failed (attempt {}/{}), retrying in {}ms: {}",
+                    batch.size(), subscription.getChannel(), subscription.getRecipient(), attempt, maxAttempts,
+                    backoff, e.getMessage());
+            }
+            try {
+                // Jittered so destinations that failed together do not retry in lockstep
+                Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.increment(batch.size());
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxBackoffMs);
+        }
+    }
+
+    private Counter outcome(String outcome) {
+        return Counter.builder("loadtest.notifications")
+            .description("Alert transitions by notification outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Pending batch of one channel and recipient, and whether a task is
+     * delivering it.
+     */
+    @lombok.Getter
+    private class Destination {
+        private final String key;
+        private final AlertSubscription subscription;
+        private final NotificationSink sink;
+        private final LinkedHashMap<String, Alert> pending = new LinkedHashMap<>(); // Alert id to its latest transition
+        private final ReentrantLock lock = new ReentrantLock(); // Not synchronized: delivery tasks run on virtual threads
+        private boolean delivering;
+
+        Destination(String key, AlertSubscription subscription, NotificationSink sink) {
+            this.key = key;
+            this.subscription = subscription;
+            this.sink = sink;
+        }
+
+        /**
+         * Adds a transition, replacing an earlier one of the same alert.
+         * Returns true if the caller has to start a delivery task.
+         */
+        boolean offer(Alert alert) {
+            lock.lock();
+            try {
+                pending.remove(alert.getId());
+                pending.put(alert.getId(), alert);
+                Iterator<Alert> oldest = pending.values().iterator();
+                while (pending.size() > maxBatchSize) {
+                    oldest.next();
+                    oldest.remove();
+                    dropped.increment();
+                }
+                if (delivering) {
+                    return false;
+                }
+                delivering = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes the pending batch, or returns null and releases the
+         * destination when there is none.
+         */
+        List<Alert> take() {
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    delivering = false;
+                    destinations.remove(key, this);
+                    return null;
+                }
+                List<Alert> batch = new ArrayList<>(pending.values());
+                pending.clear();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.loadtest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.model.WorkerHeartbeat;
+import com.loadtest.model.WorkerResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking access to the worker queues.
+ * <p>
+ * All commands go through the shared Lettuce connection, so commands issued
+ * concurrently (from many callers or from a single {@code flatMap}) are
+ * written back to back without waiting for each reply, i.e. they are
+ * pipelined automatically instead of costing one round trip per thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveRedisQueueService {
+
+    // LRANGE + LTRIM in one atomic step so a batch is never handed out twice
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = RedisScript.of(
+        "local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)\n" +
+        "if #items > 0 then redis.call('LTRIM', KEYS[1], #items, -1) end\n" +
+        "return items",
+        List.class
+    );
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.redis.queue.results}")
+    private String resultsQueue;
+
+    @Value("${loadtest.redis.queue.heartbeat}")
+    private String heartbeatKey;
+
+    @Value("${loadtest.redis.control.channel:loadtest:control}")
+    private String controlChannel;
+
+    @Value("${loadtest.scheduler.changes-channel:loadtest:scheduler:changes}")
+    private String scheduleChangesChannel;
+
+    // ========== Task Queue Operations ==========
+
+    /**
+     * Pushes already-routed task payloads, one RPUSH per queue, all in flight
+     * at once. Emits the number of tasks pushed.
+     */
+    public Mono<Long> pushTasks(Map<String, List<String>> payloadsByQueue) {
+        return Flux.fromIterable(payloadsByQueue.entrySet())
+            .flatMap(entry -> reactiveRedisTemplate.opsForList().rightPushAll(entry.getKey(), entry.getValue())
+                .thenReturn((long) entry.getValue().size()))
+            .reduce(0L, Long::sum);
+    }
+
+    public Mono<Long> getQueueSizes(List<String> queues) {
+        return Flux.fromIterable(queues)
+            .flatMap(queue -> reactiveRedisTemplate.opsForList().size(queue))
+            .reduce(0L, Long::sum);
+    }
+
+    // ========== Result Queue Operations ==========
+
+    /**
+     * Atomically takes up to {@code max} results off the result queue.
+     */
+    public Flux<WorkerResult> drainResults(int max) {
+        return reactiveRedisTemplate.execute(DRAIN_SCRIPT, List.of(resultsQueue), List.of(String.valueOf(max)))
+            .flatMapIterable(items -> (List<?>) items)
+            .flatMap(item -> {
+                try {
+                    return Mono.just(objectMapper.readValue(item.toString(), WorkerResult.class));
+                } catch (Exception e) {
+                    log.error("Failed to parse result", e);
+                    return Mono.empty();
+                }
+            });
+    }
+
+    // ========== Worker Heartbeat Operations ==========
+
+    /**
+     * Lists registered workers with an incremental SCAN rather than KEYS, so
+     * a large registry never blocks the Redis server.
+     */
+    public Flux<String> scanWorkerIds() {
+        String prefix = heartbeatKey + ":";
+        return reactiveRedisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(500).build())
+            .map(key -> key.substring(prefix.length()));
+    }
+
+    public Mono<Map<String, WorkerHeartbeat>> getWorkerHeartbeats() {
+        return scanWorkerIds().collectList().flatMap(workerIds -> {
+            if (workerIds.isEmpty()) {
+                return Mono.just(Map.<String, WorkerHeartbeat>of());
+            }
+            List<String> keys = workerIds.stream()
+                .map(id -> heartbeatKey + ":" + id)
+                .collect(Collectors.toList());
+
+            return reactiveRedisTemplate.opsForValue().multiGet(keys).map(values -> {
+                Map<String, WorkerHeartbeat> heartbeats = new LinkedHashMap<>();
+                for (int i = 0; i < workerIds.size(); i++) {
+                    String json = values.get(i);
+                    if (json == null) {
+                        continue;
+                    }
+                    try {
+                        heartbeats.put(workerIds.get(i), objectMapper.readValue(json, WorkerHeartbeat.class));
+                    } catch (Exception e) {
+                        log.warn("Skipping unreadable heartbeat for worker {}", workerIds.get(i));
+                    }
+                }
+                return heartbeats;
+            });
+        });
+    }
+
+    // ========== Execution Control Operations ==========
+
+    /**
+     * Writes the cancellation tombstone and publishes the control message
+     * concurrently, so both travel in the same pipelined flush. Emits the
+     * number of subscribers that received the message.
+     */
+    public Mono<Long> publishStop(String cancellationKey, String issuedAt, String message, Duration ttl) {
+        return Mono.zip(
+            reactiveRedisTemplate.opsForValue().set(cancellationKey, issuedAt, ttl),
+            reactiveRedisTemplate.convertAndSend(controlChannel, message)
+        ).map(replies -> replies.getT2());
+    }
+
+    public Mono<Long> publishControl(String message) {
+        return reactiveRedisTemplate.convertAndSend(controlChannel, message);
+    }
+
+    // ========== Controller Coordination ==========
+
+    /**
+     * Tells the other controller replicas that a scheduled test changed.
+     */
+    public Mono<Long> publishScheduleChange(String message) {
+        return reactiveRedisTemplate.convertAndSend(scheduleChangesChannel, message);
+    }
+
+    public Flux<String> scheduleChanges() {
+        return reactiveRedisTemplate.listenToChannel(scheduleChangesChannel)
+            .map(message -> message.getMessage());
+    }
+}
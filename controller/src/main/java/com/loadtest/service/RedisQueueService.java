@@ -1,28 +1,52 @@
 package com.loadtest.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.dto.StopLatencyReport;
+import com.loadtest.model.ControlMessage;
+import com.loadtest.model.ControlType;
+import com.loadtest.model.QueueTopology;
 import com.loadtest.model.WorkerTask;
 import com.loadtest.model.WorkerResult;
 import com.loadtest.model.WorkerHeartbeat;
+import com.loadtest.model.WorkerStatus;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+/**
+ * Blocking facade over the worker queues for existing callers. Hot-path
+ * operations delegate to {@link ReactiveRedisQueueService} so that
+ * concurrent callers share one pipelined connection.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RedisQueueService {
     
+    private static final Duration CANCELLATION_TTL = Duration.ofMinutes(10);
+    private static final Duration BLOCK_TIMEOUT = Duration.ofSeconds(5);
+    
     private final RedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisQueueService reactiveQueueService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
     
     @Value("${loadtest.redis.queue.tasks}")
     private String tasksQueue;
@@ -33,26 +57,100 @@ public class RedisQueueService {
     @Value("${loadtest.redis.queue.heartbeat}")
     private String heartbeatKey;
     
+    @Value("${loadtest.redis.queue.topology:SHARED}")
+    private QueueTopology topology;
+    
+    @Value("${loadtest.redis.queue.shards:8}")
+    private int shardCount;
+    
+    @Value("${loadtest.redis.control.cancellation-prefix:loadtest:cancel}")
+    private String cancellationPrefix;
+    
+    @Value("${loadtest.redis.control.start-prefix:loadtest:start}")
+    private String startPrefix;
+    
     // ========== Task Queue Operations ==========
     
     @Retry(name = "redis")
     public void publishTask(WorkerTask task) {
-        try {
-            String json = objectMapper.writeValueAsString(task);
-            redisTemplate.opsForList().rightPush(tasksQueue, json);
-            log.info("Published task {} to queue", task.getTaskId());
-        } catch (Exception e) {
-            log.error("Failed to publish task", e);
-            throw new RuntimeException("Failed to publish task", e);
-        }
+        publishTasks(List.of(task));
     }
     
+    /**
+     * Routes each task to a queue according to the configured topology and
+     * pushes them all concurrently on the shared pipelined connection.
+     * <p>
+     * SHARED keeps the legacy single list. SHARDED spreads tasks over
+     * {@code shards} lists so workers pop from different keys. WORKER pushes
+     * each task to the inbox of an idle worker from the heartbeat registry;
+     * tasks that cannot be assigned fall back to the shared queue. Tasks the
+     * planner already pinned to a worker go to its inbox in every topology.
+     */
+    @Retry(name = "redis")
     public void publishTasks(List<WorkerTask> tasks) {
-        tasks.forEach(this::publishTask);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        
+        Map<String, List<String>> byQueue = new LinkedHashMap<>();
+        List<String> idleWorkers = topology == QueueTopology.WORKER ? getIdleWorkerIds() : List.of();
+        int shardOffset = ThreadLocalRandom.current().nextInt(Math.max(1, shardCount));
+        
+        for (int i = 0; i < tasks.size(); i++) {
+            WorkerTask task = tasks.get(i);
+            String queue = resolveQueue(task, i, idleWorkers, shardOffset);
+            try {
+                byQueue.computeIfAbsent(queue, q -> new ArrayList<>())
+                    .add(objectMapper.writeValueAsString(task));
+            } catch (Exception e) {
+                log.error("Failed to serialize task {}", task.getTaskId(), e);
+                throw new RuntimeException("Failed to publish task", e);
+            }
+        }
+        
+        reactiveQueueService.pushTasks(byQueue).block(BLOCK_TIMEOUT);
+        
+        log.info("Published {} tasks to {} queue(s) using {} topology", tasks.size(), byQueue.size(), topology);
     }
     
+    private String resolveQueue(WorkerTask task, int index, List<String> idleWorkers, int shardOffset) {
+        if (topology == QueueTopology.WORKER && task.getAssignedWorkerId() == null && index < idleWorkers.size()) {
+            task.setAssignedWorkerId(idleWorkers.get(index));
+        }
+        // Every worker polls its inbox first, so pinned tasks bypass the topology
+        if (task.getAssignedWorkerId() != null) {
+            return workerInbox(task.getAssignedWorkerId());
+        }
+        return topology == QueueTopology.SHARDED
+            ? shardQueue((shardOffset + index) % shardCount)
+            : tasksQueue;
+    }
+    
+    public String shardQueue(int shard) {
+        return tasksQueue + ":shard:" + shard;
+    }
+    
+    public String workerInbox(String workerId) {
+        return tasksQueue + ":worker:" + workerId;
+    }
+    
+    /**
+     * Total pending tasks across the shared queue, every shard and the
+     * inboxes of currently registered workers.
+     */
     public Long getTaskQueueSize() {
-        return redisTemplate.opsForList().size(tasksQueue);
+        List<String> queues = new ArrayList<>();
+        queues.add(tasksQueue);
+        if (topology == QueueTopology.SHARDED) {
+            for (int i = 0; i < shardCount; i++) {
+                queues.add(shardQueue(i));
+            }
+        } else if (topology == QueueTopology.WORKER) {
+            getActiveWorkerIds().forEach(id -> queues.add(workerInbox(id)));
+        }
+        
+        Long size = reactiveQueueService.getQueueSizes(queues).block(BLOCK_TIMEOUT);
+        return size != null ? size : 0L;
     }
     
     // ========== Result Queue Operations ==========
@@ -75,19 +173,10 @@ public class RedisQueueService {
     }
     
     public List<WorkerResult> pollResults(int count) {
-        return redisTemplate.opsForList()
-            .leftPop(resultsQueue, count)
-            .stream()
-            .map(json -> {
-                try {
-                    return objectMapper.readValue(json, WorkerResult.class);
-                } catch (Exception e) {
-                    log.error("Failed to parse result", e);
-                    return null;
-                }
-            })
-            .filter(result -> result != null)
-            .collect(Collectors.toList());
+        List<WorkerResult> results = reactiveQueueService.drainResults(count)
+            .collectList()
+            .block(BLOCK_TIMEOUT);
+        return results != null ? results : List.of();
     }
     
     public Long getResultQueueSize() {
@@ -125,14 +214,25 @@ public class RedisQueueService {
     }
     
     public List<String> getActiveWorkerIds() {
-        Set<String> keys = redisTemplate.keys(heartbeatKey + ":*");
-        
-        if (keys == null) {
-            return List.of();
-        }
-        
-        return keys.stream()
-            .map(key -> key.replace(heartbeatKey + ":", ""))
+        List<String> workerIds = reactiveQueueService.scanWorkerIds()
+            .collectList()
+            .block(BLOCK_TIMEOUT);
+        return workerIds != null ? workerIds : List.of();
+    }
+    
+    /**
+     * Reads every registered heartbeat with one SCAN pass and a single MGET.
+     */
+    public Map<String, WorkerHeartbeat> getWorkerHeartbeats() {
+        Map<String, WorkerHeartbeat> heartbeats = reactiveQueueService.getWorkerHeartbeats()
+            .block(BLOCK_TIMEOUT);
+        return heartbeats != null ? heartbeats : Map.of();
+    }
+    
+    public List<String> getIdleWorkerIds() {
+        return getWorkerHeartbeats().entrySet().stream()
+            .filter(e -> e.getValue().getStatus() == WorkerStatus.IDLE)
+            .map(Map.Entry::getKey)
             .collect(Collectors.toList());
     }
     
@@ -140,22 +240,193 @@ public class RedisQueueService {
         return getActiveWorkerIds().size();
     }
 
-    public void broadcastStop(String executionId, int numWorkers) {
-        for (int i = 0; i < numWorkers; i++) {
-            String taskId = executionId + "-w" + i;
-            String key = "task:cancellation:" + taskId;
-            redisTemplate.opsForValue().set(key, "true", Duration.ofMinutes(10));
+    // ========== Execution Control Operations ==========
+    
+    /**
+     * Cancels every task of an execution in one pipelined flush: a
+     * single control message for workers already running it, plus an
+     * execution-level tombstone for workers that pop one of its tasks later.
+     * Cost is independent of the number of workers.
+     */
+    public void broadcastStop(String executionId) {
+        long issuedAt = System.currentTimeMillis();
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(ControlMessage.builder()
+                .type(ControlType.CANCEL)
+                .executionId(executionId)
+                .issuedAt(issuedAt)
+                .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to publish cancellation", e);
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Long receivers = reactiveQueueService.publishStop(
+            cancellationKey(executionId),
+            String.valueOf(issuedAt),
+            message,
+            CANCELLATION_TTL
+        ).block(BLOCK_TIMEOUT);
+        long elapsedNanos = sample.stop(meterRegistry.timer("loadtest.stop.publish"));
+        
+        log.info("Published cancellation for execution {} to {} subscriber(s) in {} ms",
+            executionId, receivers, String.format("%.2f", elapsedNanos / 1_000_000.0));
+    }
+    
+    /**
+     * Stops individual tasks of an execution. The task ids are also added
+     * to a tombstone set that workers check before starting a task and
+     * poll while running it, so a worker that misses the message, e.g.
+     * during a partition, still stops once it reaches Redis again.
+     * {@code ttl} must outlive the tasks.
+     */
+    public void revokeTasks(String executionId, Collection<String> taskIds, Duration ttl) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        String key = cancellationKey(executionId) + ":tasks";
+        redisTemplate.opsForSet().add(key, taskIds.toArray(new String[0]));
+        redisTemplate.expire(key, ttl);
+
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(ControlMessage.builder()
+                .type(ControlType.REVOKE)
+                .executionId(executionId)
+                .issuedAt(System.currentTimeMillis())
+                .taskIds(List.copyOf(taskIds))
+                .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to publish task revocation", e);
         }
-        log.info("Published cancellation keys for execution {} with {} workers", executionId, numWorkers);
+        Long receivers = reactiveQueueService.publishControl(message).block(BLOCK_TIMEOUT);
+        log.info("Revoked {} task(s) of execution {}, {} subscriber(s)", taskIds.size(), executionId, receivers);
+    }
+    
+    /**
+     * Pushes new per-task rates to the workers running an execution. Workers
+     * hold the new rate until the next update or the end of the task.
+     */
+    public void publishRates(String executionId, Map<String, Integer> taskRates) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(ControlMessage.builder()
+                .type(ControlType.RATE)
+                .executionId(executionId)
+                .issuedAt(System.currentTimeMillis())
+                .taskRates(taskRates)
+                .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to publish rate update", e);
+        }
+        
+        Long receivers = reactiveQueueService.publishControl(message).block(BLOCK_TIMEOUT);
+        log.debug("Published rates for {} task(s) of execution {} to {} subscriber(s)",
+            taskRates.size(), executionId, receivers);
+    }
+    
+    /**
+     * Sets the start epoch of a coordinated execution. Workers read it after
+     * popping a task, and a START message moves workers that are already
+     * waiting, so a reschedule reaches both.
+     */
+    public void publishStartEpoch(String executionId, Instant startAt, boolean notifyWaiting) {
+        redisTemplate.opsForValue().set(startKey(executionId),
+            String.valueOf(startAt.toEpochMilli()), CANCELLATION_TTL);
+        if (!notifyWaiting) {
+            return;
+        }
+        
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(ControlMessage.builder()
+                .type(ControlType.START)
+                .executionId(executionId)
+                .issuedAt(System.currentTimeMillis())
+                .startAt(startAt.toEpochMilli())
+                .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to publish start epoch", e);
+        }
+        reactiveQueueService.publishControl(message).block(BLOCK_TIMEOUT);
+    }
+    
+    /**
+     * Readiness acknowledgements of a coordinated execution: task id to the
+     * epoch millis at which its worker popped it and started waiting.
+     */
+    public Map<String, Long> getReadyAcks(String executionId) {
+        Set<ZSetOperations.TypedTuple<String>> acks = redisTemplate.opsForZSet()
+            .rangeWithScores(startKey(executionId) + ":ready", 0, -1);
+        Map<String, Long> ready = new LinkedHashMap<>();
+        if (acks != null) {
+            acks.forEach(ack -> ready.put(ack.getValue(), ack.getScore() != null ? ack.getScore().longValue() : 0L));
+        }
+        return ready;
+    }
+    
+    public String startKey(String executionId) {
+        return startPrefix + ":" + executionId;
+    }
+    
+    /**
+     * Summarises how long the cancellation of an execution took to reach the
+     * workers, from the acknowledgements they record on receipt.
+     */
+    public StopLatencyReport getStopLatencyReport(String executionId) {
+        String issuedAt = redisTemplate.opsForValue().get(cancellationKey(executionId));
+        if (issuedAt == null) {
+            return null;
+        }
+        
+        Set<ZSetOperations.TypedTuple<String>> acks = redisTemplate.opsForZSet()
+            .rangeWithScores(cancellationKey(executionId) + ":acks", 0, -1);
+        List<Double> latencies = acks == null ? List.of() : acks.stream()
+            .map(ZSetOperations.TypedTuple::getScore)
+            .filter(score -> score != null)
+            .collect(Collectors.toList());
+        
+        return StopLatencyReport.builder()
+            .executionId(executionId)
+            .issuedAt(Instant.ofEpochMilli(Long.parseLong(issuedAt)))
+            .workersAcknowledged(latencies.size())
+            .p50PropagationMs(percentile(latencies, 50))
+            .p99PropagationMs(percentile(latencies, 99))
+            .maxPropagationMs(latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1))
+            .build();
+    }
+    
+    public String cancellationKey(String executionId) {
+        return cancellationPrefix + ":" + executionId;
+    }
+    
+    // Scores come back from ZRANGE already sorted ascending
+    private double percentile(List<Double> sorted, double percentile) {
+        if (sorted.isEmpty()) return 0.0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
     }
 
     // ========== Cleanup Operations ==========
     
     public void clearTaskQueue() {
         redisTemplate.delete(tasksQueue);
+        Set<String> keys = redisTemplate.keys(tasksQueue + ":*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
         log.info("Cleared task queue");
     }
     
+    /**
+     * Drops whatever is still waiting in a lost worker's inbox; its tasks are
+     * reissued elsewhere and must not run twice if the worker comes back.
+     */
+    public void clearWorkerInbox(String workerId) {
+        redisTemplate.delete(workerInbox(workerId));
+    }
+    
     public void clearResultQueue() {
         redisTemplate.delete(resultsQueue);
         log.info("Cleared result queue");
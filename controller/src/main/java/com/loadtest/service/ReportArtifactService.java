@@ -0,0 +1,259 @@
+package com.loadtest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtest.dto.MetricExportFilter;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.ReportArtifact;
+import com.loadtest.model.ReportArtifactKind;
+import com.loadtest.repository.ReportArtifactRepository;
+import com.loadtest.repository.ScenarioRepository;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Renders the reports of a finished execution once and serves them from
+ * then on, instead of recomputing the stats on every download.
+ * <p>
+ * The leader scans for executions that ended more than
+ * {@code settle-seconds} ago, so the last results are in, and renders each
+ * {@link ReportArtifactKind}. The bytes go to GridFS under their SHA-256,
+ * so every controller replica serves the same artifact and identical
+ * renders share a blob. The same scan re-renders artifacts of an older
+ * {@link #FORMAT_VERSION}; an artifact whose scenario has run again since
+ * is deleted instead, because the scenario-wide reports it holds can no
+ * longer be reproduced.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportArtifactService {
+
+    /**
+     * Bump whenever a rendered artifact would come out differently, so the
+     * stored ones are regenerated.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String BUCKET = "report_artifact_blobs";
+
+    private final ReportArtifactRepository reportArtifactRepository;
+    private final ScenarioRepository scenarioRepository;
+    private final ExportService exportService;
+    private final LeaderElectionService leaderElectionService;
+    private final MongoDatabaseFactory mongoDatabaseFactory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.reports.settle-seconds:15}")
+    private int settleSeconds;
+
+    @Value("${loadtest.reports.lookback-hours:24}")
+    private int lookbackHours;
+
+    @Value("${loadtest.reports.batch-size:20}")
+    private int batchSize;
+
+    private GridFSBucket bucket;
+
+    @PostConstruct
+    public void init() {
+        bucket = GridFSBuckets.create(mongoDatabaseFactory.getMongoDatabase(), BUCKET);
+    }
+
+    /**
+     * The artifact for the scenario's last execution, if it has finished and
+     * been rendered in the current format.
+     */
+    public Optional<ReportArtifact> find(LoadTestScenario scenario, ReportArtifactKind kind) {
+        if (scenario.isRunning() || scenario.getLastExecutionId() == null) {
+            return Optional.empty();
+        }
+        return find(scenario.getId(), scenario.getLastExecutionId(), kind);
+    }
+
+    public Optional<ReportArtifact> find(String scenarioId, String executionId, ReportArtifactKind kind) {
+        return reportArtifactRepository.findById(executionId + ":" + kind)
+            .filter(a -> a.getScenarioId().equals(scenarioId) && a.getFormatVersion() == FORMAT_VERSION);
+    }
+
+    public Optional<ReportArtifact> findBySha256(String sha256) {
+        return reportArtifactRepository.findFirstBySha256(sha256);
+    }
+
+    /**
+     * The artifact's bytes. Every {@link Resource#getInputStream()} opens a
+     * fresh GridFS download, so byte ranges can be served from it.
+     */
+    public Resource open(ReportArtifact artifact) {
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "Report artifact " + artifact.getSha256();
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return bucket.openDownloadStream(artifact.getSha256());
+            }
+
+            @Override
+            public long contentLength() {
+                return artifact.getLength();
+            }
+
+            @Override
+            public long lastModified() {
+                return artifact.getCreatedAt().toEpochMilli();
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${loadtest.reports.scan-interval-ms:30000}")
+    public void renderPending() {
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<LoadTestScenario> ended = scenarioRepository.findByRunningFalseAndEndedAtBetween(
+            now.minus(Duration.ofHours(lookbackHours)), now.minusSeconds(settleSeconds));
+        int rendered = 0;
+        for (LoadTestScenario scenario : ended) {
+            for (ReportArtifactKind kind : ReportArtifactKind.values()) {
+                if (rendered >= batchSize) {
+                    return; // The rest waits for the next scan
+                }
+                if (scenario.getLastExecutionId() != null && find(scenario, kind).isEmpty()) {
+                    render(scenario, scenario.getLastExecutionId(), kind);
+                    rendered++;
+                }
+            }
+        }
+
+        for (ReportArtifact stale : reportArtifactRepository.findByFormatVersionLessThan(
+                FORMAT_VERSION, PageRequest.of(0, Math.max(1, batchSize - rendered)))) {
+            LoadTestScenario scenario = scenarioRepository.findById(stale.getScenarioId()).orElse(null);
+            boolean reproducible = scenario != null && !scenario.isRunning()
+                && (stale.getKind() == ReportArtifactKind.JSON || stale.getExecutionId().equals(scenario.getLastExecutionId()));
+            if (reproducible) {
+                render(scenario, stale.getExecutionId(), stale.getKind());
+            } else {
+                reportArtifactRepository.delete(stale);
+                release(stale.getSha256());
+            }
+        }
+    }
+
+    private void render(LoadTestScenario scenario, String executionId, ReportArtifactKind kind) {
+        GridFSUploadStream upload = bucket.openUploadStream(executionId + "-" + kind + ".pending");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long length;
+            try (CountingOutputStream counter = new CountingOutputStream(new DigestOutputStream(upload, digest))) {
+                OutputStream out = StreamUtils.nonClosing(counter);
+                switch (kind) {
+                    case REPORT -> objectMapper.writeValue(out, exportService.generateReport(scenario.getId()));
+                    case HTML -> out.write(exportService.exportToHtml(scenario.getId()));
+                    case JSON -> exportService.streamJson(scenario, MetricExportFilter.builder()
+                        .scenarioId(scenario.getId())
+                        .executionId(executionId)
+                        .build(), false, out);
+                }
+                length = counter.getCount();
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            // Content-addressed: keep one blob per hash, named by it
+            GridFSFile existing = bucket.find(Filters.eq("filename", sha256)).first();
+            if (existing != null) {
+                bucket.delete(upload.getObjectId());
+            } else {
+                bucket.rename(upload.getObjectId(), sha256);
+            }
+
+            ReportArtifact previous = reportArtifactRepository.findById(executionId + ":" + kind).orElse(null);
+            reportArtifactRepository.save(ReportArtifact.builder()
+                .id(executionId + ":" + kind)
+                .executionId(executionId)
+                .scenarioId(scenario.getId())
+                .kind(kind)
+                .formatVersion(FORMAT_VERSION)
+                .sha256(sha256)
+                .contentType(kind == ReportArtifactKind.HTML ? "text/html" : "application/json")
+                .length(length)
+                .createdAt(Instant.now())
+                .build());
+            if (previous != null && !previous.getSha256().equals(sha256)) {
+                release(previous.getSha256());
+            }
+            log.info("Rendered {} of execution {} ({} bytes, sha256 {})", kind, executionId, length, sha256);
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.error("Failed to render {} of execution {}", kind, executionId, e);
+            try {
+                bucket.delete(upload.getObjectId());
+            } catch (Exception cleanup) {
+                upload.abort(); // Never closed, nothing to delete
+            }
+        }
+    }
+
+    /**
+     * Deletes a blob once no artifact refers to it any more.
+     */
+    private void release(String sha256) {
+        if (!reportArtifactRepository.existsBySha256(sha256)) {
+            for (GridFSFile file : bucket.find(Filters.eq("filename", sha256))) {
+                bucket.delete(file.getObjectId());
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
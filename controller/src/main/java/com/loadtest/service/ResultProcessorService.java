@@ -1,15 +1,29 @@
 package com.loadtest.service;
 
 import com.loadtest.model.WorkerResult;
-import com.loadtest.model.ScenarioStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Drains worker results and stores them. The Mongo writes of a batch run
+ * concurrently on the ingest executor: virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, a fixed pool otherwise.
+ * Either way at most {@code loadtest.ingest.concurrency} writes are in
+ * flight, so a batch cannot exhaust the Mongo connection pool.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -18,10 +32,49 @@ public class ResultProcessorService {
     private final RedisQueueService queueService;
     private final MetricsAggregationService metricsService;
     private final WebSocketMetricsStreamer metricsStreamer;
-    private final AlertService alertService;
+    private final LiveMetricsService liveMetricsService;
+    private final TaskDecorator tenantContextTaskDecorator;
+    private final ReentrantLock processLock = new ReentrantLock(); // Fixed-rate runs can overlap on virtual threads
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${loadtest.ingest.concurrency:32}")
+    private int ingestConcurrency;
+    
+    private TaskExecutor ingestExecutor;
+    
+    @PostConstruct
+    public void init() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ingest-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(ingestConcurrency);
+            executor.setTaskDecorator(tenantContextTaskDecorator);
+            ingestExecutor = executor;
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix("ingest-");
+            executor.setCorePoolSize(ingestConcurrency);
+            executor.setMaxPoolSize(ingestConcurrency);
+            executor.setTaskDecorator(tenantContextTaskDecorator);
+            executor.initialize();
+            ingestExecutor = executor;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (ingestExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
     
     @Scheduled(fixedRate = 500) // Every 500ms
     public void processResults() {
+        if (!processLock.tryLock()) {
+            return; // Previous batch still being written
+        }
         try {
             // Poll multiple results at once for efficiency
             List<WorkerResult> results = queueService.pollResults(100);
@@ -29,27 +82,25 @@ public class ResultProcessorService {
             if (!results.isEmpty()) {
                 log.debug("Processing {} results", results.size());
                 
-                results.forEach(result -> {
-                    metricsService.saveWorkerResult(result);
-                    metricsStreamer.streamResult(result);
-                });
+                CompletableFuture.allOf(results.stream()
+                        .map(result -> CompletableFuture.runAsync(() -> {
+                            metricsService.saveWorkerResult(result);
+                            metricsStreamer.streamResult(result);
+                        }, ingestExecutor))
+                        .toArray(CompletableFuture[]::new))
+                    .join();
 
-                // Check SLAs for scenarios that received metrics in this batch
-                results.stream()
-                    .map(r -> metricsService.getScenarioIdForTask(r.getTaskId()))
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .forEach(scenarioId -> {
-                        try {
-                            ScenarioStats stats = metricsService.getRealTimeStats(scenarioId, 10);
-                            alertService.checkSla(scenarioId, stats);
-                        } catch (Exception e) {
-                            log.error("Failed to check SLA for scenario {}", scenarioId, e);
-                        }
-                    });
+                // SLAs and anomalies are evaluated in memory, no metric reads
+                try {
+                    liveMetricsService.ingest(results);
+                } catch (Exception e) {
+                    log.error("Failed to update live metrics", e);
+                }
             }
         } catch (Exception e) {
             log.error("Error processing results", e);
+        } finally {
+            processLock.unlock();
         }
     }
-}
\ No newline at end of file
+}
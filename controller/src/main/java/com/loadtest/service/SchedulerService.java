@@ -2,80 +2,286 @@
 package com.loadtest.service;
 
 import com.loadtest.model.*;
+import com.loadtest.repository.ScenarioRepository;
 import com.loadtest.repository.ScheduledTestRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Fires scheduled tests from an in-memory queue ordered by {@code nextRunAt}.
+ * <p>
+ * The queue is rebuilt from the repository on startup and kept current on
+ * create, update and delete. A half-second tick only looks at the head, so
+ * runs fire within about a second of their cron time whatever the number of
+ * schedules. Updates and deletes change the test's current generation
+ * instead of searching the heap; superseded entries are dropped when they
+ * reach the head.
+ * <p>
+ * Every replica keeps the queue, but only the elected leader fires it. The
+ * queue is loaded in full at startup and when a replica takes over the
+ * lead. Creates, updates and deletes are announced to the other replicas on
+ * a Redis channel, and each of them reloads only the one test that changed.
+ * Should the subscription drop, a replica reloads in full once it is back,
+ * since announcements sent in between are lost. Each run
+ * is keyed by test id and slot time. The key is claimed in Redis before the
+ * scenario starts, so a slot is never started twice, even across a failover.
+ */
 @Slf4j
 @Service
 public class SchedulerService {
     
     private final ScheduledTestRepository scheduledTestRepository;
+    private final ScenarioRepository scenarioRepository;
+    private final AdmissionClient admissionClient;
+    private final LeaderElectionService leaderElectionService;
+    private final RedisTemplate<String, String> redisTemplate;
     private final LoadTestOrchestrationService orchestrationService;
-    private final java.util.concurrent.ScheduledExecutorService scheduler = 
-        java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
+    private final ReactiveRedisQueueService reactiveQueueService;
+    
+    private final PriorityQueue<TimerEntry> timers =
+        new PriorityQueue<>(Comparator.comparing(TimerEntry::getRunAt));
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final ReentrantLock timersLock = new ReentrantLock(); // Rather than synchronized, which pins virtual threads on Java 21
+    private final AtomicBoolean changesMissed = new AtomicBoolean(); // Change subscription dropped and came back
+    private Disposable changeSubscription;
+
+    @Value("${loadtest.scheduler.run-key-prefix:loadtest:scheduler:run}")
+    private String runKeyPrefix;
+
+    @Value("${loadtest.scheduler.run-key-ttl-hours:24}")
+    private long runKeyTtlHours;
 
     public SchedulerService(
             ScheduledTestRepository scheduledTestRepository,
-            @org.springframework.context.annotation.Lazy LoadTestOrchestrationService orchestrationService
+            ScenarioRepository scenarioRepository,
+            AdmissionClient admissionClient,
+            LeaderElectionService leaderElectionService,
+            RedisTemplate<String, String> redisTemplate,
+            @org.springframework.context.annotation.Lazy LoadTestOrchestrationService orchestrationService,
+            ReactiveRedisQueueService reactiveQueueService
     ) {
         this.scheduledTestRepository = scheduledTestRepository;
+        this.scenarioRepository = scenarioRepository;
+        this.admissionClient = admissionClient;
+        this.leaderElectionService = leaderElectionService;
+        this.redisTemplate = redisTemplate;
         this.orchestrationService = orchestrationService;
+        this.reactiveQueueService = reactiveQueueService;
     }
 
-    public void scheduleStop(String executionId, int durationSeconds) {
-        scheduler.schedule(() -> {
-            try {
-                orchestrationService.stopScenario(executionId);
-            } catch (Exception e) {
-                log.error("Failed to stop scenario execution: {}", executionId, e);
-            }
-        }, durationSeconds, java.util.concurrent.TimeUnit.SECONDS);
+    @EventListener({ApplicationReadyEvent.class, LeaderElectionService.LeadershipAcquired.class})
+    public void rebuildTimers() {
+        List<ScheduledTest> scheduledTests = scheduledTestRepository.findByEnabledTrue();
+        timersLock.lock();
+        try {
+            timers.clear();
+            generations.clear();
+        } finally {
+            timersLock.unlock();
+        }
+        // Tests without a next run time are due immediately, as before
+        scheduledTests.forEach(test -> enqueue(test.getId(),
+            test.getNextRunAt() != null ? test.getNextRunAt() : Instant.now()));
+        log.info("Loaded {} scheduled test(s) into the timer queue", scheduledTests.size());
     }
     
-    @Scheduled(fixedRate = 60000) // Every minute
-    public void checkScheduledTests() {
-        log.debug("Checking for scheduled tests to run");
-        
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToChanges() {
+        changeSubscription = reactiveQueueService.scheduleChanges()
+            .doOnError(e -> log.warn("Scheduled test change subscription failed, resubscribing", e))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .doAfterRetry(signal -> changesMissed.set(true)))
+            .subscribe(this::onChange);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromChanges() {
+        if (changeSubscription != null) {
+            changeSubscription.dispose();
+        }
+    }
+
+    /**
+     * Reloads the one test another replica changed, {@code "<nodeId> <testId>"}.
+     */
+    private void onChange(String message) {
+        int separator = message.indexOf(' ');
+        if (separator < 0 || message.substring(0, separator).equals(leaderElectionService.getNodeId())) {
+            return; // Malformed, or our own change, already applied
+        }
+        String testId = message.substring(separator + 1);
+        try {
+            ScheduledTest test = scheduledTestRepository.findById(testId).orElse(null);
+            if (test != null && Boolean.TRUE.equals(test.getEnabled())) {
+                enqueue(testId, test.getNextRunAt() != null ? test.getNextRunAt() : Instant.now());
+            } else {
+                cancel(testId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reload scheduled test {} after a change", testId, e);
+        }
+    }
+
+    private void announce(String testId) {
+        try {
+            reactiveQueueService.publishScheduleChange(leaderElectionService.getNodeId() + " " + testId)
+                .block(Duration.ofSeconds(5));
+        } catch (Exception e) {
+            log.warn("Failed to announce change of scheduled test {}", testId, e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 500)
+    public void fireDueTests() {
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+        if (changesMissed.getAndSet(false)) {
+            rebuildTimers();
+        }
         Instant now = Instant.now();
-        List<ScheduledTest> scheduledTests = scheduledTestRepository.findByEnabledTrue();
-        
-        for (ScheduledTest scheduledTest : scheduledTests) {
+        List<TimerEntry> dueEntries = new ArrayList<>();
+        TimerEntry next;
+        while ((next = pollDue(now)) != null) {
+            dueEntries.add(next);
+        }
+        if (dueEntries.size() > 1) {
+            prefetchAdmission(dueEntries);
+        }
+
+        for (TimerEntry due : dueEntries) {
             try {
-                if (shouldRunNow(scheduledTest, now)) {
-                    runScheduledTest(scheduledTest);
+                ScheduledTest scheduledTest = scheduledTestRepository.findById(due.getTestId()).orElse(null);
+                if (scheduledTest != null && Boolean.TRUE.equals(scheduledTest.getEnabled())) {
+                    Instant slot = scheduledTest.getNextRunAt() != null ? scheduledTest.getNextRunAt() : due.getRunAt();
+                    if (slot.isAfter(now)) {
+                        // Rescheduled since this entry was queued
+                        enqueue(scheduledTest.getId(), slot);
+                    } else {
+                        runScheduledTest(scheduledTest, slot);
+                    }
                 }
             } catch (Exception e) {
-                log.error("Failed to run scheduled test: {}", scheduledTest.getId(), e);
+                log.error("Failed to run scheduled test: {}", due.getTestId(), e);
             }
         }
     }
     
-    private boolean shouldRunNow(ScheduledTest scheduledTest, Instant now) {
-        // Check if next run time is now or in the past
-        if (scheduledTest.getNextRunAt() != null && 
-            scheduledTest.getNextRunAt().isBefore(now)) {
-            return true;
+    /**
+     * Admits a burst of due runs with one batched call. The decisions are
+     * cached, so each run's own admission check is answered locally.
+     */
+    private void prefetchAdmission(List<TimerEntry> dueEntries) {
+        try {
+            List<String> scenarioIds = new ArrayList<>();
+            scheduledTestRepository.findAllById(dueEntries.stream().map(TimerEntry::getTestId).toList())
+                .forEach(test -> {
+                    if (Boolean.TRUE.equals(test.getEnabled()) && !scenarioIds.contains(test.getScenarioId())) {
+                        scenarioIds.add(test.getScenarioId());
+                    }
+                });
+            List<admission.Admission.ExecutionRequest> requests = new ArrayList<>();
+            scenarioRepository.findAllById(scenarioIds).forEach(scenario -> {
+                if (scenario.getApprovalStatus() == ApprovalStatus.APPROVED) {
+                    requests.add(AdmissionClient.request(scenario.getId(), scenario.getNumWorkers(),
+                        scenario.getDurationSeconds(), scenario.getApprovalStatus().name()));
+                }
+            });
+            if (!requests.isEmpty()) {
+                admissionClient.validateAll(requests).get();
+            }
+        } catch (Exception e) {
+            log.warn("Batched admission for {} due run(s) failed, admitting one by one", dueEntries.size(), e);
         }
-        
-        // If no next run time set, check cron expression
-        if (scheduledTest.getNextRunAt() == null) {
-            return true;
+    }
+    
+    private TimerEntry pollDue(Instant now) {
+        timersLock.lock();
+        try {
+            while (!timers.isEmpty() && !timers.peek().getRunAt().isAfter(now)) {
+                TimerEntry head = timers.poll();
+                if (generations.remove(head.getTestId(), head.getGeneration())) {
+                    return head;
+                }
+            }
+            return null;
+        } finally {
+            timersLock.unlock();
+        }
+    }
+    
+    private void enqueue(String testId, Instant runAt) {
+        if (runAt == null) {
+            cancel(testId);
+            return;
+        }
+        timersLock.lock();
+        try {
+            long generation = generationSequence.incrementAndGet();
+            generations.put(testId, generation);
+            timers.add(new TimerEntry(runAt, testId, generation));
+        } finally {
+            timersLock.unlock();
         }
-        
-        return false;
     }
     
-    private void runScheduledTest(ScheduledTest scheduledTest) {
-        log.info("Running scheduled test: {}", scheduledTest.getName());
+    private void cancel(String testId) {
+        timersLock.lock();
+        try {
+            // Any queued entry now carries a stale generation and is skipped
+            generations.remove(testId);
+        } finally {
+            timersLock.unlock();
+        }
+    }
+    
+    private boolean claimRun(String runKey) {
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(
+            runKeyPrefix + ":" + runKey,
+            leaderElectionService.getNodeId(),
+            Duration.ofHours(runKeyTtlHours)
+        );
+        return Boolean.TRUE.equals(claimed);
+    }
+    
+    private void runScheduledTest(ScheduledTest scheduledTest, Instant slot) {
+        String runKey = scheduledTest.getId() + ":" + slot.toEpochMilli();
+        if (!claimRun(runKey)) {
+            log.warn("Scheduled run {} already fired, skipping", runKey);
+            Instant nextRun = calculateNextRun(scheduledTest.getCronExpression());
+            scheduledTest.setNextRunAt(nextRun);
+            scheduledTestRepository.save(scheduledTest);
+            enqueue(scheduledTest.getId(), nextRun);
+            return;
+        }
+        
+        log.info("Running scheduled test: {} (run {})", scheduledTest.getName(), runKey);
+        scheduledTest.setLastRunKey(runKey);
         
         try {
             // Start the scenario
@@ -93,13 +299,17 @@ public class SchedulerService {
             scheduledTest.setNextRunAt(nextRun);
             
             scheduledTestRepository.save(scheduledTest);
+            enqueue(scheduledTest.getId(), nextRun);
             
             log.info("Scheduled test started successfully. Next run: {}", nextRun);
             
         } catch (Exception e) {
             log.error("Failed to run scheduled test", e);
             scheduledTest.setLastRunStatus("FAILED");
+            Instant nextRun = calculateNextRun(scheduledTest.getCronExpression());
+            scheduledTest.setNextRunAt(nextRun);
             scheduledTestRepository.save(scheduledTest);
+            enqueue(scheduledTest.getId(), nextRun);
         }
     }
     
@@ -116,7 +326,12 @@ public class SchedulerService {
         scheduledTest.setNextRunAt(nextRun);
         scheduledTest.setCreatedAt(Instant.now());
         
-        return scheduledTestRepository.save(scheduledTest);
+        ScheduledTest saved = scheduledTestRepository.save(scheduledTest);
+        if (!Boolean.FALSE.equals(saved.getEnabled())) {
+            enqueue(saved.getId(), nextRun);
+        }
+        announce(saved.getId());
+        return saved;
     }
     
     public void updateScheduledTest(String id, ScheduledTest updates) {
@@ -136,13 +351,28 @@ public class SchedulerService {
         }
         
         scheduledTestRepository.save(existing);
+        if (Boolean.TRUE.equals(existing.getEnabled())) {
+            enqueue(existing.getId(), existing.getNextRunAt());
+        } else {
+            cancel(existing.getId());
+        }
+        announce(existing.getId());
     }
     
     public void deleteScheduledTest(String id) {
         scheduledTestRepository.deleteById(id);
+        cancel(id);
+        announce(id);
     }
     
     public List<ScheduledTest> getUserScheduledTests(String userId) {
         return scheduledTestRepository.findByUserId(userId);
     }
-}
\ No newline at end of file
+    
+    @lombok.Value
+    private static class TimerEntry {
+        Instant runAt;
+        String testId;
+        long generation;
+    }
+}
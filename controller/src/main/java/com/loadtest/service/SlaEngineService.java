@@ -0,0 +1,270 @@
+package com.loadtest.service;
+
+import com.loadtest.model.*;
+import com.loadtest.utils.LiveWindow;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Evaluates scenario SLAs in memory as results arrive.
+ * <p>
+ * The objectives of an execution are compiled from its {@link SlaConfig}
+ * once, when it launches: an error budget, the share of requests allowed
+ * over the p95 and p99 limits, and the average latency limit. They are
+ * evaluated against the execution's {@link LiveWindow} from
+ * {@link LiveMetricsService} whenever an ingest batch adds to it.
+ * <p>
+ * Each objective is checked with two burn-rate policies. A policy fires when
+ * the budget burns faster than its rate over both its long and its short
+ * window, and clears as soon as either drops back. The fast policy (10s and
+ * 1m by default) catches sharp regressions within a minute without paging
+ * on a single bad second; the slow one (1m and 5m) catches a steady burn
+ * that no short snapshot shows.
+ * <p>
+ * Latency objectives are plain thresholds instead: they breach under each
+ * policy as soon as the limit is exceeded over both its windows. The window
+ * rebuilds latency from the batch average, p95 and p99 the workers report,
+ * so at most 7% of a batch lands above its average: a p95 burn tops out
+ * near 1.4x, and an average has no budget to burn. Neither could reach the
+ * fast rate. The fast policy still pages on them, only after its 10s and
+ * 1m rather than at 6x. Breach state is kept here, so only
+ * transitions reach Mongo: an alert when a policy fires and its
+ * {@code resolvedAt} when it clears.
+ * <p>
+ * Each replica evaluates the results it drained itself. Rates and
+ * percentiles hold for any share of the traffic, so the split does not move
+ * the outcome. Only the leader raises alerts, so a breach is reported once;
+ * a replica that lost the lead still resolves the alerts it raised. When an
+ * execution ends, its open alerts are resolved with it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlaEngineService implements LiveMetricsListener {
+
+    private final AlertService alertService;
+    private final LeaderElectionService leaderElectionService;
+
+    private final Map<String, ExecutionSla> executions = new ConcurrentHashMap<>();
+
+    @Value("${loadtest.sla.min-requests:1}")
+    private long minRequests;
+
+    @Value("${loadtest.sla.fast-burn.short-seconds:10}")
+    private int fastShortSeconds;
+
+    @Value("${loadtest.sla.fast-burn.long-seconds:60}")
+    private int fastLongSeconds;
+
+    @Value("${loadtest.sla.fast-burn.rate:6}")
+    private double fastRate;
+
+    @Value("${loadtest.sla.slow-burn.short-seconds:60}")
+    private int slowShortSeconds;
+
+    @Value("${loadtest.sla.slow-burn.long-seconds:300}")
+    private int slowLongSeconds;
+
+    @Value("${loadtest.sla.slow-burn.rate:1}")
+    private double slowRate;
+
+    private List<BurnPolicy> policies;
+
+    @PostConstruct
+    public void init() {
+        policies = List.of(
+            new BurnPolicy("fast", fastShortSeconds, fastLongSeconds, fastRate, "CRITICAL"),
+            new BurnPolicy("slow", slowShortSeconds, slowLongSeconds, slowRate, "WARNING")
+        );
+    }
+
+    @Override
+    public void onRegister(LiveMetricsService.LiveExecution execution, LoadTestScenario scenario) {
+        List<SlaObjective> objectives = compile(scenario.getSlaConfig());
+        if (!objectives.isEmpty()) {
+            executions.put(execution.getExecutionId(), new ExecutionSla(objectives));
+            log.debug("Compiled {} SLA objective(s) for execution {}", objectives.size(), execution.getExecutionId());
+        }
+    }
+
+    @Override
+    public void onUnregister(LiveMetricsService.LiveExecution execution) {
+        ExecutionSla sla = executions.remove(execution.getExecutionId());
+        if (sla == null) {
+            return;
+        }
+        sla.getLock().lock();
+        try {
+            sla.getOpenBreaches().forEach((key, open) -> {
+                log.info("SLA {} resolved as execution {} ended", key, execution.getExecutionId());
+                alertService.resolve(open);
+            });
+            sla.getOpenBreaches().clear();
+        } finally {
+            sla.getLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBatch(LiveMetricsService.LiveExecution execution, long nowSecond) {
+        ExecutionSla sla = executions.get(execution.getExecutionId());
+        if (sla == null) {
+            return;
+        }
+        sla.getLock().lock();
+        try {
+            if (executions.get(execution.getExecutionId()) == sla) { // Not ended meanwhile
+                evaluate(execution, sla, nowSecond);
+            }
+        } finally {
+            sla.getLock().unlock();
+        }
+    }
+
+    private void evaluate(LiveMetricsService.LiveExecution execution, ExecutionSla sla, long nowSecond) {
+        Map<Integer, LiveWindow.Snapshot> windows = new HashMap<>();
+        for (BurnPolicy policy : policies) {
+            windows.computeIfAbsent(policy.getShortSeconds(), seconds -> execution.getWindow().snapshot(nowSecond, seconds));
+            windows.computeIfAbsent(policy.getLongSeconds(), seconds -> execution.getWindow().snapshot(nowSecond, seconds));
+        }
+
+        for (SlaObjective objective : sla.getObjectives()) {
+            for (BurnPolicy policy : policies) {
+                LiveWindow.Snapshot longWindow = windows.get(policy.getLongSeconds());
+                LiveWindow.Snapshot shortWindow = windows.get(policy.getShortSeconds());
+                if (longWindow.getRequests() < minRequests) {
+                    continue; // Too little data to judge; keep the current state
+                }
+
+                double longBurn = objective.getBurn().applyAsDouble(longWindow);
+                double shortBurn = objective.getBurn().applyAsDouble(shortWindow);
+                double rate = objective.isThreshold() ? 1.0 : policy.getRate();
+                boolean breached = longBurn > rate && shortBurn > rate;
+                String key = objective.getKey() + ":" + policy.getName();
+                Alert open = sla.getOpenBreaches().get(key);
+
+                if (breached && open == null && leaderElectionService.isLeader()) {
+                    String message = objective.isThreshold()
+                        ? String.format("%s is over its limit over both %ds and %ds (%s over %ds, objective %s)",
+                            objective.getLabel(), policy.getLongSeconds(), policy.getShortSeconds(),
+                            objective.describe(longWindow), policy.getLongSeconds(), objective.getTarget())
+                        : String.format("%s is burning its budget at %.1fx over %ds and %.1fx over %ds (%s over %ds, objective %s)",
+                            objective.getLabel(), longBurn, policy.getLongSeconds(), shortBurn, policy.getShortSeconds(),
+                            objective.describe(longWindow), policy.getLongSeconds(), objective.getTarget());
+                    log.warn("SLA breach detected for scenario {}: {}", execution.getScenarioId(), message);
+                    sla.getOpenBreaches().put(key, alertService.raise(Alert.builder()
+                        .userId(execution.getUserId())
+                        .scenarioId(execution.getScenarioId())
+                        .executionId(execution.getExecutionId())
+                        .rule(key)
+                        .type(AlertType.SLA_BREACH.name())
+                        .severity(policy.getSeverity())
+                        .title("SLA Violation - " + execution.getScenarioName())
+                        .message(message)
+                        .build()));
+                } else if (!breached && open != null) {
+                    log.info("SLA {} recovered for scenario {}", key, execution.getScenarioId());
+                    alertService.resolve(open);
+                    sla.getOpenBreaches().remove(key);
+                }
+            }
+        }
+    }
+
+    private static List<SlaObjective> compile(SlaConfig config) {
+        List<SlaObjective> objectives = new ArrayList<>();
+        if (config == null) {
+            return objectives;
+        }
+
+        // Both limits describe the same error budget; the tighter one wins
+        double errorBudget = Double.NaN;
+        if (config.getMaxErrorRate() > 0) {
+            errorBudget = config.getMaxErrorRate();
+        }
+        if (config.getMinSuccessRate() > 0) {
+            errorBudget = Double.isNaN(errorBudget)
+                ? 100 - config.getMinSuccessRate()
+                : Math.min(errorBudget, 100 - config.getMinSuccessRate());
+        }
+        if (!Double.isNaN(errorBudget)) {
+            double allowed = errorBudget / 100;
+            objectives.add(new SlaObjective("error-rate", "Error rate", String.format("<= %.2f%% errors", errorBudget), false,
+                window -> burn(window.getErrorRate(), allowed),
+                window -> String.format("%.2f%% errors", window.getErrorRate() * 100)));
+        }
+        if (config.getMaxP95LatencyMs() > 0) {
+            double limit = config.getMaxP95LatencyMs();
+            objectives.add(new SlaObjective("p95-latency", "P95 latency", String.format("p95 <= %.0fms", limit), true,
+                window -> burn(slowShare(window, limit), 0.05),
+                window -> String.format("p95 %.2fms", window.percentile(0.95))));
+        }
+        if (config.getMaxP99LatencyMs() > 0) {
+            double limit = config.getMaxP99LatencyMs();
+            objectives.add(new SlaObjective("p99-latency", "P99 latency", String.format("p99 <= %.0fms", limit), true,
+                window -> burn(slowShare(window, limit), 0.01),
+                window -> String.format("p99 %.2fms", window.percentile(0.99))));
+        }
+        if (config.getMaxAvgLatencyMs() > 0) {
+            double limit = config.getMaxAvgLatencyMs();
+            objectives.add(new SlaObjective("avg-latency", "Average latency", String.format("avg <= %.0fms", limit), true,
+                window -> window.getAvgLatencyMs() / limit,
+                window -> String.format("avg %.2fms", window.getAvgLatencyMs())));
+        }
+        return objectives;
+    }
+
+    private static double slowShare(LiveWindow.Snapshot window, double limitMs) {
+        return window.getRequests() > 0 ? window.countAbove(limitMs) / window.getRequests() : 0.0;
+    }
+
+    /**
+     * How many times faster than allowed the budget is being spent, or for a
+     * threshold objective how far past its limit it is.
+     */
+    private static double burn(double badShare, double allowedShare) {
+        if (allowedShare <= 0) {
+            return badShare > 0 ? Double.POSITIVE_INFINITY : 0.0;
+        }
+        return badShare / allowedShare;
+    }
+
+    @lombok.Value
+    private static class SlaObjective {
+        String key;
+        String label;
+        String target;
+        boolean threshold; // Breaches at 1x under every policy rather than at the policy's rate
+        ToDoubleFunction<LiveWindow.Snapshot> burn; // 1.0 spends the budget exactly
+        Function<LiveWindow.Snapshot, String> format;
+
+        String describe(LiveWindow.Snapshot window) {
+            return format.apply(window);
+        }
+    }
+
+    @lombok.Value
+    private static class BurnPolicy {
+        String name;
+        int shortSeconds;
+        int longSeconds;
+        double rate;
+        String severity;
+    }
+
+    @lombok.Value
+    private static class ExecutionSla {
+        List<SlaObjective> objectives;
+        Map<String, Alert> openBreaches = new HashMap<>(); // "objective:policy" to its unresolved alert
+        ReentrantLock lock = new ReentrantLock(); // Ingest evaluates, the stopping thread resolves on unregister
+    }
+}
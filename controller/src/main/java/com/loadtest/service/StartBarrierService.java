@@ -0,0 +1,182 @@
+package com.loadtest.service;
+
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.StartMode;
+import com.loadtest.model.WorkerTask;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinated start: every task of an execution carries the same future
+ * start epoch, and workers acknowledge readiness when they pop a task and
+ * start waiting for it.
+ * <p>
+ * The lead time covers twice the p99 of recently measured dispatch-to-ready
+ * latencies plus a margin, bounded by {@code min-lead-ms} and
+ * {@code max-lead-ms}. Just before the epoch the barrier counts
+ * acknowledgements. If fewer than {@code min-ready-ratio} of the tasks are
+ * ready, the start is moved (up to {@code max-reschedules} times) and
+ * otherwise the execution is aborted, ending up ABORTED with the ready count
+ * as the reason. Workers compare against their own
+ * clocks, so hosts are expected to be NTP-synchronised.
+ */
+@Slf4j
+@Service
+public class StartBarrierService {
+
+    private static final int MAX_SAMPLES = 500;
+    private static final long CHECK_GUARD_MS = 250;
+    private static final long LEAD_MARGIN_MS = 500;
+
+    private final RedisQueueService redisQueueService;
+    private final LoadTestOrchestrationService orchestrationService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Deque<Long> readyLatenciesMs = new ConcurrentLinkedDeque<>();
+
+    @Value("${loadtest.start.mode:IMMEDIATE}")
+    private StartMode mode;
+
+    @Value("${loadtest.start.min-lead-ms:2000}")
+    private long minLeadMs;
+
+    @Value("${loadtest.start.max-lead-ms:30000}")
+    private long maxLeadMs;
+
+    @Value("${loadtest.start.min-ready-ratio:1.0}")
+    private double minReadyRatio;
+
+    @Value("${loadtest.start.max-reschedules:2}")
+    private int maxReschedules;
+
+    public StartBarrierService(
+            RedisQueueService redisQueueService,
+            @Lazy LoadTestOrchestrationService orchestrationService
+    ) {
+        this.redisQueueService = redisQueueService;
+        this.orchestrationService = orchestrationService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isCoordinated() {
+        return mode == StartMode.COORDINATED;
+    }
+
+    /**
+     * Picks the start epoch and stamps it on every task before dispatch.
+     */
+    public Instant prepare(String executionId, List<WorkerTask> tasks) {
+        Instant startAt = Instant.now().plusMillis(leadMs());
+        tasks.forEach(task -> task.setStartTime(startAt));
+        redisQueueService.publishStartEpoch(executionId, startAt, false);
+        log.info("Execution {} will start at {} ({} ms lead)", executionId, startAt,
+            Duration.between(Instant.now(), startAt).toMillis());
+        return startAt;
+    }
+
+    /**
+     * Checks readiness shortly before {@code startAt}, then begins,
+     * reschedules or aborts the execution.
+     */
+    public void await(String executionId, LoadTestScenario scenario, List<WorkerTask> tasks,
+                      Instant dispatchedAt, Instant startAt) {
+        schedule(new Barrier(executionId, scenario, tasks, dispatchedAt), startAt);
+    }
+
+    long leadMs() {
+        List<Long> samples = new ArrayList<>(readyLatenciesMs);
+        if (samples.isEmpty()) {
+            return minLeadMs;
+        }
+        samples.sort(Long::compare);
+        long p99 = samples.get(Math.max(0, (int) Math.ceil(0.99 * samples.size()) - 1));
+        return Math.max(minLeadMs, Math.min(maxLeadMs, 2 * p99 + LEAD_MARGIN_MS));
+    }
+
+    private void schedule(Barrier barrier, Instant startAt) {
+        barrier.startAt = startAt;
+        long delay = Math.max(0, Duration.between(Instant.now(), startAt).toMillis() - CHECK_GUARD_MS);
+        scheduler.schedule(() -> check(barrier), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void check(Barrier barrier) {
+        try {
+            Map<String, Long> acks = redisQueueService.getReadyAcks(barrier.executionId);
+            recordLatencies(barrier, acks);
+
+            int expected = barrier.tasks.size();
+            int required = (int) Math.ceil(expected * minReadyRatio);
+            if (acks.size() >= required) {
+                log.info("Execution {} starting at {}: {}/{} tasks ready",
+                    barrier.executionId, barrier.startAt, acks.size(), expected);
+                orchestrationService.beginExecution(barrier.executionId, barrier.scenario, barrier.startAt);
+                return;
+            }
+
+            if (barrier.reschedules < maxReschedules) {
+                barrier.reschedules++;
+                Instant next = Instant.now().plusMillis(leadMs());
+                log.warn("Execution {} has {}/{} tasks ready (need {}), moving start to {} (attempt {}/{})",
+                    barrier.executionId, acks.size(), expected, required, next, barrier.reschedules, maxReschedules);
+                barrier.tasks.forEach(task -> task.setStartTime(next));
+                redisQueueService.publishStartEpoch(barrier.executionId, next, true);
+                schedule(barrier, next);
+                return;
+            }
+
+            String reason = String.format("only %d/%d tasks ready after %d reschedule(s)",
+                acks.size(), expected, barrier.reschedules);
+            log.error("Aborting execution {}: {}", barrier.executionId, reason);
+            orchestrationService.stopScenario(barrier.executionId, reason);
+        } catch (Exception e) {
+            log.error("Start barrier check failed for execution {}", barrier.executionId, e);
+        }
+    }
+
+    private void recordLatencies(Barrier barrier, Map<String, Long> acks) {
+        acks.forEach((taskId, readyAt) -> {
+            if (barrier.sampled.add(taskId)) {
+                readyLatenciesMs.addLast(Math.max(0, readyAt - barrier.dispatchedAt.toEpochMilli()));
+                while (readyLatenciesMs.size() > MAX_SAMPLES) {
+                    readyLatenciesMs.pollFirst();
+                }
+            }
+        });
+    }
+
+    private static class Barrier {
+        final String executionId;
+        final LoadTestScenario scenario;
+        final List<WorkerTask> tasks;
+        final Instant dispatchedAt;
+        final Set<String> sampled = new HashSet<>();
+        Instant startAt;
+        int reschedules;
+
+        Barrier(String executionId, LoadTestScenario scenario, List<WorkerTask> tasks, Instant dispatchedAt) {
+            this.executionId = executionId;
+            this.scenario = scenario;
+            this.tasks = tasks;
+            this.dispatchedAt = dispatchedAt;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.loadtest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Execution stop deadlines kept in a Redis sorted set (member: execution id,
+ * score: deadline in epoch millis), so they survive controller restarts.
+ * <p>
+ * Only the elected leader fires timers. Due entries are claimed by pushing
+ * their score forward by {@code retry-ms} instead of removing them. A stop
+ * that fails, or whose instance dies mid-way, therefore fires again later,
+ * and the entry is only removed once the stop has gone through. Overdue
+ * entries fire as soon as a replica becomes leader, including right after
+ * startup. Stops run on a small pool so one slow stop does not hold up the
+ * others.
+ */
+@Slf4j
+@Service
+public class StopTimerService {
+
+    private static final int CLAIM_BATCH = 100;
+
+    // Due members get their score pushed to ARGV[2] so no other claim sees them until then
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of(
+        "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[3]))\n" +
+        "for _, member in ipairs(due) do redis.call('ZADD', KEYS[1], ARGV[2], member) end\n" +
+        "return due",
+        List.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LeaderElectionService leaderElectionService;
+    private final LoadTestOrchestrationService orchestrationService;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService stopExecutor = Executors.newFixedThreadPool(4);
+
+    @Value("${loadtest.redis.stops.key:loadtest:stops}")
+    private String stopsKey;
+
+    @Value("${loadtest.redis.stops.retry-ms:60000}")
+    private long retryMs;
+
+    public StopTimerService(
+            RedisTemplate<String, String> redisTemplate,
+            LeaderElectionService leaderElectionService,
+            @Lazy LoadTestOrchestrationService orchestrationService
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.leaderElectionService = leaderElectionService;
+        this.orchestrationService = orchestrationService;
+    }
+
+    public void scheduleStop(String executionId, Instant deadline) {
+        redisTemplate.opsForZSet().add(stopsKey, executionId, deadline.toEpochMilli());
+        log.debug("Stop for execution {} due at {}", executionId, deadline);
+    }
+
+    public void cancel(String executionId) {
+        redisTemplate.opsForZSet().remove(stopsKey, executionId);
+    }
+
+    @EventListener(LeaderElectionService.LeadershipAcquired.class)
+    public void onLeadershipAcquired() {
+        // Overdue stops, e.g. from before a restart or failover, fire right away
+        fireDueStops();
+    }
+
+    @Scheduled(fixedDelay = 500)
+    @SuppressWarnings("unchecked")
+    public void fireDueStops() {
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Object> due = redisTemplate.execute(CLAIM_SCRIPT, List.of(stopsKey),
+            String.valueOf(now), String.valueOf(now + retryMs), String.valueOf(CLAIM_BATCH));
+        if (due == null) {
+            return;
+        }
+
+        for (Object member : due) {
+            String executionId = member.toString();
+            if (inFlight.add(executionId)) {
+                stopExecutor.submit(() -> fire(executionId));
+            }
+        }
+    }
+
+    private void fire(String executionId) {
+        try {
+            orchestrationService.stopScenario(executionId);
+            cancel(executionId);
+        } catch (Exception e) {
+            log.error("Failed to stop scenario execution {}, retrying in {} ms", executionId, retryMs, e);
+        } finally {
+            inFlight.remove(executionId);
+        }
+    }
+}
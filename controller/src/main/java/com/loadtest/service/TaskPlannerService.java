@@ -0,0 +1,218 @@
+package com.loadtest.service;
+
+import com.loadtest.dto.SchedulePreview;
+import com.loadtest.exception.InsufficientCapacityException;
+import com.loadtest.exception.InsufficientWorkersException;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.RateSegment;
+import com.loadtest.model.WorkerHeartbeat;
+import com.loadtest.model.WorkerStatus;
+import com.loadtest.model.WorkerTask;
+import com.loadtest.utils.RateScheduleCompiler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a scenario's load profile into per-worker tasks.
+ * <p>
+ * The profile is compiled into an aggregate rate for every second of the
+ * run, and each second is split over the slots in proportion to what each
+ * worker can sustain. A worker that has fallen short of its target reports
+ * the rate it reached as {@code saturatedRps}. That measured ceiling
+ * becomes both the cap and the weight of its slot. Workers that never
+ * saturated, and slots no idle worker fills, count as {@code max-rps}, so
+ * the excess goes to them. The shares add up to exactly the aggregate, and
+ * every worker receives its own (offset, rps) schedule instead of
+ * interpreting the whole profile. Slots that no idle worker can fill are
+ * left unpinned and go through the regular queue topology.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskPlannerService {
+
+    private final RedisQueueService redisQueueService;
+
+    @Value("${loadtest.worker.max-rps:10000}")
+    private int maxRpsPerWorker;
+
+    /**
+     * Plans the tasks of an execution on the idle workers, leaving out
+     * those that are still reported idle but have just been handed work.
+     */
+    public List<WorkerTask> planTasks(LoadTestScenario scenario, String executionId, Set<String> excludedWorkers) {
+        Slots slots = resolveSlots(Math.max(1, scenario.getNumWorkers()), excludedWorkers);
+        int[] aggregate = aggregateRates(scenario);
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(aggregate, slots.weights, slots.caps);
+
+        log.info("Planned peak {} RPS over {} slot(s) ({} pinned), {} segment(s) in total",
+            RateScheduleCompiler.peak(aggregate), slots.caps.length, slots.workerIds.size(),
+            schedules.stream().mapToInt(List::size).sum());
+        return WorkerTask.fromScenario(scenario, executionId, schedules, slots.workerIds);
+    }
+
+    /**
+     * Compiles the schedules {@link #planTasks} would dispatch right now,
+     * without publishing anything.
+     */
+    public SchedulePreview preview(LoadTestScenario scenario) {
+        Slots slots = resolveSlots(scenario);
+        int[] aggregate = aggregateRates(scenario);
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(aggregate, slots.weights, slots.caps);
+
+        List<SchedulePreview.WorkerSchedule> workers = new ArrayList<>();
+        for (int i = 0; i < schedules.size(); i++) {
+            workers.add(SchedulePreview.WorkerSchedule.builder()
+                .slot(i)
+                .workerId(i < slots.workerIds.size() ? slots.workerIds.get(i) : null)
+                .peakRps(RateScheduleCompiler.peak(schedules.get(i)))
+                .segments(schedules.get(i))
+                .build());
+        }
+
+        return SchedulePreview.builder()
+            .scenarioId(scenario.getId())
+            .durationSeconds(scenario.getDurationSeconds())
+            .peakRps(RateScheduleCompiler.peak(aggregate))
+            .capacityRps(Arrays.stream(slots.caps).sum())
+            .aggregate(RateScheduleCompiler.compress(aggregate))
+            .workers(workers)
+            .build();
+    }
+
+    /**
+     * Whether enough workers are idle right now to pin every slot of the
+     * scenario, with room for its peak rate under their caps.
+     */
+    public boolean fitsIdleCapacity(LoadTestScenario scenario, Set<String> excludedWorkers) {
+        int count = Math.max(1, scenario.getNumWorkers());
+        Slots slots = resolveSlots(count, excludedWorkers);
+        if (slots.workerIds.size() < count) {
+            return false;
+        }
+        return slots.capacity() >= RateScheduleCompiler.peak(aggregateRates(scenario));
+    }
+
+    /**
+     * Fails unless the scenario could run on the registered workers, busy
+     * or not, so one that never can is not queued behind them forever.
+     *
+     * @throws InsufficientWorkersException if fewer workers are registered
+     *         than the scenario needs
+     * @throws InsufficientCapacityException if its peak rate exceeds
+     *         {@code max-rps} on every one of them
+     */
+    public void checkFeasible(LoadTestScenario scenario) {
+        int count = Math.max(1, scenario.getNumWorkers());
+        int registered = redisQueueService.getWorkerHeartbeats().size();
+        if (registered < count) {
+            throw new InsufficientWorkersException(count, registered);
+        }
+        int peak = RateScheduleCompiler.peak(aggregateRates(scenario));
+        if ((long) count * maxRpsPerWorker < peak) {
+            throw new InsufficientCapacityException(peak, (int) Math.min(Integer.MAX_VALUE, (long) count * maxRpsPerWorker));
+        }
+    }
+
+    /**
+     * Re-plans the rest of a task whose worker was lost, {@code elapsedSeconds}
+     * into its schedule. The remaining rates are spread over enough idle
+     * workers to stay under their caps, split the same way as the original
+     * plan. Replacement task ids keep the original as a prefix.
+     */
+    public List<WorkerTask> planReissue(WorkerTask lost, int elapsedSeconds, int attempt, Set<String> excludedWorkers) {
+        int remaining = lost.getDurationSeconds() - elapsedSeconds;
+        if (remaining <= 0) {
+            return List.of();
+        }
+        List<RateSegment> schedule = lost.getSchedule() != null && !lost.getSchedule().isEmpty()
+            ? lost.getSchedule()
+            : List.of(new RateSegment(0, lost.getRps()));
+        int[] rates = RateScheduleCompiler.expand(schedule, elapsedSeconds, remaining);
+
+        int peak = RateScheduleCompiler.peak(rates);
+        int count = Math.max(1, (peak + maxRpsPerWorker - 1) / maxRpsPerWorker);
+        Slots slots = resolveSlots(count, excludedWorkers);
+        while (slots.capacity() < peak) {
+            // Saturated workers are capped below max-rps; add slots until the rest fits
+            slots = resolveSlots(++count, excludedWorkers);
+        }
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(rates, slots.weights, slots.caps);
+
+        List<WorkerTask> tasks = new ArrayList<>();
+        for (int i = 0; i < schedules.size(); i++) {
+            int peakRps = RateScheduleCompiler.peak(schedules.get(i));
+            if (peakRps <= 0) {
+                continue;
+            }
+            tasks.add(lost.toBuilder()
+                .taskId(lost.getTaskId() + "-r" + attempt + "." + i)
+                .rps(peakRps)
+                .durationSeconds(remaining)
+                .startTime(Instant.now())
+                .schedule(schedules.get(i))
+                .assignedWorkerId(i < slots.workerIds.size() ? slots.workerIds.get(i) : null)
+                .build());
+        }
+        return tasks;
+    }
+
+    private int[] aggregateRates(LoadTestScenario scenario) {
+        return RateScheduleCompiler.aggregateRates(
+            scenario.getLoadProfile(), scenario.getDurationSeconds(), WorkerTask.aggregateRps(scenario));
+    }
+
+    private Slots resolveSlots(LoadTestScenario scenario) {
+        return resolveSlots(Math.max(1, scenario.getNumWorkers()), Set.of());
+    }
+
+    private Slots resolveSlots(int count, Set<String> excludedWorkers) {
+        List<WorkerHeartbeat> candidates = redisQueueService.getWorkerHeartbeats().values().stream()
+            .filter(hb -> hb.getStatus() == WorkerStatus.IDLE)
+            .filter(hb -> !excludedWorkers.contains(hb.getWorkerId()))
+            .sorted(Comparator.comparing((WorkerHeartbeat hb) -> hb.getSaturatedRps() > 0)
+                .thenComparing(Comparator.comparingDouble(WorkerHeartbeat::getSaturatedRps).reversed()))
+            .limit(count)
+            .collect(Collectors.toList());
+
+        Slots slots = new Slots(count);
+        for (int i = 0; i < count; i++) {
+            int cap = maxRpsPerWorker;
+            if (i < candidates.size()) {
+                WorkerHeartbeat candidate = candidates.get(i);
+                slots.workerIds.add(candidate.getWorkerId());
+                if (candidate.getSaturatedRps() > 0) {
+                    cap = (int) Math.max(1, Math.min(maxRpsPerWorker, Math.floor(candidate.getSaturatedRps())));
+                }
+            }
+            slots.caps[i] = cap;
+            slots.weights[i] = cap;
+        }
+        return slots;
+    }
+
+    private static class Slots {
+        final double[] weights; // What each slot can sustain; the split follows it
+        final int[] caps;
+        final List<String> workerIds = new ArrayList<>();
+
+        Slots(int count) {
+            this.weights = new double[count];
+            this.caps = new int[count];
+        }
+
+        long capacity() {
+            return Arrays.stream(caps).asLongStream().sum();
+        }
+    }
+}
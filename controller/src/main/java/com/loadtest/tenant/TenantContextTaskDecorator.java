@@ -0,0 +1,30 @@
+package com.loadtest.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's tenant over to async tasks. With virtual
+ * threads every task gets a fresh thread, so nothing would be inherited
+ * otherwise; the previous value is restored afterwards for executors that
+ * do reuse threads.
+ */
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String orgId = TenantContext.getOrgId();
+        return () -> {
+            String previous = TenantContext.getOrgId();
+            TenantContext.setOrgId(orgId);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    TenantContext.setOrgId(previous);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,194 @@
+package com.loadtest.utils;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes records as an Arrow IPC stream, {@code batchRows} rows per record
+ * batch, so only one batch is ever held in (off-heap) memory.
+ * <p>
+ * {@link Type#DICTIONARY} columns are strings stored as int32 indices into
+ * a per-batch dictionary. The dictionary is rebuilt for each batch and only
+ * sent again when it changed, which the stream format allows as a
+ * replacement; a long run with a handful of workers and error messages
+ * sends each once. Not thread-safe.
+ */
+public class ArrowRecordWriter<T> implements AutoCloseable {
+
+    public enum Type {
+        TIMESTAMP,  // Instant, UTC milliseconds
+        INT64,
+        INT32,
+        FLOAT64,
+        BOOL,
+        DICTIONARY  // String
+    }
+
+    @lombok.Getter
+    public static class Column<T> {
+        private final String name;
+        private final Type type;
+        private final Function<T, Object> value; // Null is written as a null
+
+        public Column(String name, Type type, Function<T, Object> value) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final ArrowType.Int INDEX_TYPE = new ArrowType.Int(32, true);
+
+    private final List<Column<T>> columns;
+    private final int batchRows;
+    private final VectorSchemaRoot root;
+    private final DictionaryProvider.MapDictionaryProvider dictionaries = new DictionaryProvider.MapDictionaryProvider();
+    private final List<Map<String, Integer>> dictionaryIds = new ArrayList<>(); // Per column, null unless DICTIONARY
+    private final ArrowStreamWriter writer;
+    private int rows;
+    private long total;
+
+    public ArrowRecordWriter(List<Column<T>> columns, BufferAllocator allocator, OutputStream out, int batchRows)
+            throws IOException {
+        this.columns = columns;
+        this.batchRows = batchRows;
+
+        List<Field> fields = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> column = columns.get(i);
+            if (column.getType() == Type.DICTIONARY) {
+                DictionaryEncoding encoding = new DictionaryEncoding(i, false, INDEX_TYPE);
+                dictionaries.put(new Dictionary(new VarCharVector(column.getName() + "-dictionary", allocator), encoding));
+                dictionaryIds.add(new HashMap<>());
+                fields.add(new Field(column.getName(), new FieldType(true, INDEX_TYPE, encoding), null));
+            } else {
+                dictionaryIds.add(null);
+                fields.add(Field.nullable(column.getName(), arrowType(column.getType())));
+            }
+        }
+        root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        // The response outlives the writer
+        writer = new ArrowStreamWriter(root, dictionaries, Channels.newChannel(StreamUtils.nonClosing(out)));
+        writer.start();
+    }
+
+    public void write(T record) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> column = columns.get(i);
+            FieldVector vector = root.getVector(i);
+            Object value = column.getValue().apply(record);
+            if (value == null) {
+                ((BaseFixedWidthVector) vector).setNull(rows);
+                continue;
+            }
+            switch (column.getType()) {
+                case TIMESTAMP -> ((TimeStampMilliTZVector) vector).setSafe(rows, ((Instant) value).toEpochMilli());
+                case INT64 -> ((BigIntVector) vector).setSafe(rows, ((Number) value).longValue());
+                case INT32 -> ((IntVector) vector).setSafe(rows, ((Number) value).intValue());
+                case FLOAT64 -> ((Float8Vector) vector).setSafe(rows, ((Number) value).doubleValue());
+                case BOOL -> ((BitVector) vector).setSafe(rows, (Boolean) value ? 1 : 0);
+                case DICTIONARY -> ((IntVector) vector).setSafe(rows, dictionaryId(i, (String) value));
+            }
+        }
+        if (++rows == batchRows) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the last partial batch and the end-of-stream marker.
+     */
+    public void finish() throws IOException {
+        flush();
+        writer.end();
+    }
+
+    public long getTotal() {
+        return total + rows;
+    }
+
+    /**
+     * Releases the vectors, whether or not the stream was finished.
+     */
+    @Override
+    public void close() {
+        writer.close(); // Also frees the writer's copies of the dictionaries it has sent
+        root.close();
+        for (long id : dictionaries.getDictionaryIds()) {
+            dictionaries.lookup(id).getVector().close();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        for (long id : dictionaries.getDictionaryIds()) {
+            dictionaries.lookup(id).getVector().setValueCount(dictionaryIds.get((int) id).size());
+        }
+        root.setRowCount(rows);
+        writer.writeBatch();
+        total += rows;
+        rows = 0;
+
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+        for (long id : dictionaries.getDictionaryIds()) {
+            dictionaries.lookup(id).getVector().reset();
+            dictionaryIds.get((int) id).clear();
+        }
+    }
+
+    private int dictionaryId(int column, String value) {
+        Map<String, Integer> ids = dictionaryIds.get(column);
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = ids.size();
+            ids.put(value, id);
+            ((VarCharVector) dictionaries.lookup(column).getVector()).setSafe(id, value.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    private static ArrowType arrowType(Type type) {
+        return switch (type) {
+            case TIMESTAMP -> new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC");
+            case INT64 -> new ArrowType.Int(64, true);
+            case INT32 -> new ArrowType.Int(32, true);
+            case FLOAT64 -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case BOOL -> ArrowType.Bool.INSTANCE;
+            case DICTIONARY -> INDEX_TYPE;
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.loadtest.utils;
+
+/**
+ * Cumulative log-bucketed latency histogram with about 2% value resolution,
+ * fixed at a few kilobytes however many requests it has seen.
+ * <p>
+ * Worker batches are recorded the same way as in {@link LiveWindow}: 2% of
+ * the requests at the batch p99, 5% at its p95 and the rest at its average.
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    public static final double BUCKET_RATIO = 1.02;
+    public static final int BUCKETS = 640; // Bucket 0 is [0, 1ms), the last one tops out near 320s
+
+    private static final double LOG_RATIO = Math.log(BUCKET_RATIO);
+
+    private final long[] buckets = new long[BUCKETS];
+    private long total;
+
+    public void record(double latencyMs, long count) {
+        if (count <= 0) {
+            return;
+        }
+        buckets[bucketOf(latencyMs)] += count;
+        total += count;
+    }
+
+    public void recordBatch(long count, double avgLatencyMs, double p95LatencyMs, double p99LatencyMs) {
+        long atP99 = p99LatencyMs > 0 ? Math.round(count * 0.02) : 0;
+        long atP95 = p95LatencyMs > 0 ? Math.round(count * 0.05) : 0;
+        record(p99LatencyMs, atP99);
+        record(p95LatencyMs, atP95);
+        record(avgLatencyMs, count - atP99 - atP95);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double percentile(double quantile) {
+        return valueAtRank(quantile * total);
+    }
+
+    /**
+     * Latency of the request at {@code rank} (0-based, fractional ranks
+     * interpolate), clamped to the recorded range.
+     */
+    public double valueAtRank(double rank) {
+        if (total == 0) {
+            return 0.0;
+        }
+        double target = Math.max(0, Math.min(total, rank));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (buckets[b] == 0) {
+                continue;
+            }
+            if (seen + buckets[b] >= target) {
+                double fraction = (target - seen) / buckets[b];
+                double lower = b == 0 ? 0 : Math.pow(BUCKET_RATIO, b - 1);
+                double upper = Math.pow(BUCKET_RATIO, b);
+                return b == 0 ? upper * fraction : lower * Math.pow(upper / lower, fraction);
+            }
+            seen += buckets[b];
+        }
+        return Math.pow(BUCKET_RATIO, BUCKETS - 1);
+    }
+
+    private static int bucketOf(double latencyMs) {
+        if (latencyMs < 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 1 + (int) Math.floor(Math.log(latencyMs) / LOG_RATIO));
+    }
+}
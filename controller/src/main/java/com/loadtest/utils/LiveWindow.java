@@ -0,0 +1,207 @@
+package com.loadtest.utils;
+
+import java.util.Arrays;
+
+/**
+ * Per-second rolling counters over the last {@code capacity} seconds of an
+ * execution: requests, errors, latency sum and a log-bucketed latency
+ * histogram. Memory is fixed at construction; a slot is reused once its
+ * second falls out of range.
+ * <p>
+ * Workers report a batch as count, average, p95 and p99. The histogram
+ * records such a batch as 2% of its requests at p99, 5% at p95 and the rest
+ * at the average, so the window p95 and p99 of a single batch land on the
+ * values the worker reported (to within a bucket), without storing samples.
+ * <p>
+ * Not thread-safe; the result processor is the only writer.
+ */
+public class LiveWindow {
+
+    public static final double BUCKET_RATIO = 1.25;
+    public static final int BUCKETS = 56; // Bucket 0 is [0, 1ms), the last one tops out near 215s
+
+    private static final double LOG_RATIO = Math.log(BUCKET_RATIO);
+
+    private final int capacity;
+    private final long[] seconds;
+    private final long[] requests;
+    private final long[] errors;
+    private final double[] latencySum;
+    private final int[][] histogram;
+
+    public LiveWindow(int capacitySeconds) {
+        this.capacity = capacitySeconds;
+        this.seconds = new long[capacitySeconds];
+        this.requests = new long[capacitySeconds];
+        this.errors = new long[capacitySeconds];
+        this.latencySum = new double[capacitySeconds];
+        this.histogram = new int[capacitySeconds][BUCKETS];
+        Arrays.fill(seconds, -1);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a batch of {@code count} requests to second {@code epochSecond}.
+     * Seconds older than the window are dropped.
+     */
+    public void record(long epochSecond, long count, long errorCount, double avgLatencyMs, double p95LatencyMs, double p99LatencyMs) {
+        if (count <= 0) {
+            return;
+        }
+        int slot = slotFor(epochSecond);
+        if (slot < 0) {
+            return;
+        }
+
+        requests[slot] += count;
+        errors[slot] += Math.min(errorCount, count);
+        latencySum[slot] += avgLatencyMs * count;
+
+        long atP99 = p99LatencyMs > 0 ? Math.round(count * 0.02) : 0;
+        long atP95 = p95LatencyMs > 0 ? Math.round(count * 0.05) : 0;
+        int[] buckets = histogram[slot];
+        buckets[bucketOf(p99LatencyMs)] += (int) atP99;
+        buckets[bucketOf(p95LatencyMs)] += (int) atP95;
+        buckets[bucketOf(avgLatencyMs)] += (int) (count - atP99 - atP95);
+    }
+
+    /**
+     * Totals of the {@code windowSeconds} seconds ending at {@code nowSecond}.
+     */
+    public Snapshot snapshot(long nowSecond, int windowSeconds) {
+        int span = Math.min(windowSeconds, capacity);
+        long from = nowSecond - span + 1;
+        long totalRequests = 0;
+        long totalErrors = 0;
+        double totalLatency = 0;
+        long[] buckets = new long[BUCKETS];
+
+        for (int slot = 0; slot < capacity; slot++) {
+            long second = seconds[slot];
+            if (second < from || second > nowSecond) {
+                continue;
+            }
+            totalRequests += requests[slot];
+            totalErrors += errors[slot];
+            totalLatency += latencySum[slot];
+            int[] slotBuckets = histogram[slot];
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] += slotBuckets[b];
+            }
+        }
+        return new Snapshot(totalRequests, totalErrors, totalLatency, buckets);
+    }
+
+    /**
+     * Totals of second {@code epochSecond} alone; empty once it has fallen
+     * out of the window.
+     */
+    public Snapshot at(long epochSecond) {
+        int slot = (int) Math.floorMod(epochSecond, (long) capacity);
+        long[] buckets = new long[BUCKETS];
+        if (seconds[slot] != epochSecond) {
+            return new Snapshot(0, 0, 0, buckets);
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets[b] = histogram[slot][b];
+        }
+        return new Snapshot(requests[slot], errors[slot], latencySum[slot], buckets);
+    }
+
+    private int slotFor(long epochSecond) {
+        int slot = (int) Math.floorMod(epochSecond, (long) capacity);
+        if (seconds[slot] == epochSecond) {
+            return slot;
+        }
+        if (seconds[slot] > epochSecond) {
+            return -1; // Slot already holds a newer second
+        }
+        seconds[slot] = epochSecond;
+        requests[slot] = 0;
+        errors[slot] = 0;
+        latencySum[slot] = 0;
+        Arrays.fill(histogram[slot], 0);
+        return slot;
+    }
+
+    public static int bucketOf(double latencyMs) {
+        if (latencyMs < 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 1 + (int) Math.floor(Math.log(latencyMs) / LOG_RATIO));
+    }
+
+    public static double lowerBound(int bucket) {
+        return bucket == 0 ? 0 : Math.pow(BUCKET_RATIO, bucket - 1);
+    }
+
+    public static double upperBound(int bucket) {
+        return Math.pow(BUCKET_RATIO, bucket);
+    }
+
+    /**
+     * Window totals. Percentiles and threshold counts interpolate inside the
+     * bucket they fall in, so they are accurate to a fraction of one bucket.
+     */
+    @lombok.Value
+    public static class Snapshot {
+        long requests;
+        long errors;
+        double latencySum;
+        long[] buckets;
+
+        public double getSuccessRate() {
+            return requests > 0 ? (double) (requests - errors) / requests : 1.0;
+        }
+
+        public double getErrorRate() {
+            return requests > 0 ? (double) errors / requests : 0.0;
+        }
+
+        public double getAvgLatencyMs() {
+            return requests > 0 ? latencySum / requests : 0.0;
+        }
+
+        public double percentile(double quantile) {
+            long total = Arrays.stream(buckets).sum();
+            if (total == 0) {
+                return 0.0;
+            }
+            double rank = quantile * total;
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                if (buckets[b] == 0) {
+                    continue;
+                }
+                if (seen + buckets[b] >= rank) {
+                    double fraction = (rank - seen) / buckets[b];
+                    double lower = lowerBound(b);
+                    double upper = upperBound(b);
+                    return b == 0 ? upper * fraction : lower * Math.pow(upper / lower, fraction);
+                }
+                seen += buckets[b];
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        /**
+         * Estimated number of requests slower than {@code thresholdMs}.
+         */
+        public double countAbove(double thresholdMs) {
+            int thresholdBucket = bucketOf(thresholdMs);
+            double above = 0;
+            for (int b = thresholdBucket + 1; b < BUCKETS; b++) {
+                above += buckets[b];
+            }
+            double lower = lowerBound(thresholdBucket);
+            double upper = upperBound(thresholdBucket);
+            double share = thresholdBucket == 0
+                ? 1 - thresholdMs / upper
+                : Math.log(upper / Math.max(thresholdMs, lower)) / Math.log(upper / lower);
+            return above + buckets[thresholdBucket] * Math.max(0, Math.min(1, share));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.loadtest.utils;
+
+import com.loadtest.model.Metric;
+import com.loadtest.model.ScenarioStats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the same {@link ScenarioStats} as
+ * {@code MetricsAggregationService.getAggregatedStats} one metric at a
+ * time, for exports that never hold the metrics in memory. Percentiles come
+ * from a {@link LatencyHistogram}, so they are within about 2% instead of
+ * exact. Not thread-safe.
+ */
+public class MetricStatsAccumulator {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final Map<Integer, Long> statusDist = new HashMap<>();
+    private final Map<String, Long> errorDist = new HashMap<>();
+    private long totalReqs;
+    private long successReqs;
+    private long failedReqs;
+    private double totalLatencyProduct;
+    private double minLatency = Double.MAX_VALUE;
+    private double maxLatency;
+    private Instant first;
+    private Instant last;
+
+    public void add(Metric m) {
+        long count = m.getRequestCount() > 0 ? m.getRequestCount() : 1;
+        totalReqs += count;
+        if (m.isSuccess()) {
+            successReqs += count;
+        } else {
+            failedReqs += count;
+        }
+
+        totalLatencyProduct += m.getLatencyMs() * count;
+        minLatency = Math.min(minLatency, m.getLatencyMs());
+        maxLatency = Math.max(maxLatency, m.getLatencyMs());
+        histogram.record(m.getLatencyMs(), count);
+
+        statusDist.merge(m.getStatusCode(), count, Long::sum);
+        if (m.getErrorMessage() != null) {
+            errorDist.merge(m.getErrorMessage(), count, Long::sum);
+        }
+        if (m.getTimestamp() != null) {
+            first = first == null || m.getTimestamp().isBefore(first) ? m.getTimestamp() : first;
+            last = last == null || m.getTimestamp().isAfter(last) ? m.getTimestamp() : last;
+        }
+    }
+
+    public ScenarioStats build(String scenarioId) {
+        double avgRps = 0;
+        if (first != null) {
+            long duration = Duration.between(first, last).toSeconds();
+            avgRps = duration > 0 ? (double) totalReqs / duration : totalReqs;
+        }
+        return ScenarioStats.builder()
+            .scenarioId(scenarioId)
+            .totalRequests(totalReqs)
+            .successfulRequests(successReqs)
+            .failedRequests(failedReqs)
+            .successRate(totalReqs > 0 ? (double) successReqs / totalReqs : 0)
+            .avgLatencyMs(totalReqs > 0 ? totalLatencyProduct / totalReqs : 0)
+            .minLatencyMs(totalReqs > 0 ? minLatency : 0)
+            .maxLatencyMs(maxLatency)
+            .p50LatencyMs(percentile(0.50))
+            .p75LatencyMs(percentile(0.75))
+            .p90LatencyMs(percentile(0.90))
+            .p95LatencyMs(percentile(0.95))
+            .p99LatencyMs(percentile(0.99))
+            .avgRps(avgRps)
+            .currentRps(avgRps)
+            .statusCodeDistribution(statusDist)
+            .errorTypeDistribution(errorDist)
+            .lastUpdated(Instant.now())
+            .build();
+    }
+
+    private double percentile(double quantile) {
+        if (totalReqs == 0) {
+            return 0.0;
+        }
+        // Interpolation inside a bucket may land just outside the observed range
+        return Math.max(minLatency, Math.min(maxLatency, histogram.percentile(quantile)));
+    }
+}
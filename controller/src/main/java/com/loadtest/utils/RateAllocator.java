@@ -0,0 +1,74 @@
+package com.loadtest.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Integer apportionment of an aggregate request rate across workers.
+ */
+public class RateAllocator {
+
+    /**
+     * Splits {@code total} in proportion to {@code weights} without giving any
+     * share more than its cap. Shares that would exceed their cap are pinned
+     * to it and the rest is redistributed; fractional parts are settled with
+     * the largest-remainder method. The result sums to {@code total} unless
+     * the caps add up to less, in which case every share is at its cap.
+     */
+    public static int[] allocate(int total, double[] weights, int[] caps) {
+        int n = weights.length;
+        int[] shares = new int[n];
+        boolean[] pinned = new boolean[n];
+        int remaining = Math.max(0, total);
+
+        while (remaining > 0) {
+            List<Integer> open = new ArrayList<>();
+            double weightSum = 0;
+            for (int i = 0; i < n; i++) {
+                if (!pinned[i]) {
+                    open.add(i);
+                    weightSum += Math.max(0, weights[i]);
+                }
+            }
+            if (open.isEmpty()) {
+                break;
+            }
+
+            double[] ideal = new double[n];
+            boolean pinnedAny = false;
+            for (int i : open) {
+                ideal[i] = weightSum > 0
+                    ? remaining * Math.max(0, weights[i]) / weightSum
+                    : remaining / (double) open.size();
+                if (ideal[i] >= caps[i]) {
+                    shares[i] = caps[i];
+                    pinned[i] = true;
+                    pinnedAny = true;
+                }
+            }
+            if (pinnedAny) {
+                // Pinning only lowers what is left for the others, so re-run on the rest
+                for (int i : open) {
+                    if (pinned[i]) remaining -= shares[i];
+                }
+                continue;
+            }
+
+            int assigned = 0;
+            for (int i : open) {
+                shares[i] = (int) Math.floor(ideal[i]);
+                assigned += shares[i];
+            }
+            final double[] fractions = ideal;
+            open.sort(Comparator.comparingDouble((Integer i) -> fractions[i] - Math.floor(fractions[i]))
+                .reversed()
+                .thenComparing(i -> i));
+            for (int k = 0; k < remaining - assigned; k++) {
+                shares[open.get(k % open.size())]++;
+            }
+            break;
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,158 @@
+package com.loadtest.utils;
+
+import com.loadtest.exception.InsufficientCapacityException;
+import com.loadtest.model.BurstConfig;
+import com.loadtest.model.LoadProfile;
+import com.loadtest.model.RateSegment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles a {@link LoadProfile} into per-worker piecewise-constant rate
+ * schedules whose shares add up to the profile's aggregate rate at every
+ * second of the run.
+ */
+public class RateScheduleCompiler {
+
+    /**
+     * Aggregate target RPS for each second of the run. Follows the same
+     * profile semantics the workers used to apply on their own.
+     */
+    public static int[] aggregateRates(LoadProfile profile, int durationSeconds, int fallbackRps) {
+        int[] rates = new int[Math.max(1, durationSeconds)];
+        for (int second = 0; second < rates.length; second++) {
+            rates[second] = profile == null ? fallbackRps : rateAt(profile, second, durationSeconds);
+        }
+        return rates;
+    }
+
+    private static int rateAt(LoadProfile profile, int second, int durationSeconds) {
+        int initial = profile.getInitialRps();
+        int target = profile.getTargetRps();
+        if (profile.getType() == null) {
+            return target > 0 ? target : initial;
+        }
+
+        switch (profile.getType()) {
+            case RAMP:
+                if (profile.getRampUpSeconds() <= 0 || second >= profile.getRampUpSeconds()) {
+                    return target;
+                }
+                return (int) (initial + (target - initial) * (second / (double) profile.getRampUpSeconds()));
+            case SPIKE:
+                int midpoint = durationSeconds / 2;
+                if (midpoint == 0) {
+                    return target;
+                }
+                if (second <= midpoint) {
+                    return (int) (initial + (target - initial) * (second / (double) midpoint));
+                }
+                return (int) (target - (target - initial)
+                    * ((second - midpoint) / (double) (durationSeconds - midpoint)));
+            case BURST:
+                if (profile.getBursts() != null) {
+                    for (BurstConfig burst : profile.getBursts()) {
+                        if (second >= burst.getStartSecond()
+                                && second < burst.getStartSecond() + burst.getDurationSeconds()) {
+                            return burst.getRps();
+                        }
+                    }
+                }
+                return initial;
+            case ADAPTIVE:
+                // Starting rate only; AdaptiveLoadService pushes the rest at run time
+                return initial;
+            default:
+                return target > 0 ? target : initial;
+        }
+    }
+
+    /**
+     * Splits every second's aggregate over the workers with
+     * {@link RateAllocator} and run-length encodes the result as it goes, so
+     * a worker only gets a new segment when its own rate changes and memory
+     * grows with the segments rather than with workers times seconds.
+     *
+     * @throws InsufficientCapacityException if any second asks for more than
+     *         the combined caps
+     */
+    public static List<List<RateSegment>> compile(int[] aggregate, double[] weights, int[] caps) {
+        long capacity = 0;
+        for (int cap : caps) {
+            capacity += cap;
+        }
+
+        int workers = weights.length;
+        List<List<RateSegment>> schedules = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            schedules.add(new ArrayList<>());
+        }
+        int[] shares = null;
+        for (int second = 0; second < aggregate.length; second++) {
+            if (aggregate[second] > capacity) {
+                throw new InsufficientCapacityException(peak(aggregate), (int) Math.min(Integer.MAX_VALUE, capacity));
+            }
+            // Same aggregate and weights always split the same way, so no worker's rate changes
+            if (shares != null && aggregate[second] == aggregate[second - 1]) {
+                continue;
+            }
+            shares = RateAllocator.allocate(aggregate[second], weights, caps);
+            for (int w = 0; w < workers; w++) {
+                List<RateSegment> schedule = schedules.get(w);
+                if (schedule.isEmpty() || schedule.get(schedule.size() - 1).getRps() != shares[w]) {
+                    schedule.add(new RateSegment(second, shares[w]));
+                }
+            }
+        }
+        return schedules;
+    }
+
+    /**
+     * Rate a schedule asks for at {@code second} after its start.
+     */
+    public static int rateAt(List<RateSegment> schedule, int second) {
+        int rps = 0;
+        for (RateSegment segment : schedule) {
+            if (segment.getOffsetSeconds() > second) {
+                break;
+            }
+            rps = segment.getRps();
+        }
+        return rps;
+    }
+
+    /**
+     * Per-second rates of {@code schedule} from {@code fromSecond} on, so the
+     * tail of a running schedule can be compiled again.
+     */
+    public static int[] expand(List<RateSegment> schedule, int fromSecond, int length) {
+        int[] rates = new int[Math.max(1, length)];
+        for (int second = 0; second < rates.length; second++) {
+            rates[second] = rateAt(schedule, fromSecond + second);
+        }
+        return rates;
+    }
+
+    public static List<RateSegment> compress(int[] rates) {
+        List<RateSegment> segments = new ArrayList<>();
+        for (int second = 0; second < rates.length; second++) {
+            if (second == 0 || rates[second] != rates[second - 1]) {
+                segments.add(new RateSegment(second, rates[second]));
+            }
+        }
+        return segments;
+    }
+
+    public static int peak(int[] rates) {
+        int peak = 0;
+        for (int rps : rates) {
+            peak = Math.max(peak, rps);
+        }
+        return peak;
+    }
+
+    public static int peak(List<RateSegment> segments) {
+        return segments.stream().mapToInt(RateSegment::getRps).max().orElse(0);
+    }
+}
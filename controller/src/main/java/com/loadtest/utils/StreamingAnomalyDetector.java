@@ -0,0 +1,139 @@
+package com.loadtest.utils;
+
+/**
+ * Upward shift detector for one per-second series, constant time and memory
+ * per update.
+ * <p>
+ * An EWMA of the mean and variance is the baseline. Each point is
+ * standardised against it and fed to a one-sided CUSUM, which accumulates
+ * deviations above {@code slack} standard deviations and signals once the
+ * sum passes {@code threshold}. The episode ends when the sum has drained
+ * back to zero. The baseline keeps learning during an episode, so a lasting
+ * level change ends up as the new normal instead of alerting forever;
+ * sustained levels are the SLA's job. Only rises are tracked, since lower
+ * latency or fewer errors are never a problem.
+ * <p>
+ * The last {@code windowSize} points are kept in a ring so the offending
+ * window can be attached to an alert. Not thread-safe.
+ */
+public class StreamingAnomalyDetector {
+
+    public enum Signal {
+        NONE,
+        STARTED, // CUSUM crossed the threshold
+        ENDED    // CUSUM drained back to zero
+    }
+
+    private final double alpha;
+    private final double slack;
+    private final double threshold;
+    private final int warmup;
+    private final double minDeviation;
+    private final double minRelativeDeviation;
+
+    private final long[] windowSeconds;
+    private final double[] windowValues;
+    private int windowNext;
+    private int windowCount;
+
+    private long count;
+    private double mean;
+    private double variance;
+    private double cusum;
+    private boolean anomalous;
+
+    /**
+     * @param alpha                EWMA weight of the newest point
+     * @param slack                standard deviations a point may sit above the baseline without counting
+     * @param threshold            CUSUM level that starts an episode
+     * @param warmup               points used only to learn the baseline
+     * @param windowSize           points kept for {@link #windowSeconds()} and {@link #windowValues()}
+     * @param minDeviation         floor of the standard deviation, in series units
+     * @param minRelativeDeviation floor of the standard deviation as a share of the baseline
+     */
+    public StreamingAnomalyDetector(double alpha, double slack, double threshold, int warmup, int windowSize,
+                                    double minDeviation, double minRelativeDeviation) {
+        this.alpha = alpha;
+        this.slack = slack;
+        this.threshold = threshold;
+        this.warmup = warmup;
+        this.minDeviation = minDeviation;
+        this.minRelativeDeviation = minRelativeDeviation;
+        this.windowSeconds = new long[windowSize];
+        this.windowValues = new double[windowSize];
+    }
+
+    public Signal update(long epochSecond, double value) {
+        windowSeconds[windowNext] = epochSecond;
+        windowValues[windowNext] = value;
+        windowNext = (windowNext + 1) % windowValues.length;
+        windowCount = Math.min(windowCount + 1, windowValues.length);
+
+        count++;
+        if (count <= warmup) {
+            learn(value, Math.max(alpha, 1.0 / count)); // Plain running mean until the EWMA has history
+            return Signal.NONE;
+        }
+
+        double z = (value - mean) / getDeviation();
+        cusum = Math.max(0, cusum + z - slack);
+        learn(value, alpha);
+
+        if (!anomalous && cusum > threshold) {
+            anomalous = true;
+            return Signal.STARTED;
+        }
+        if (anomalous && cusum == 0) {
+            anomalous = false;
+            return Signal.ENDED;
+        }
+        return Signal.NONE;
+    }
+
+    private void learn(double value, double weight) {
+        double diff = value - mean;
+        double increment = weight * diff;
+        mean += increment;
+        variance = (1 - weight) * (variance + diff * increment);
+    }
+
+    public boolean isAnomalous() {
+        return anomalous;
+    }
+
+    public double getBaseline() {
+        return mean;
+    }
+
+    public double getDeviation() {
+        return Math.max(Math.sqrt(variance), Math.max(minDeviation, minRelativeDeviation * Math.abs(mean)));
+    }
+
+    public double getScore() {
+        return cusum;
+    }
+
+    /**
+     * Seconds of the retained points, oldest first.
+     */
+    public long[] windowSeconds() {
+        long[] seconds = new long[windowCount];
+        int start = (windowNext - windowCount + windowValues.length) % windowValues.length;
+        for (int i = 0; i < windowCount; i++) {
+            seconds[i] = windowSeconds[(start + i) % windowValues.length];
+        }
+        return seconds;
+    }
+
+    /**
+     * Values of the retained points, oldest first.
+     */
+    public double[] windowValues() {
+        double[] values = new double[windowCount];
+        int start = (windowNext - windowCount + windowValues.length) % windowValues.length;
+        for (int i = 0; i < windowCount; i++) {
+            values[i] = windowValues[(start + i) % windowValues.length];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,98 @@
+package com.loadtest.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares queue throughput of the blocking template (one thread per
+ * in-flight command) against the reactive path (commands pipelined on the
+ * shared connection) at increasing concurrency.
+ * <p>
+ * Run with {@code --spring.profiles.active=redis-benchmark}; see
+ * {@code scripts/benchmark-redis.sh}. Each operation is an RPUSH + LPOP pair
+ * on a scratch key that is deleted afterwards.
+ */
+@Slf4j
+@Component
+@Profile("redis-benchmark")
+@RequiredArgsConstructor
+public class RedisQueueBenchmark implements CommandLineRunner {
+
+    private static final int[] CONCURRENCY = {1, 8, 32, 128, 512};
+    private static final Duration RUN_TIME = Duration.ofSeconds(10);
+    private static final String PAYLOAD = "{\"taskId\":\"benchmark\",\"rps\":100}";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(String... args) throws Exception {
+        String key = "loadtest:benchmark:" + UUID.randomUUID();
+
+        log.info("Redis queue benchmark ({}s per run, RPUSH+LPOP)", RUN_TIME.toSeconds());
+        log.info("concurrency | blocking ops/s | reactive ops/s | speedup");
+        try {
+            for (int concurrency : CONCURRENCY) {
+                double blocking = runBlocking(key, concurrency);
+                double reactive = runReactive(key, concurrency);
+                log.info(String.format("%11d | %14.0f | %14.0f | %6.1fx",
+                    concurrency, blocking, reactive, blocking > 0 ? reactive / blocking : 0));
+            }
+        } finally {
+            redisTemplate.delete(key);
+        }
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private double runBlocking(String key, int concurrency) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        AtomicLong ops = new AtomicLong();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            pool.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    redisTemplate.opsForList().rightPush(key, PAYLOAD);
+                    redisTemplate.opsForList().leftPop(key);
+                    ops.addAndGet(2);
+                }
+            });
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(RUN_TIME.toSeconds() + 30, TimeUnit.SECONDS);
+        return ops.get() / (double) RUN_TIME.toSeconds();
+    }
+
+    private double runReactive(String key, int concurrency) {
+        AtomicLong ops = new AtomicLong();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        Flux.range(0, concurrency)
+            .flatMap(i -> Mono.defer(() -> reactiveRedisTemplate.opsForList().rightPush(key, PAYLOAD)
+                    .then(reactiveRedisTemplate.opsForList().leftPop(key))
+                    .doOnSuccess(ignored -> ops.addAndGet(2)))
+                .repeat(() -> System.nanoTime() < deadline), concurrency)
+            .blockLast();
+
+        return ops.get() / (double) RUN_TIME.toSeconds();
+    }
+}
@@ -0,0 +1,136 @@
+package com.loadtest.benchmark;
+
+import com.loadtest.model.WorkerResult;
+import com.loadtest.repository.MetricRepository;
+import com.loadtest.service.MetricsAggregationService;
+import com.loadtest.service.RedisQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform threads (a pool the size of Tomcat's default, 200)
+ * against one virtual thread per in-flight call on the two blocking paths
+ * that see the most traffic:
+ * <ul>
+ *   <li>dashboard: worker count from Redis plus realtime and aggregate
+ *       stats from Mongo, as the summary endpoint does per scenario</li>
+ *   <li>ingest: storing one worker result, as the result processor does</li>
+ * </ul>
+ * Run with {@code --spring.profiles.active=thread-benchmark}; see
+ * {@code scripts/benchmark-threads.sh}, which also traces pinned virtual
+ * threads. Ingest writes go to a scratch scenario id that is deleted
+ * afterwards.
+ */
+@Slf4j
+@Component
+@Profile("thread-benchmark")
+@RequiredArgsConstructor
+public class ThreadModelBenchmark implements CommandLineRunner {
+
+    private static final int[] CONCURRENCY = {50, 200, 1000, 2000};
+    private static final int PLATFORM_THREADS = 200;
+    private static final Duration RUN_TIME = Duration.ofSeconds(10);
+
+    private final MetricsAggregationService metricsService;
+    private final MetricRepository metricRepository;
+    private final RedisQueueService queueService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(String... args) throws Exception {
+        String scenarioId = "benchmark-" + UUID.randomUUID();
+
+        log.info("Thread model benchmark ({}s per run, {} platform threads)", RUN_TIME.toSeconds(), PLATFORM_THREADS);
+        log.info("path      | concurrency | platform ops/s | p99 ms | virtual ops/s | p99 ms");
+        try {
+            for (int concurrency : CONCURRENCY) {
+                report("dashboard", concurrency, () -> {
+                    queueService.getActiveWorkerCount();
+                    metricsService.getRealTimeStats(scenarioId, 10);
+                    metricsService.getAggregatedStats(scenarioId);
+                });
+                report("ingest", concurrency, () -> metricsService.saveWorkerResult(WorkerResult.builder()
+                    .scenarioId(scenarioId)
+                    .taskId("benchmark")
+                    .workerId("benchmark")
+                    .timestamp(Instant.now())
+                    .success(true)
+                    .totalRequests(100)
+                    .successCount(100)
+                    .avgLatencyMs(12)
+                    .build()));
+            }
+        } finally {
+            metricRepository.deleteByScenarioId(scenarioId);
+        }
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void report(String path, int concurrency, Runnable call) throws InterruptedException {
+        Result platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), concurrency, call);
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(), concurrency, call);
+        log.info(String.format("%-9s | %11d | %14.0f | %6.1f | %13.0f | %6.1f",
+            path, concurrency, platform.getOpsPerSecond(), platform.getP99Ms(), virtual.getOpsPerSecond(), virtual.getP99Ms()));
+    }
+
+    /**
+     * Keeps {@code concurrency} callers busy for the run time. With the
+     * platform pool, callers beyond its size wait in its queue, the same way
+     * requests wait for a Tomcat worker; that wait counts towards latency.
+     */
+    private Result run(ExecutorService executor, int concurrency, Runnable call) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            submit(executor, call, latencies, deadline);
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        executor.shutdown();
+        executor.awaitTermination(RUN_TIME.toSeconds() + 60, TimeUnit.SECONDS);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double p99 = sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)] / 1_000_000.0;
+        return new Result(sorted.length / (double) RUN_TIME.toSeconds(), p99);
+    }
+
+    // Each call re-submits the next, so waiting callers compete for threads like requests do
+    private void submit(ExecutorService executor, Runnable call, ConcurrentLinkedQueue<Long> latencies, long deadline) {
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                call.run();
+                long now = System.nanoTime();
+                latencies.add(now - submitted);
+                if (now < deadline) {
+                    submit(executor, call, latencies, deadline);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Run is over, the executor is shutting down
+        }
+    }
+
+    @lombok.Value
+    private static class Result {
+        double opsPerSecond;
+        double p99Ms;
+    }
+}
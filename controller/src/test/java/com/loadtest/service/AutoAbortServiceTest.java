@@ -0,0 +1,151 @@
+package com.loadtest.service;
+
+import com.loadtest.model.AbortMetric;
+import com.loadtest.model.AbortPolicy;
+import com.loadtest.model.ExecutionAbort;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.repository.ExecutionAbortRepository;
+import com.loadtest.utils.LiveWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AutoAbortServiceTest {
+
+    private final ExecutionAbortRepository repository = mock(ExecutionAbortRepository.class);
+    private final LoadTestOrchestrationService orchestrationService = mock(LoadTestOrchestrationService.class);
+    private AutoAbortService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AutoAbortService(repository, orchestrationService, Runnable::run);
+        ReflectionTestUtils.setField(service, "windowSeconds", 1);
+    }
+
+    @Test
+    void abortsOnceBreachedForTheFullDuration() {
+        long base = 1_000_000;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.ERROR_RATE, 5, 3));
+
+        batch(execution, base, 100, 0);
+        batch(execution, base + 1, 100, 50);
+        batch(execution, base + 2, 100, 50);
+        batch(execution, base + 3, 100, 50);
+        verify(orchestrationService, never()).stopScenario(anyString(), anyString());
+
+        batch(execution, base + 4, 100, 0); // Closes base + 3, the third breached second
+
+        verify(orchestrationService).stopScenario("exec-1", "Error rate above 5.00% for 3s (50.00% at abort)");
+        ExecutionAbort abort = savedAbort();
+        assertEquals(Instant.ofEpochSecond(base + 1), abort.getBreachStartedAt());
+        assertEquals(List.of(false, true, true, true),
+            abort.getTimeline().stream().map(ExecutionAbort.Point::isBreached).toList());
+        assertEquals(List.of(0.0, 50.0, 50.0, 50.0),
+            abort.getTimeline().stream().map(ExecutionAbort.Point::getValue).toList());
+    }
+
+    @Test
+    void recoveryResetsTheBreach() {
+        long base = 1_000_000;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.ERROR_RATE, 5, 3));
+
+        batch(execution, base, 100, 50);
+        batch(execution, base + 1, 100, 50);
+        batch(execution, base + 2, 100, 0);
+        batch(execution, base + 3, 100, 50);
+        batch(execution, base + 4, 100, 50);
+        batch(execution, base + 5, 100, 0);
+
+        verify(orchestrationService, never()).stopScenario(anyString(), anyString());
+    }
+
+    @Test
+    void silentTargetCountsAsAllErrors() {
+        long base = Instant.now().getEpochSecond() - 20;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.ERROR_RATE, 5, 3));
+        batch(execution, base, 100, 0);
+
+        service.evaluateSilentSeconds();
+
+        verify(orchestrationService).stopScenario("exec-1", "Error rate above 5.00% for 3s (100.00% at abort)");
+        ExecutionAbort abort = savedAbort();
+        assertEquals(Instant.ofEpochSecond(base + 1), abort.getBreachStartedAt());
+        assertEquals(List.of(0.0, 100.0, 100.0, 100.0),
+            abort.getTimeline().stream().map(ExecutionAbort.Point::getValue).toList());
+    }
+
+    @Test
+    void silenceDoesNotTripLatencyConditions() {
+        long base = Instant.now().getEpochSecond() - 20;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.AVG_LATENCY, 500, 3));
+        batch(execution, base, 100, 0);
+
+        service.evaluateSilentSeconds();
+
+        verify(orchestrationService, never()).stopScenario(anyString(), anyString());
+    }
+
+    @Test
+    void secondsBeforeTheFirstResultAreNotAnOutage() {
+        long base = Instant.now().getEpochSecond() - 20;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.ERROR_RATE, 5, 3));
+
+        service.evaluateSilentSeconds();
+        batch(execution, base + 15, 100, 0);
+
+        verify(orchestrationService, never()).stopScenario(anyString(), anyString());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void unregisteredExecutionIsNotAborted() {
+        long base = Instant.now().getEpochSecond() - 20;
+        LiveMetricsService.LiveExecution execution = register(base, condition(AbortMetric.ERROR_RATE, 5, 3));
+        batch(execution, base, 100, 0);
+
+        service.onUnregister(execution);
+        service.evaluateSilentSeconds();
+
+        verify(orchestrationService, never()).stopScenario(anyString(), anyString());
+    }
+
+    private LiveMetricsService.LiveExecution register(long base, AbortPolicy.Condition condition) {
+        LiveMetricsService.LiveExecution execution = new LiveMetricsService.LiveExecution(
+            "exec-1", "scenario-1", "user-1", "Checkout", new LiveWindow(300), base - 1);
+        service.onRegister(execution, LoadTestScenario.builder()
+            .id("scenario-1")
+            .abortPolicy(AbortPolicy.builder().conditions(List.of(condition)).build())
+            .build());
+        return execution;
+    }
+
+    private void batch(LiveMetricsService.LiveExecution execution, long second, long requests, long errors) {
+        execution.getWindow().record(second, requests, errors, 20, 40, 60);
+        service.onBatch(execution, second);
+    }
+
+    private ExecutionAbort savedAbort() {
+        ArgumentCaptor<ExecutionAbort> captor = ArgumentCaptor.forClass(ExecutionAbort.class);
+        verify(repository).save(captor.capture());
+        assertFalse(captor.getValue().getTimeline().isEmpty());
+        assertTrue(captor.getValue().getReason().startsWith("Error rate"));
+        return captor.getValue();
+    }
+
+    private static AbortPolicy.Condition condition(AbortMetric metric, double threshold, int forSeconds) {
+        return AbortPolicy.Condition.builder().metric(metric).threshold(threshold).forSeconds(forSeconds).build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.loadtest.service;
+
+import com.loadtest.model.ConvergencePolicy;
+import com.loadtest.model.ExecutionConvergence;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.repository.ExecutionConvergenceRepository;
+import com.loadtest.utils.LiveWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ConvergenceServiceTest {
+
+    private final ExecutionConvergenceRepository repository = mock(ExecutionConvergenceRepository.class);
+    private final LoadTestOrchestrationService orchestrationService = mock(LoadTestOrchestrationService.class);
+    private ConvergenceService service;
+    private LiveMetricsService.LiveExecution execution;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        service = new ConvergenceService(repository, orchestrationService);
+        ReflectionTestUtils.setField(service, "traceIntervalSeconds", 5);
+        ReflectionTestUtils.setField(service, "maxTracePoints", 720);
+
+        execution = new LiveMetricsService.LiveExecution(
+            "exec-1", "scenario-1", "user-1", "Checkout", new LiveWindow(300), 0);
+        LoadTestScenario scenario = LoadTestScenario.builder()
+            .id("scenario-1")
+            .durationSeconds(120)
+            .convergencePolicy(ConvergencePolicy.builder()
+                .percentiles(List.of(50.0))
+                .tolerancePercent(5)
+                .minDurationSeconds(30)
+                .stableSeconds(10)
+                .build())
+            .build();
+        do { // The service takes its start second from the clock; retry if it ticked over meanwhile
+            start = Instant.now().getEpochSecond();
+            service.onRegister(execution, scenario);
+        } while (Instant.now().getEpochSecond() != start);
+    }
+
+    @Test
+    void steadyLatencyCompletesOnceTheMinimumDurationHasPassed() {
+        // Within tolerance from the tenth second, when there are enough batches; held back until 30s
+        for (long second = start; second < start + 29; second++) {
+            second(second, 20);
+        }
+        verify(orchestrationService, never()).completeScenario(anyString(), anyString());
+
+        second(start + 29, 20);
+
+        verify(orchestrationService).completeScenario("exec-1", "Percentiles p50 converged within ±5.0% after 30s");
+        ExecutionConvergence saved = saved();
+        assertTrue(saved.isConverged());
+        assertEquals(30, saved.getElapsedSeconds());
+        assertEquals(90, saved.getSavedSeconds());
+        assertTrue(saved.getTrace().get(saved.getTrace().size() - 1).isWithinTolerance());
+    }
+
+    @Test
+    void trendingLatencyNeverConverges() {
+        for (int i = 0; i < 120; i++) {
+            second(start + i, 100 + 10 * i);
+        }
+
+        verify(orchestrationService, never()).completeScenario(anyString(), anyString());
+    }
+
+    @Test
+    void latencyShiftRestartsTheStableStreak() {
+        for (long second = start; second < start + 25; second++) {
+            second(second, 20);
+        }
+        second(start + 25, 2000); // Moves the running mean far past the tolerance
+        for (long second = start + 26; second < start + 34; second++) {
+            second(second, 20);
+        }
+
+        verify(orchestrationService, never()).completeScenario(anyString(), anyString());
+    }
+
+    @Test
+    void unconvergedRunKeepsItsTraceForTheReport() {
+        for (long second = start; second < start + 5; second++) {
+            second(second, 20);
+        }
+
+        service.onUnregister(execution);
+
+        verify(orchestrationService, never()).completeScenario(anyString(), anyString());
+        ExecutionConvergence saved = saved();
+        assertFalse(saved.isConverged());
+        assertEquals(0, saved.getSavedSeconds());
+        assertFalse(saved.getTrace().isEmpty());
+    }
+
+    private void second(long epochSecond, double latencyMs) {
+        execution.getWindow().record(epochSecond, 100, 0, latencyMs, latencyMs * 2, latencyMs * 3);
+        service.onSecond(execution, epochSecond, execution.getWindow().at(epochSecond));
+    }
+
+    private ExecutionConvergence saved() {
+        ArgumentCaptor<ExecutionConvergence> captor = ArgumentCaptor.forClass(ExecutionConvergence.class);
+        verify(repository).save(captor.capture());
+        return captor.getValue();
+    }
+}
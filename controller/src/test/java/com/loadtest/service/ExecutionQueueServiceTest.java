@@ -0,0 +1,157 @@
+package com.loadtest.service;
+
+import com.loadtest.dto.QueueStatus;
+import com.loadtest.model.ExecutionPriority;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.PendingExecution;
+import com.loadtest.model.PendingExecutionStatus;
+import com.loadtest.model.ScenarioStatus;
+import com.loadtest.repository.PendingExecutionRepository;
+import com.loadtest.repository.ScenarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExecutionQueueServiceTest {
+
+    private static final Instant T0 = Instant.now().minusSeconds(600);
+
+    private final PendingExecutionRepository pendingExecutionRepository = mock(PendingExecutionRepository.class);
+    private final ExecutionService executionService = mock(ExecutionService.class);
+    private final ScenarioRepository scenarioRepository = mock(ScenarioRepository.class);
+    private final TaskPlannerService taskPlannerService = mock(TaskPlannerService.class);
+    private final LeaderElectionService leaderElectionService = mock(LeaderElectionService.class);
+    private final LoadTestOrchestrationService orchestrationService = mock(LoadTestOrchestrationService.class);
+    private final List<PendingExecution> pending = new ArrayList<>();
+    private ExecutionQueueService queue;
+
+    @BeforeEach
+    void setUp() {
+        when(pendingExecutionRepository.findByStatus(PendingExecutionStatus.QUEUED)).thenAnswer(invocation ->
+            pending.stream().filter(p -> p.getStatus() == PendingExecutionStatus.QUEUED).toList());
+        when(leaderElectionService.isLeader()).thenReturn(true);
+
+        queue = new ExecutionQueueService(pendingExecutionRepository, executionService, scenarioRepository,
+            taskPlannerService, leaderElectionService, mock(SimpMessagingTemplate.class), orchestrationService);
+        ReflectionTestUtils.setField(queue, "reservationMs", 10_000L);
+        ReflectionTestUtils.setField(queue, "maxWaitSeconds", 1800L);
+    }
+
+    @Test
+    void ordersByPriorityThenLeastRecentlyServedTenant() {
+        queued("a1", "A", ExecutionPriority.NORMAL, 0, true);
+        queued("a2", "A", ExecutionPriority.NORMAL, 1, true);
+        queued("a3", "A", ExecutionPriority.NORMAL, 2, true);
+        queued("b1", "B", ExecutionPriority.NORMAL, 3, true);
+        queued("h1", "C", ExecutionPriority.HIGH, 4, true);
+        queued("l1", "B", ExecutionPriority.LOW, -1, true);
+
+        List<QueueStatus> order = queue.getQueue();
+
+        // Tenant B's older LOW entry stays behind its NORMAL one; A and B alternate at NORMAL
+        assertEquals(List.of("h1", "a1", "b1", "a2", "a3", "l1"),
+            order.stream().map(QueueStatus::getExecutionId).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), order.stream().map(QueueStatus::getPosition).toList());
+    }
+
+    @Test
+    void headOfLineBlocksSmallerEntriesBehindIt() {
+        queued("big", "A", ExecutionPriority.NORMAL, 0, false);
+        queued("small", "B", ExecutionPriority.NORMAL, 1, true);
+
+        queue.dispatch();
+
+        verify(orchestrationService, never()).launch(anyString(), any());
+    }
+
+    @Test
+    void infeasibleHeadIsPassedOverWithoutLosingItsPlace() {
+        LoadTestScenario stranded = queued("stranded", "A", ExecutionPriority.NORMAL, 0, true);
+        LoadTestScenario next = queued("next", "B", ExecutionPriority.NORMAL, 1, true);
+        doThrow(new IllegalStateException("needs 5 workers, 2 registered"))
+            .when(taskPlannerService).checkFeasible(stranded);
+
+        queue.dispatch();
+
+        verify(orchestrationService).launch("next", next);
+        verify(orchestrationService, never()).launch(eq("stranded"), any());
+        verify(executionService, never()).end(eq("stranded"), any(), any(), anyBoolean());
+        assertEquals(List.of("stranded"), queue.getQueue().stream().map(QueueStatus::getExecutionId).toList());
+    }
+
+    @Test
+    void entryWaitingPastMaxWaitIsFailed() {
+        ReflectionTestUtils.setField(queue, "maxWaitSeconds", 60L);
+        queued("stale", "A", ExecutionPriority.NORMAL, 0, false);
+        LoadTestScenario fresh = queued("fresh", "B", ExecutionPriority.NORMAL, 590, true);
+
+        queue.dispatch();
+
+        verify(executionService).end(eq("stale"), eq(ScenarioStatus.FAILED), startsWith("Waited longer than 60s"), eq(false));
+        verify(orchestrationService).launch("fresh", fresh);
+        assertEquals(PendingExecutionStatus.FAILED, find("stale").getStatus());
+        assertEquals(PendingExecutionStatus.DISPATCHED, find("fresh").getStatus());
+    }
+
+    @Test
+    void servedTenantQueuesBehindOthers() {
+        LoadTestScenario first = queued("a1", "A", ExecutionPriority.NORMAL, 0, true);
+        queued("a2", "A", ExecutionPriority.NORMAL, 1, true);
+        queued("b1", "B", ExecutionPriority.NORMAL, 2, false);
+
+        queue.dispatch();
+
+        verify(orchestrationService).launch("a1", first);
+        verify(orchestrationService, never()).launch(eq("a2"), any());
+        assertEquals(List.of("b1", "a2"), queue.getQueue().stream().map(QueueStatus::getExecutionId).toList());
+    }
+
+    /**
+     * Queues an execution enqueued {@code offsetSeconds} after the first,
+     * backed by its own scenario that does or does not fit idle capacity.
+     */
+    private LoadTestScenario queued(String executionId, String tenantId, ExecutionPriority priority,
+                                    int offsetSeconds, boolean fits) {
+        LoadTestScenario scenario = LoadTestScenario.builder()
+            .id("scenario-" + executionId)
+            .userId("user-" + tenantId)
+            .numWorkers(1)
+            .durationSeconds(60)
+            .build();
+        when(scenarioRepository.findById(scenario.getId())).thenReturn(Optional.of(scenario));
+        when(taskPlannerService.fitsIdleCapacity(eq(scenario), any())).thenReturn(fits);
+        pending.add(PendingExecution.builder()
+            .executionId(executionId)
+            .scenarioId(scenario.getId())
+            .userId(scenario.getUserId())
+            .tenantId(tenantId)
+            .priority(priority)
+            .status(PendingExecutionStatus.QUEUED)
+            .durationSeconds(60)
+            .enqueuedAt(T0.plusSeconds(offsetSeconds))
+            .build());
+        return scenario;
+    }
+
+    private PendingExecution find(String executionId) {
+        return pending.stream().filter(p -> p.getExecutionId().equals(executionId)).findFirst().orElseThrow();
+    }
+}
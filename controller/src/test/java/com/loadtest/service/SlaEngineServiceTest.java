@@ -0,0 +1,132 @@
+package com.loadtest.service;
+
+import com.loadtest.model.Alert;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.SlaConfig;
+import com.loadtest.utils.LiveWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlaEngineServiceTest {
+
+    private static final long BASE = 1_000_000;
+
+    private final AlertService alertService = mock(AlertService.class);
+    private final LeaderElectionService leaderElectionService = mock(LeaderElectionService.class);
+    private SlaEngineService service;
+    private LiveMetricsService.LiveExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        when(alertService.raise(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(leaderElectionService.isLeader()).thenReturn(true);
+
+        service = new SlaEngineService(alertService, leaderElectionService);
+        ReflectionTestUtils.setField(service, "minRequests", 1L);
+        ReflectionTestUtils.setField(service, "fastShortSeconds", 10);
+        ReflectionTestUtils.setField(service, "fastLongSeconds", 60);
+        ReflectionTestUtils.setField(service, "fastRate", 6.0);
+        ReflectionTestUtils.setField(service, "slowShortSeconds", 60);
+        ReflectionTestUtils.setField(service, "slowLongSeconds", 300);
+        ReflectionTestUtils.setField(service, "slowRate", 1.0);
+        service.init();
+
+        execution = new LiveMetricsService.LiveExecution(
+            "exec-1", "scenario-1", "user-1", "Checkout", new LiveWindow(300), BASE - 1);
+        service.onRegister(execution, LoadTestScenario.builder()
+            .id("scenario-1")
+            .slaConfig(SlaConfig.builder().maxErrorRate(1).build())
+            .build());
+    }
+
+    @Test
+    void shortSpikeAloneDoesNotFireTheFastPolicy() {
+        for (long second = BASE; second < BASE + 60; second++) {
+            record(second, 100, 0);
+        }
+        record(BASE + 60, 100, 100);
+
+        service.onBatch(execution, BASE + 60);
+
+        // 10% over 10s is a 10x burn, but 1.7% over the minute is below 6x; the slow policy sees 1.7x over both
+        List<Alert> raised = raised(1);
+        assertEquals("error-rate:slow", raised.get(0).getRule());
+        assertEquals("WARNING", raised.get(0).getSeverity());
+    }
+
+    @Test
+    void sustainedBurnRaisesEachPolicyOnce() {
+        for (long second = BASE; second < BASE + 10; second++) {
+            batch(second, 100, 10);
+        }
+
+        List<Alert> raised = raised(2);
+        assertEquals(List.of("error-rate:fast", "error-rate:slow"), raised.stream().map(Alert::getRule).toList());
+        assertEquals("CRITICAL", raised.get(0).getSeverity());
+    }
+
+    @Test
+    void fastPolicyClearsOnceItsShortWindowRecovers() {
+        for (long second = BASE; second < BASE + 10; second++) {
+            batch(second, 100, 10);
+        }
+        for (long second = BASE + 10; second < BASE + 20; second++) {
+            batch(second, 100, 0);
+        }
+
+        // The slow policy's minute still holds 5% errors
+        verify(alertService).resolve(argThat(alert -> "error-rate:fast".equals(alert.getRule())));
+        verify(alertService, never()).resolve(argThat(alert -> "error-rate:slow".equals(alert.getRule())));
+    }
+
+    @Test
+    void onlyTheLeaderRaises() {
+        when(leaderElectionService.isLeader()).thenReturn(false);
+
+        for (long second = BASE; second < BASE + 10; second++) {
+            batch(second, 100, 10);
+        }
+
+        verify(alertService, never()).raise(any());
+    }
+
+    @Test
+    void endingTheExecutionResolvesOpenBreaches() {
+        batch(BASE, 100, 10);
+
+        service.onUnregister(execution);
+        batch(BASE + 1, 100, 10);
+
+        verify(alertService, times(2)).raise(any());
+        verify(alertService).resolve(argThat(alert -> "error-rate:fast".equals(alert.getRule())));
+        verify(alertService).resolve(argThat(alert -> "error-rate:slow".equals(alert.getRule())));
+    }
+
+    private void record(long second, long requests, long errors) {
+        execution.getWindow().record(second, requests, errors, 20, 40, 60);
+    }
+
+    private void batch(long second, long requests, long errors) {
+        record(second, requests, errors);
+        service.onBatch(execution, second);
+    }
+
+    private List<Alert> raised(int count) {
+        ArgumentCaptor<Alert> captor = ArgumentCaptor.forClass(Alert.class);
+        verify(alertService, times(count)).raise(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,131 @@
+package com.loadtest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StopTimerServiceTest {
+
+    private static final String STOPS_KEY = "loadtest:stops";
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+    private final LeaderElectionService leaderElectionService = mock(LeaderElectionService.class);
+    private final LoadTestOrchestrationService orchestrationService = mock(LoadTestOrchestrationService.class);
+    private StopTimerService timers;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+
+        timers = new StopTimerService(redisTemplate, leaderElectionService, orchestrationService);
+        ReflectionTestUtils.setField(timers, "stopsKey", STOPS_KEY);
+        ReflectionTestUtils.setField(timers, "retryMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((ExecutorService) ReflectionTestUtils.getField(timers, "stopExecutor")).shutdownNow();
+    }
+
+    @Test
+    void onlyTheLeaderClaims() {
+        when(leaderElectionService.isLeader()).thenReturn(false);
+
+        timers.fireDueStops();
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+
+    @Test
+    void claimPushesDueEntriesOutByTheRetryInterval() {
+        due();
+        long before = System.currentTimeMillis();
+
+        timers.fireDueStops();
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(STOPS_KEY)),
+            args.capture(), args.capture(), args.capture());
+        long now = Long.parseLong(args.getAllValues().get(0).toString());
+        long claimedUntil = Long.parseLong(args.getAllValues().get(1).toString());
+        assertTrue(now >= before);
+        assertEquals(60_000L, claimedUntil - now);
+        assertEquals("100", args.getAllValues().get(2));
+    }
+
+    @Test
+    void entryIsRemovedOnlyOnceTheStopWentThrough() {
+        due("exec-1");
+
+        timers.fireDueStops();
+
+        verify(orchestrationService, timeout(1000)).stopScenario("exec-1");
+        verify(zSet, timeout(1000)).remove(STOPS_KEY, "exec-1");
+    }
+
+    @Test
+    void failedStopStaysClaimedForRetry() {
+        due("exec-1");
+        doThrow(new IllegalStateException("Mongo unavailable")).when(orchestrationService).stopScenario("exec-1");
+
+        timers.fireDueStops();
+
+        verify(orchestrationService, timeout(1000)).stopScenario("exec-1");
+        verify(zSet, after(200).never()).remove(anyString(), any());
+    }
+
+    @Test
+    void stopInFlightIsNotFiredTwice() throws InterruptedException {
+        due("exec-1");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(orchestrationService).stopScenario("exec-1");
+
+        timers.fireDueStops();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        timers.fireDueStops(); // Claimed again, e.g. after retry-ms, while the first stop still runs
+        release.countDown();
+
+        verify(zSet, timeout(1000)).remove(STOPS_KEY, "exec-1");
+        verify(orchestrationService, after(200)).stopScenario("exec-1");
+    }
+
+    private void due(String... executionIds) {
+        doReturn(List.of((Object[]) executionIds)).when(redisTemplate)
+            .execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+}
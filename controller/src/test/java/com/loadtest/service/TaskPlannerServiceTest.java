@@ -0,0 +1,143 @@
+package com.loadtest.service;
+
+import com.loadtest.model.LoadProfile;
+import com.loadtest.model.LoadTestScenario;
+import com.loadtest.model.RateSegment;
+import com.loadtest.model.WorkerHeartbeat;
+import com.loadtest.model.WorkerStatus;
+import com.loadtest.model.WorkerTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskPlannerServiceTest {
+
+    private final RedisQueueService redisQueueService = mock(RedisQueueService.class);
+    private final Map<String, WorkerHeartbeat> heartbeats = new LinkedHashMap<>();
+    private TaskPlannerService planner;
+
+    @BeforeEach
+    void setUp() {
+        when(redisQueueService.getWorkerHeartbeats()).thenReturn(heartbeats);
+        planner = new TaskPlannerService(redisQueueService);
+        ReflectionTestUtils.setField(planner, "maxRpsPerWorker", 100);
+    }
+
+    @Test
+    void unsaturatedWorkersSplitEvenly() {
+        idle("w1", 0);
+        idle("w2", 0);
+        idle("w3", 0);
+
+        List<WorkerTask> tasks = planner.planTasks(scenario(3, 90), "exec-1", Set.of());
+
+        assertEquals(List.of(30, 30, 30), tasks.stream().map(WorkerTask::getRps).toList());
+        assertEquals(List.of("w1", "w2", "w3"), tasks.stream().map(WorkerTask::getAssignedWorkerId).toList());
+    }
+
+    @Test
+    void saturatedWorkerIsCappedAtItsMeasuredRate() {
+        idle("slow", 20);
+        idle("w1", 0);
+        idle("w2", 0);
+
+        List<WorkerTask> tasks = planner.planTasks(scenario(3, 220), "exec-1", Set.of());
+
+        // Workers that never fell behind are tried first and take the excess
+        assertEquals(List.of("w1", "w2", "slow"), tasks.stream().map(WorkerTask::getAssignedWorkerId).toList());
+        assertEquals(List.of(100, 100, 20), tasks.stream().map(WorkerTask::getRps).toList());
+    }
+
+    @Test
+    void sharesFollowTheMeasuredRates() {
+        idle("a", 60);
+        idle("b", 30);
+
+        List<WorkerTask> tasks = planner.planTasks(scenario(2, 60), "exec-1", Set.of());
+
+        assertEquals(List.of("a", "b"), tasks.stream().map(WorkerTask::getAssignedWorkerId).toList());
+        assertEquals(List.of(40, 20), tasks.stream().map(WorkerTask::getRps).toList());
+    }
+
+    @Test
+    void slotsWithoutAnIdleWorkerAreLeftUnpinned() {
+        idle("w1", 0);
+        heartbeats.put("busy", WorkerHeartbeat.builder().workerId("busy").status(WorkerStatus.BUSY).build());
+
+        List<WorkerTask> tasks = planner.planTasks(scenario(2, 50), "exec-1", Set.of());
+
+        assertEquals(2, tasks.size());
+        assertEquals("w1", tasks.get(0).getAssignedWorkerId());
+        assertNull(tasks.get(1).getAssignedWorkerId());
+    }
+
+    @Test
+    void excludedWorkersAreNotPinned() {
+        idle("w1", 0);
+        idle("w2", 0);
+
+        List<WorkerTask> tasks = planner.planTasks(scenario(1, 50), "exec-1", Set.of("w1"));
+
+        assertEquals("w2", tasks.get(0).getAssignedWorkerId());
+    }
+
+    @Test
+    void idleCapacityCountsMeasuredCeilings() {
+        idle("w1", 30);
+        idle("w2", 30);
+
+        assertFalse(planner.fitsIdleCapacity(scenario(2, 100), Set.of()));
+        assertTrue(planner.fitsIdleCapacity(scenario(2, 60), Set.of()));
+        assertFalse(planner.fitsIdleCapacity(scenario(3, 60), Set.of()));
+    }
+
+    @Test
+    void reissueAddsSlotsUntilTheCapsHoldThePeak() {
+        idle("w1", 50);
+        idle("w2", 50);
+        WorkerTask lost = WorkerTask.builder()
+            .taskId("exec-1-w0")
+            .rps(150)
+            .durationSeconds(10)
+            .schedule(List.of(new RateSegment(0, 150)))
+            .build();
+
+        List<WorkerTask> tasks = planner.planReissue(lost, 4, 1, Set.of());
+
+        assertEquals(3, tasks.size());
+        assertEquals(150, tasks.stream().mapToInt(WorkerTask::getRps).sum());
+        assertTrue(tasks.get(0).getRps() <= 50 && tasks.get(1).getRps() <= 50);
+        assertNull(tasks.get(2).getAssignedWorkerId());
+        assertEquals(6, tasks.get(0).getDurationSeconds());
+        assertEquals("exec-1-w0-r1.0", tasks.get(0).getTaskId());
+    }
+
+    private void idle(String workerId, double saturatedRps) {
+        heartbeats.put(workerId, WorkerHeartbeat.builder()
+            .workerId(workerId)
+            .status(WorkerStatus.IDLE)
+            .saturatedRps(saturatedRps)
+            .build());
+    }
+
+    private static LoadTestScenario scenario(int workers, int rps) {
+        return LoadTestScenario.builder()
+            .id("scenario-1")
+            .numWorkers(workers)
+            .durationSeconds(10)
+            .loadProfile(LoadProfile.builder().targetRps(rps).build())
+            .build();
+    }
+}
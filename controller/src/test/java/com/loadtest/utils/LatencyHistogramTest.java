@@ -0,0 +1,54 @@
+package com.loadtest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesOfAUniformSpreadAreWithinTheResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int latency = 1; latency <= 10_000; latency++) {
+            histogram.record(latency, 1);
+        }
+
+        assertEquals(10_000, histogram.getTotal());
+        assertWithin(5_000, histogram.percentile(0.50), LatencyHistogram.BUCKET_RATIO);
+        assertWithin(9_500, histogram.percentile(0.95), LatencyHistogram.BUCKET_RATIO);
+        assertWithin(9_900, histogram.percentile(0.99), LatencyHistogram.BUCKET_RATIO);
+    }
+
+    @Test
+    void batchPercentilesLandOnTheReportedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordBatch(1000, 50, 120, 300);
+
+        assertEquals(1000, histogram.getTotal());
+        assertWithin(50, histogram.percentile(0.50), LatencyHistogram.BUCKET_RATIO);
+        assertWithin(120, histogram.percentile(0.95), LatencyHistogram.BUCKET_RATIO);
+        assertWithin(300, histogram.percentile(0.99), LatencyHistogram.BUCKET_RATIO);
+    }
+
+    @Test
+    void emptyHistogramReadsZero() {
+        assertEquals(0.0, new LatencyHistogram().percentile(0.99));
+    }
+
+    @Test
+    void sameLatencyFromManyBatchesKeepsItsPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(42, 10);
+        }
+
+        assertWithin(42, histogram.percentile(0.10), LatencyHistogram.BUCKET_RATIO);
+        assertWithin(42, histogram.percentile(0.90), LatencyHistogram.BUCKET_RATIO);
+    }
+
+    private static void assertWithin(double expected, double actual, double ratio) {
+        if (actual < expected / ratio || actual > expected * ratio) {
+            throw new AssertionError(String.format("expected %.2f within a factor %.2f, was %.2f", expected, ratio, actual));
+        }
+    }
+}
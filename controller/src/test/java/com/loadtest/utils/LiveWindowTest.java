@@ -0,0 +1,85 @@
+package com.loadtest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LiveWindowTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void batchPercentilesLandOnTheReportedValues() {
+        LiveWindow window = new LiveWindow(60);
+        window.record(NOW, 1000, 0, 50, 120, 300);
+
+        LiveWindow.Snapshot snapshot = window.snapshot(NOW, 1);
+
+        assertEquals(1000, snapshot.getRequests());
+        assertEquals(50, snapshot.getAvgLatencyMs(), 1e-9);
+        assertWithin(50, snapshot.percentile(0.50), LiveWindow.BUCKET_RATIO);
+        assertWithin(120, snapshot.percentile(0.95), LiveWindow.BUCKET_RATIO);
+        assertWithin(300, snapshot.percentile(0.99), LiveWindow.BUCKET_RATIO);
+    }
+
+    @Test
+    void countAboveIsExactBetweenBuckets() {
+        LiveWindow window = new LiveWindow(60);
+        window.record(NOW, 1000, 0, 50, 120, 300);
+
+        LiveWindow.Snapshot snapshot = window.snapshot(NOW, 1);
+
+        // 200ms sits in an empty bucket between the p95 and the p99
+        assertEquals(20, snapshot.countAbove(200), 1e-9);
+        assertEquals(1000, snapshot.countAbove(10), 1e-9);
+        assertEquals(0, snapshot.countAbove(1000), 1e-9);
+    }
+
+    @Test
+    void countAboveInterpolatesInsideABucket() {
+        LiveWindow window = new LiveWindow(60);
+        window.record(NOW, 100, 0, 100, 0, 0);
+        int bucket = LiveWindow.bucketOf(100);
+
+        LiveWindow.Snapshot snapshot = window.snapshot(NOW, 1);
+
+        assertEquals(100, snapshot.countAbove(LiveWindow.lowerBound(bucket)), 1e-6);
+        assertEquals(0, snapshot.countAbove(LiveWindow.upperBound(bucket)), 1e-6);
+        double middle = Math.sqrt(LiveWindow.lowerBound(bucket) * LiveWindow.upperBound(bucket));
+        assertEquals(50, snapshot.countAbove(middle), 1e-6);
+    }
+
+    @Test
+    void snapshotsCoverOnlyTheirSeconds() {
+        LiveWindow window = new LiveWindow(60);
+        window.record(NOW - 1, 100, 10, 20, 0, 0);
+        window.record(NOW, 300, 0, 40, 0, 0);
+
+        assertEquals(300, window.snapshot(NOW, 1).getRequests());
+        assertEquals(400, window.snapshot(NOW, 2).getRequests());
+        assertEquals(35, window.snapshot(NOW, 2).getAvgLatencyMs(), 1e-9);
+        assertEquals(0.025, window.snapshot(NOW, 2).getErrorRate(), 1e-9);
+        assertEquals(100, window.at(NOW - 1).getRequests());
+    }
+
+    @Test
+    void slotsAreReusedOnceTheirSecondFallsOut() {
+        LiveWindow window = new LiveWindow(5);
+        window.record(NOW, 100, 0, 20, 0, 0);
+        window.record(NOW + 5, 7, 0, 20, 0, 0);
+
+        assertEquals(0, window.at(NOW).getRequests());
+        assertEquals(7, window.at(NOW + 5).getRequests());
+
+        // Too old for the window now; dropped rather than mixed into the newer second
+        window.record(NOW, 50, 0, 20, 0, 0);
+        assertEquals(7, window.at(NOW + 5).getRequests());
+        assertEquals(7, window.snapshot(NOW + 5, 60).getRequests());
+    }
+
+    private static void assertWithin(double expected, double actual, double ratio) {
+        if (actual < expected / ratio || actual > expected * ratio) {
+            throw new AssertionError(String.format("expected %.2f within a factor %.2f, was %.2f", expected, ratio, actual));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.loadtest.utils;
+
+import com.loadtest.model.Metric;
+import com.loadtest.model.ScenarioStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricStatsAccumulatorTest {
+
+    private static final Instant START = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Test
+    void countsAndAveragesWeighTheRequestCount() {
+        MetricStatsAccumulator accumulator = new MetricStatsAccumulator();
+        accumulator.add(metric(0, 10, 200, true, null, 30));
+        accumulator.add(metric(5, 40, 500, false, "timeout", 10));
+
+        ScenarioStats stats = accumulator.build("scenario-1");
+
+        assertEquals(40, stats.getTotalRequests());
+        assertEquals(30, stats.getSuccessfulRequests());
+        assertEquals(10, stats.getFailedRequests());
+        assertEquals(0.75, stats.getSuccessRate(), 1e-9);
+        assertEquals((10 * 30 + 40 * 10) / 40.0, stats.getAvgLatencyMs(), 1e-9);
+        assertEquals(10, stats.getMinLatencyMs(), 1e-9);
+        assertEquals(40, stats.getMaxLatencyMs(), 1e-9);
+        assertEquals(8, stats.getAvgRps(), 1e-9);
+        assertEquals(30L, stats.getStatusCodeDistribution().get(200));
+        assertEquals(10L, stats.getErrorTypeDistribution().get("timeout"));
+    }
+
+    @Test
+    void percentilesStayWithinTheObservedRange() {
+        MetricStatsAccumulator accumulator = new MetricStatsAccumulator();
+        for (int i = 1; i <= 1000; i++) {
+            accumulator.add(metric(i, i, 200, true, null, 1));
+        }
+
+        ScenarioStats stats = accumulator.build("scenario-1");
+
+        assertEquals(500, stats.getP50LatencyMs(), 500 * 0.03);
+        assertEquals(950, stats.getP95LatencyMs(), 950 * 0.03);
+        assertEquals(990, stats.getP99LatencyMs(), 990 * 0.03);
+        assertTrue(stats.getP99LatencyMs() <= stats.getMaxLatencyMs());
+    }
+
+    @Test
+    void emptyStatsAreZero() {
+        ScenarioStats stats = new MetricStatsAccumulator().build("scenario-1");
+
+        assertEquals(0, stats.getTotalRequests());
+        assertEquals(0, stats.getMinLatencyMs(), 1e-9);
+        assertEquals(0, stats.getP99LatencyMs(), 1e-9);
+    }
+
+    private static Metric metric(int second, long latencyMs, int status, boolean success, String error, int count) {
+        return Metric.builder()
+            .scenarioId("scenario-1")
+            .timestamp(START.plusSeconds(second))
+            .latencyMs(latencyMs)
+            .statusCode(status)
+            .success(success)
+            .errorMessage(error)
+            .requestCount(count)
+            .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.loadtest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateAllocatorTest {
+
+    private static final int UNCAPPED = Integer.MAX_VALUE;
+
+    @Test
+    void equalWeightsGiveTheRemainderToTheFirstShares() {
+        int[] caps = {UNCAPPED, UNCAPPED, UNCAPPED};
+
+        assertArrayEquals(new int[]{4, 3, 3}, RateAllocator.allocate(10, new double[]{1, 1, 1}, caps));
+        assertArrayEquals(new int[]{0, 0, 0}, RateAllocator.allocate(0, new double[]{1, 1, 1}, caps));
+    }
+
+    @Test
+    void allocateSumsExactlyByLargestRemainder() {
+        int[] shares = RateAllocator.allocate(100, new double[]{1, 2, 3}, new int[]{UNCAPPED, UNCAPPED, UNCAPPED});
+
+        assertArrayEquals(new int[]{17, 33, 50}, shares);
+        assertEquals(100, Arrays.stream(shares).sum());
+    }
+
+    @Test
+    void allocateSumsExactlyForAnyTotal() {
+        double[] weights = {0.7, 1.3, 2.9, 0.1};
+        int[] caps = {UNCAPPED, UNCAPPED, UNCAPPED, UNCAPPED};
+        for (int total = 0; total <= 1000; total++) {
+            assertEquals(total, Arrays.stream(RateAllocator.allocate(total, weights, caps)).sum(), "total " + total);
+        }
+    }
+
+    @Test
+    void allocatePinsCappedSharesAndRedistributesTheRest() {
+        int[] shares = RateAllocator.allocate(100, new double[]{1, 1, 1}, new int[]{10, UNCAPPED, UNCAPPED});
+
+        assertArrayEquals(new int[]{10, 45, 45}, shares);
+    }
+
+    @Test
+    void allocateStopsAtTheCapsWhenTheyAddUpToLess() {
+        int[] shares = RateAllocator.allocate(100, new double[]{1, 1}, new int[]{20, 30});
+
+        assertArrayEquals(new int[]{20, 30}, shares);
+    }
+
+    @Test
+    void allocateSplitsEvenlyWhenAllWeightsAreZero() {
+        int[] shares = RateAllocator.allocate(9, new double[]{0, 0, 0}, new int[]{UNCAPPED, UNCAPPED, UNCAPPED});
+
+        assertArrayEquals(new int[]{3, 3, 3}, shares);
+    }
+}
@@ -0,0 +1,112 @@
+package com.loadtest.utils;
+
+import com.loadtest.exception.InsufficientCapacityException;
+import com.loadtest.model.LoadProfile;
+import com.loadtest.model.ProfileType;
+import com.loadtest.model.RateSegment;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateScheduleCompilerTest {
+
+    private static final int UNCAPPED = Integer.MAX_VALUE;
+
+    @Test
+    void compressAndExpandRoundTrip() {
+        int[] rates = {3, 3, 3, 7, 7, 1, 1, 0};
+
+        List<RateSegment> segments = RateScheduleCompiler.compress(rates);
+
+        assertEquals(List.of(new RateSegment(0, 3), new RateSegment(3, 7), new RateSegment(5, 1), new RateSegment(7, 0)),
+            segments);
+        assertArrayEquals(rates, RateScheduleCompiler.expand(segments, 0, rates.length));
+        assertArrayEquals(new int[]{3, 7, 7, 1}, RateScheduleCompiler.expand(segments, 2, 4));
+    }
+
+    @Test
+    void rateAtHoldsTheLastSegment() {
+        List<RateSegment> segments = List.of(new RateSegment(0, 5), new RateSegment(10, 8));
+
+        assertEquals(5, RateScheduleCompiler.rateAt(segments, 9));
+        assertEquals(8, RateScheduleCompiler.rateAt(segments, 10));
+        assertEquals(8, RateScheduleCompiler.rateAt(segments, 1000));
+    }
+
+    @Test
+    void compiledSchedulesAddUpToTheAggregateEverySecond() {
+        int[] aggregate = {10, 10, 21, 21, 21, 0, 7};
+        double[] weights = {1, 1, 1};
+
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(aggregate, weights,
+            new int[]{UNCAPPED, UNCAPPED, UNCAPPED});
+
+        assertEquals(3, schedules.size());
+        for (int second = 0; second < aggregate.length; second++) {
+            int sum = 0;
+            for (List<RateSegment> schedule : schedules) {
+                sum += RateScheduleCompiler.rateAt(schedule, second);
+            }
+            assertEquals(aggregate[second], sum, "second " + second);
+        }
+        assertArrayEquals(new int[]{4, 4, 7, 7, 7, 0, 3}, RateScheduleCompiler.expand(schedules.get(0), 0, aggregate.length));
+    }
+
+    @Test
+    void compiledSchedulesOnlyChangeWhenTheWorkerRateDoes() {
+        int[] aggregate = new int[86_400];
+        Arrays.fill(aggregate, 1000);
+        double[] weights = new double[100];
+        int[] caps = new int[100];
+        Arrays.fill(weights, 1.0);
+        Arrays.fill(caps, UNCAPPED);
+
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(aggregate, weights, caps);
+
+        for (List<RateSegment> schedule : schedules) {
+            assertEquals(List.of(new RateSegment(0, 10)), schedule);
+        }
+    }
+
+    @Test
+    void compiledSchedulesRespectTheCaps() {
+        List<List<RateSegment>> schedules = RateScheduleCompiler.compile(new int[]{30}, new double[]{1, 1}, new int[]{10, 50});
+
+        assertEquals(10, RateScheduleCompiler.rateAt(schedules.get(0), 0));
+        assertEquals(20, RateScheduleCompiler.rateAt(schedules.get(1), 0));
+    }
+
+    @Test
+    void compileRejectsAnAggregateAboveTheCombinedCaps() {
+        assertThrows(InsufficientCapacityException.class,
+            () -> RateScheduleCompiler.compile(new int[]{10, 11}, new double[]{1, 1}, new int[]{5, 5}));
+    }
+
+    @Test
+    void aggregateRatesFollowARamp() {
+        LoadProfile ramp = LoadProfile.builder()
+            .type(ProfileType.RAMP)
+            .initialRps(0)
+            .targetRps(100)
+            .rampUpSeconds(10)
+            .build();
+
+        int[] rates = RateScheduleCompiler.aggregateRates(ramp, 20, 0);
+
+        assertEquals(20, rates.length);
+        assertEquals(0, rates[0]);
+        assertEquals(50, rates[5]);
+        assertEquals(100, rates[10]);
+        assertEquals(100, RateScheduleCompiler.peak(rates));
+    }
+
+    @Test
+    void aggregateRatesUseTheFallbackWithoutAProfile() {
+        assertArrayEquals(new int[]{25, 25, 25}, RateScheduleCompiler.aggregateRates(null, 3, 25));
+    }
+}
@@ -0,0 +1,80 @@
+package com.loadtest.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingAnomalyDetectorTest {
+
+    private static StreamingAnomalyDetector detector() {
+        return new StreamingAnomalyDetector(0.1, 0.5, 5, 30, 10, 1, 0.05);
+    }
+
+    @Test
+    void aStepUpStartsAnEpisodeThatEndsOnceItDrains() {
+        StreamingAnomalyDetector detector = detector();
+        List<Long> started = new ArrayList<>();
+        List<Long> ended = new ArrayList<>();
+
+        for (long second = 0; second < 600; second++) {
+            double value = second >= 100 && second < 110 ? 200 : 100;
+            StreamingAnomalyDetector.Signal signal = detector.update(second, value);
+            if (signal == StreamingAnomalyDetector.Signal.STARTED) {
+                started.add(second);
+            } else if (signal == StreamingAnomalyDetector.Signal.ENDED) {
+                ended.add(second);
+            }
+        }
+
+        assertEquals(List.of(100L), started);
+        assertEquals(1, ended.size());
+        assertTrue(ended.get(0) >= 110, "ended during the step at " + ended.get(0));
+        assertFalse(detector.isAnomalous());
+    }
+
+    @Test
+    void aFlatSeriesNeverSignals() {
+        StreamingAnomalyDetector detector = detector();
+
+        for (long second = 0; second < 300; second++) {
+            assertEquals(StreamingAnomalyDetector.Signal.NONE, detector.update(second, 100));
+        }
+        assertEquals(100, detector.getBaseline(), 1e-9);
+        assertEquals(0, detector.getScore(), 1e-9);
+    }
+
+    @Test
+    void aDropIsNotAnAnomaly() {
+        StreamingAnomalyDetector detector = detector();
+
+        for (long second = 0; second < 200; second++) {
+            assertEquals(StreamingAnomalyDetector.Signal.NONE, detector.update(second, second < 100 ? 100 : 10));
+        }
+    }
+
+    @Test
+    void nothingSignalsDuringWarmup() {
+        StreamingAnomalyDetector detector = detector();
+
+        for (long second = 0; second < 30; second++) {
+            assertEquals(StreamingAnomalyDetector.Signal.NONE, detector.update(second, second % 2 == 0 ? 1 : 1000));
+        }
+    }
+
+    @Test
+    void theWindowKeepsTheLastPointsOldestFirst() {
+        StreamingAnomalyDetector detector = detector();
+        for (long second = 0; second < 15; second++) {
+            detector.update(second, second * 10);
+        }
+
+        assertArrayEquals(new long[]{5, 6, 7, 8, 9, 10, 11, 12, 13, 14}, detector.windowSeconds());
+        assertArrayEquals(new double[]{50, 60, 70, 80, 90, 100, 110, 120, 130, 140}, detector.windowValues(), 1e-9);
+    }
+}
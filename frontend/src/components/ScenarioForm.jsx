@@ -305,6 +305,41 @@ const ScenarioForm = ({ scenario, onChange, onSubmit, onCancel, creating }) => {
                   </div>
                 </>
               )}
+
+              {scenario.loadProfile.type === 'ADAPTIVE' && (
+                <>
+                  <div>
+                    <label className="label">Max RPS</label>
+                    <input
+                      type="number"
+                      className="input-field"
+                      value={scenario.loadProfile.targetRps}
+                      onChange={(e) => updateLoadProfile('targetRps', parseInt(e.target.value))}
+                      min="1"
+                    />
+                  </div>
+                  <div>
+                    <label className="label">Step (RPS)</label>
+                    <input
+                      type="number"
+                      className="input-field"
+                      value={scenario.loadProfile.stepRps}
+                      onChange={(e) => updateLoadProfile('stepRps', parseInt(e.target.value))}
+                      min="1"
+                    />
+                  </div>
+                  <div>
+                    <label className="label">Hold Period (seconds)</label>
+                    <input
+                      type="number"
+                      className="input-field"
+                      value={scenario.loadProfile.holdSeconds}
+                      onChange={(e) => updateLoadProfile('holdSeconds', parseInt(e.target.value))}
+                      min="1"
+                    />
+                  </div>
+                </>
+              )}
             </div>
 
             {/* Burst Configuration */}
@@ -6,6 +6,7 @@ export const LOAD_PROFILE_TYPES = [
   { value: 'RAMP', label: 'Ramp Up' },
   { value: 'BURST', label: 'Burst Traffic' },
   { value: 'SPIKE', label: 'Spike Test' },
+  { value: 'ADAPTIVE', label: 'Find Max Throughput' },
 ];
 
 export const ENVIRONMENTS = [
@@ -0,0 +1,23 @@
+#!/bin/bash
+# Compares blocking vs reactive (auto-pipelined) Redis queue throughput
+# of the controller at increasing concurrency.
+#
+# Usage: ./scripts/benchmark-redis.sh [redis-host] [redis-port]
+
+REDIS_HOST=${1:-localhost}
+REDIS_PORT=${2:-6379}
+
+# The benchmark lives in the test sources so it never ships in the jar; it
+# runs on the test classpath, where component scanning picks it up.
+echo "Building controller..."
+(cd controller && mvn -q -DskipTests test-compile dependency:build-classpath \
+  -Dmdep.outputFile=target/benchmark.classpath) || exit 1
+
+CLASSPATH="controller/target/test-classes:controller/target/classes:$(cat controller/target/benchmark.classpath)"
+
+java -cp "$CLASSPATH" com.loadtest.LoadTestApplication \
+  --spring.profiles.active=redis-benchmark \
+  --spring.main.web-application-type=none \
+  --spring.data.redis.host="$REDIS_HOST" \
+  --spring.data.redis.port="$REDIS_PORT" \
+  2>&1 | grep RedisQueueBenchmark
@@ -0,0 +1,26 @@
+#!/bin/bash
+# Compares platform vs virtual threads on the controller's dashboard and
+# ingest paths at increasing concurrency, and reports virtual threads that
+# get pinned to their carrier (synchronized blocks around blocking calls).
+#
+# Usage: ./scripts/benchmark-threads.sh [mongo-uri] [redis-host] [redis-port]
+
+MONGO_URI=${1:-mongodb://localhost:27017/loadtest}
+REDIS_HOST=${2:-localhost}
+REDIS_PORT=${3:-6379}
+
+# The benchmark lives in the test sources so it never ships in the jar; it
+# runs on the test classpath, where component scanning picks it up.
+echo "Building controller..."
+(cd controller && mvn -q -DskipTests test-compile dependency:build-classpath \
+  -Dmdep.outputFile=target/benchmark.classpath) || exit 1
+
+CLASSPATH="controller/target/test-classes:controller/target/classes:$(cat controller/target/benchmark.classpath)"
+
+java -Djdk.tracePinnedThreads=short -cp "$CLASSPATH" com.loadtest.LoadTestApplication \
+  --spring.profiles.active=thread-benchmark \
+  --spring.main.web-application-type=none \
+  --spring.data.mongodb.uri="$MONGO_URI" \
+  --spring.data.redis.host="$REDIS_HOST" \
+  --spring.data.redis.port="$REDIS_PORT" \
+  2>&1 | grep -E "ThreadModelBenchmark|onPinned|<== monitors"
@@ -1,5 +1,7 @@
 use anyhow::{Context, Result};
 use redis::{Client, aio::ConnectionManager};
+use std::collections::hash_map::DefaultHasher;
+use std::hash::{Hash, Hasher};
 use crate::config::RedisConfig;
 use tracing::info;
 
@@ -7,6 +9,9 @@ use tracing::info;
 pub struct RedisClient {
     client: Client,
     manager: ConnectionManager,
+    // Dedicated connection for blocking pops so they never stall
+    // heartbeats and result pushes multiplexed on `manager`.
+    blocking: ConnectionManager,
     config: RedisConfig,
 }
 
@@ -19,22 +24,52 @@ impl RedisClient {
         let manager = client.get_tokio_connection_manager().await
             .context("Failed to create Redis connection manager")?;
 
+        let blocking = client.get_tokio_connection_manager().await
+            .context("Failed to create Redis blocking connection")?;
+
         info!("Connected to Redis at {}", config.url);
 
         Ok(Self {
             client,
             manager,
+            blocking,
             config,
         })
     }
 
-    pub async fn pop_task(&self) -> Result<Option<String>> {
-        let mut conn = self.manager.clone();
-        let result: Option<String> = redis::cmd("LPOP")
-            .arg(&self.config.task_queue)
+    /// Queues this worker pops from, in priority order: its own inbox, then
+    /// every shard starting at its home shard, then the shared fallback queue.
+    /// Starting at a per-worker shard keeps workers off each other's keys.
+    pub fn task_queues(&self, worker_id: &str) -> Vec<String> {
+        let base = &self.config.task_queue;
+        let mut queues = vec![format!("{}:worker:{}", base, worker_id)];
+
+        let shards = self.config.task_shards;
+        if shards > 0 {
+            let mut hasher = DefaultHasher::new();
+            worker_id.hash(&mut hasher);
+            let home = (hasher.finish() % shards as u64) as usize;
+            for i in 0..shards {
+                queues.push(format!("{}:shard:{}", base, (home + i) % shards));
+            }
+        }
+
+        queues.push(base.clone());
+        queues
+    }
+
+    /// Pops the first available task from `queues` with a single BLMPOP,
+    /// waiting up to `pop_timeout_seconds` for one to arrive.
+    pub async fn pop_task(&self, queues: &[String]) -> Result<Option<String>> {
+        let mut conn = self.blocking.clone();
+        let result: Option<(String, Vec<String>)> = redis::cmd("BLMPOP")
+            .arg(self.config.pop_timeout_seconds)
+            .arg(queues.len())
+            .arg(queues)
+            .arg("LEFT")
             .query_async(&mut conn)
             .await?;
-        Ok(result)
+        Ok(result.and_then(|(_, mut items)| items.pop()))
     }
 
     pub async fn push_result(&self, json: &str) -> Result<()> {
@@ -57,13 +92,72 @@ impl RedisClient {
         Ok(())
     }
 
-    pub async fn is_cancelled(&self, task_id: &str) -> Result<bool> {
+    /// Opens a dedicated pub/sub connection subscribed to the control channel.
+    pub async fn subscribe_control(&self) -> Result<redis::aio::PubSub> {
+        let conn = self.client.get_async_connection().await
+            .context("Failed to open Redis pub/sub connection")?;
+        let mut pubsub = conn.into_pubsub();
+        pubsub.subscribe(&self.config.control_channel).await?;
+        Ok(pubsub)
+    }
+
+    /// Checks the execution-level tombstone written alongside every cancellation.
+    pub async fn is_cancelled(&self, execution_id: &str) -> Result<bool> {
         let mut conn = self.manager.clone();
-        let key = format!("task:cancellation:{}", task_id);
+        let key = format!("{}:{}", self.config.cancel_prefix, execution_id);
         let exists: bool = redis::cmd("EXISTS")
             .arg(&key)
             .query_async(&mut conn)
             .await?;
         Ok(exists)
     }
+
+    /// Checks the per-task tombstones written when tasks are moved off a
+    /// worker that was presumed lost.
+    pub async fn is_task_revoked(&self, execution_id: &str, task_id: &str) -> Result<bool> {
+        let mut conn = self.manager.clone();
+        let key = format!("{}:{}:tasks", self.config.cancel_prefix, execution_id);
+        let member: bool = redis::cmd("SISMEMBER")
+            .arg(&key)
+            .arg(task_id)
+            .query_async(&mut conn)
+            .await?;
+        Ok(member)
+    }
+
+    /// Current start epoch (ms) of a coordinated execution, if it has one.
+    /// It replaces the task's startTime when the controller reschedules.
+    pub async fn get_start_epoch(&self, execution_id: &str) -> Result<Option<i64>> {
+        let mut conn = self.manager.clone();
+        let key = format!("{}:{}", self.config.start_prefix, execution_id);
+        let epoch: Option<i64> = redis::cmd("GET")
+            .arg(&key)
+            .query_async(&mut conn)
+            .await?;
+        Ok(epoch)
+    }
+
+    /// Tells the controller this task is popped and waiting for its start.
+    pub async fn ack_ready(&self, execution_id: &str, task_id: &str) -> Result<()> {
+        let mut conn = self.manager.clone();
+        let key = format!("{}:{}:ready", self.config.start_prefix, execution_id);
+        redis::pipe()
+            .zadd(&key, task_id, chrono::Utc::now().timestamp_millis())
+            .expire(&key, 600)
+            .query_async::<_, ()>(&mut conn)
+            .await?;
+        Ok(())
+    }
+
+    /// Records how long a cancellation took to reach this worker.
+    pub async fn ack_cancellation(&self, execution_id: &str, worker_id: &str, latency_ms: i64) -> Result<()> {
+        let mut conn = self.manager.clone();
+        let key = format!("{}:{}:acks", self.config.cancel_prefix, execution_id);
+        redis::pipe()
+            .zadd(&key, worker_id, latency_ms)
+            .expire(&key, 600)
+            .query_async::<_, ()>(&mut conn)
+            .await?;
+        Ok(())
+    }
 }
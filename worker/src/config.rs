@@ -17,6 +17,14 @@ pub struct RedisConfig {
     pub task_queue: String,
     pub result_queue: String,
     pub heartbeat_key: String,
+    /// Number of `{task_queue}:shard:{n}` lists; 0 disables sharding.
+    pub task_shards: usize,
+    pub pop_timeout_seconds: u64,
+    pub control_channel: String,
+    pub cancel_prefix: String,
+    /// `{start_prefix}:{execution}` holds a coordinated start epoch (ms),
+    /// `{start_prefix}:{execution}:ready` collects readiness acks.
+    pub start_prefix: String,
 }
 
 #[derive(Debug, Deserialize, Clone)]
@@ -37,6 +45,9 @@ pub struct LimitsConfig {
     pub max_concurrent_tasks: usize,
     pub max_virtual_users: usize,
     pub heartbeat_interval_seconds: u64,
+    // Without a heartbeat written for this long the controller has moved
+    // our tasks elsewhere; match the controller's loadtest.worker.timeout
+    pub lease_timeout_seconds: u64,
 }
 
 impl Settings {
@@ -50,6 +61,11 @@ impl Settings {
             .set_default("redis.task_queue", "loadtest:tasks")?
             .set_default("redis.result_queue", "loadtest:results")?
             .set_default("redis.heartbeat_key", "loadtest:heartbeat")?
+            .set_default("redis.task_shards", 0)?
+            .set_default("redis.pop_timeout_seconds", 1)?
+            .set_default("redis.control_channel", "loadtest:control")?
+            .set_default("redis.cancel_prefix", "loadtest:cancel")?
+            .set_default("redis.start_prefix", "loadtest:start")?
             
             .set_default("http.timeout_seconds", 30)?
             .set_default("http.max_idle_connections", 100)?
@@ -61,6 +77,7 @@ impl Settings {
             .set_default("limits.max_concurrent_tasks", 1)?
             .set_default("limits.max_virtual_users", 5000)?
             .set_default("limits.heartbeat_interval_seconds", 5)?
+            .set_default("limits.lease_timeout_seconds", 30)?
 
             // Add environment variables (overrides)
             // e.g. APP_REDIS__URL=...
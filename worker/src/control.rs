@@ -0,0 +1,161 @@
+use std::collections::HashMap;
+use std::sync::{Arc, Mutex};
+use std::sync::atomic::{AtomicBool, AtomicI64, AtomicU32, Ordering};
+use futures_util::StreamExt;
+use tokio::task::JoinHandle;
+use tokio::time::{sleep, Duration};
+use tracing::{error, info, warn};
+
+use crate::clients::redis::RedisClient;
+use crate::models::{ControlMessage, ControlType};
+
+/// Marks a rate override slot as unset; the task follows its own schedule.
+pub const NO_RATE_OVERRIDE: u32 = u32::MAX;
+
+/// Control handles of a task this worker is currently running.
+#[derive(Clone)]
+pub struct TaskControl {
+    pub cancelled: Arc<AtomicBool>,
+    pub rate_override: Arc<AtomicU32>,
+    /// Epoch millis the task must not start before; moved by START messages.
+    pub start_at: Arc<AtomicI64>,
+    task_id: String,
+}
+
+/// Control handles of the executions this worker is currently running.
+#[derive(Clone, Default)]
+pub struct ControlRegistry {
+    running: Arc<Mutex<HashMap<String, TaskControl>>>,
+}
+
+impl ControlRegistry {
+    pub fn register(&self, execution_id: &str, task_id: &str) -> TaskControl {
+        let control = TaskControl {
+            cancelled: Arc::new(AtomicBool::new(false)),
+            rate_override: Arc::new(AtomicU32::new(NO_RATE_OVERRIDE)),
+            start_at: Arc::new(AtomicI64::new(0)),
+            task_id: task_id.to_string(),
+        };
+        self.running.lock().unwrap().insert(execution_id.to_string(), control.clone());
+        control
+    }
+
+    pub fn unregister(&self, execution_id: &str) {
+        self.running.lock().unwrap().remove(execution_id);
+    }
+
+    fn cancel(&self, execution_id: &str) -> bool {
+        match self.running.lock().unwrap().get(execution_id) {
+            Some(control) => {
+                control.cancelled.store(true, Ordering::Relaxed);
+                true
+            }
+            None => false,
+        }
+    }
+
+    fn revoke(&self, execution_id: &str, task_ids: &[String]) -> Option<String> {
+        let running = self.running.lock().unwrap();
+        let control = running.get(execution_id)?;
+        if !task_ids.contains(&control.task_id) {
+            return None;
+        }
+        control.cancelled.store(true, Ordering::Relaxed);
+        Some(control.task_id.clone())
+    }
+
+    /// Stops every running task. Returns how many there were.
+    pub fn cancel_all(&self) -> usize {
+        let running = self.running.lock().unwrap();
+        for control in running.values() {
+            control.cancelled.store(true, Ordering::Relaxed);
+        }
+        running.len()
+    }
+
+    fn set_start(&self, execution_id: &str, start_at: i64) -> bool {
+        match self.running.lock().unwrap().get(execution_id) {
+            Some(control) => {
+                control.start_at.store(start_at, Ordering::Relaxed);
+                true
+            }
+            None => false,
+        }
+    }
+
+    fn set_rate(&self, execution_id: &str, task_rates: &HashMap<String, u32>) -> Option<u32> {
+        let running = self.running.lock().unwrap();
+        let control = running.get(execution_id)?;
+        let rps = *task_rates.get(&control.task_id)?;
+        control.rate_override.store(rps, Ordering::Relaxed);
+        Some(rps)
+    }
+}
+
+/// Listens on the controller's control channel and applies execution-level
+/// commands to the tasks running on this worker. Reconnects if the
+/// subscription drops; the tombstone check in the worker covers the gap.
+pub fn start_control_listener(redis: RedisClient, registry: ControlRegistry, worker_id: String) -> JoinHandle<()> {
+    tokio::spawn(async move {
+        loop {
+            match redis.subscribe_control().await {
+                Ok(mut pubsub) => {
+                    info!("Subscribed to control channel");
+                    let mut messages = pubsub.on_message();
+                    while let Some(msg) = messages.next().await {
+                        let payload: String = match msg.get_payload() {
+                            Ok(p) => p,
+                            Err(e) => {
+                                warn!("Unreadable control message: {}", e);
+                                continue;
+                            }
+                        };
+                        match serde_json::from_str::<ControlMessage>(&payload) {
+                            Ok(message) => handle_message(&redis, &registry, &worker_id, message).await,
+                            Err(e) => warn!("Ignoring malformed control message: {}", e),
+                        }
+                    }
+                    warn!("Control channel subscription closed, reconnecting");
+                }
+                Err(e) => error!("Failed to subscribe to control channel: {}", e),
+            }
+            sleep(Duration::from_secs(1)).await;
+        }
+    })
+}
+
+async fn handle_message(redis: &RedisClient, registry: &ControlRegistry, worker_id: &str, message: ControlMessage) {
+    match message.control_type {
+        ControlType::CANCEL => {
+            if registry.cancel(&message.execution_id) {
+                let latency_ms = chrono::Utc::now().timestamp_millis() - message.issued_at;
+                warn!("Execution {} cancelled by coordinator ({} ms after issue)", message.execution_id, latency_ms);
+                if let Err(e) = redis.ack_cancellation(&message.execution_id, worker_id, latency_ms).await {
+                    warn!("Failed to acknowledge cancellation: {}", e);
+                }
+            }
+        }
+        ControlType::RATE => {
+            if let Some(task_rates) = &message.task_rates {
+                if let Some(rps) = registry.set_rate(&message.execution_id, task_rates) {
+                    info!("Execution {} rate set to {} RPS by coordinator", message.execution_id, rps);
+                }
+            }
+        }
+        ControlType::START => {
+            if let Some(start_at) = message.start_at {
+                if registry.set_start(&message.execution_id, start_at) {
+                    info!("Execution {} start moved to {}", message.execution_id, start_at);
+                }
+            }
+        }
+        ControlType::REVOKE => {
+            if let Some(task_ids) = &message.task_ids {
+                if let Some(task_id) = registry.revoke(&message.execution_id, task_ids) {
+                    warn!("Task {} of execution {} revoked by coordinator", task_id, message.execution_id);
+                }
+            }
+        }
+        ControlType::Unknown => {}
+    }
+}
@@ -1,5 +1,5 @@
 use std::sync::Arc;
-use std::sync::atomic::{AtomicBool, Ordering};
+use std::sync::atomic::{AtomicBool, AtomicU32, Ordering};
 use std::sync::RwLock;
 use std::time::{Duration, Instant};
 use anyhow::Result;
@@ -10,8 +10,13 @@ use std::num::NonZeroU32;
 
 use crate::models::{WorkerTask, WorkerResult, HttpMethod, ProfileType};
 use crate::clients::http::HttpClient;
+use crate::control::NO_RATE_OVERRIDE;
 use crate::metrics::MetricsCollector;
 
+/// A second counts as saturated when fewer than this share of the target's
+/// requests went out.
+const SATURATION_RATIO: f64 = 0.9;
+
 pub struct TaskExecutor {
     http_client: HttpClient,
     worker_id: String,
@@ -26,7 +31,8 @@ impl TaskExecutor {
         &self, 
         task: WorkerTask, 
         progress_callback: impl Fn(WorkerResult) + Send + Sync + 'static,
-        is_cancelled: Arc<AtomicBool>
+        is_cancelled: Arc<AtomicBool>,
+        rate_override: Arc<AtomicU32>,
     ) -> Result<()> {
         let initial_target_rps = get_target_rps(&task, 0);
         info!(
@@ -40,6 +46,9 @@ impl TaskExecutor {
         let initial_limiter = Arc::new(RateLimiter::direct(quota));
         
         let limiter_lock = Arc::new(RwLock::new(initial_limiter));
+        // A schedule may hold a worker at zero for a while; the limiter cannot express that
+        let paused = Arc::new(AtomicBool::new(initial_target_rps == 0));
+        let current_target = Arc::new(AtomicU32::new(initial_target_rps));
         
         // Shared metrics across threads
         let metrics = Arc::new(Mutex::new(MetricsCollector::new()));
@@ -54,15 +63,25 @@ impl TaskExecutor {
         let task_id_clone = task.task_id.clone();
         let worker_id_clone = self.worker_id.clone();
         let callback_clone = Arc::new(progress_callback);
+        let target_clone = current_target.clone();
         
         let reporter_handle = tokio::spawn(async move {
             let mut interval = tokio::time::interval(Duration::from_secs(1));
+            // The first tick fires at once; a second is only judged once it
+            // ran whole at an unchanged target
+            let mut previous_target: Option<u32> = None;
             loop {
                 interval.tick().await;
+                let target = target_clone.load(Ordering::Relaxed);
+                let steady = previous_target == Some(target);
+                previous_target = Some(target);
                 let mut m = metrics_clone.lock().await;
                 let stats = m.get_stats();
                 
                 if stats.count > 0 {
+                    let saturated = steady
+                        && target > 0
+                        && (stats.count as f64) < target as f64 * SATURATION_RATIO;
                     let result = WorkerResult {
                         task_id: task_id_clone.clone(),
                         worker_id: worker_id_clone.clone(),
@@ -78,6 +97,8 @@ impl TaskExecutor {
                         p99_latency_ms: stats.p99 as f64 / 1000.0,
                         max_latency_ms: stats.max as f64 / 1000.0,
                         actual_rps: stats.count as f64, // Approximate per second since we reset
+                        target_rps: target,
+                        saturated,
                         status_codes: stats.status_codes,
                         error_types: stats.error_types,
                         error_msg: None,
@@ -91,6 +112,8 @@ impl TaskExecutor {
 
         // Dynamic rate profile updater loop
         let limiter_lock_clone = limiter_lock.clone();
+        let paused_clone = paused.clone();
+        let target_updater = current_target.clone();
         let task_clone = task.clone();
         let start_time_clone = start_time.clone();
         let mut last_rps = initial_target_rps;
@@ -100,9 +123,15 @@ impl TaskExecutor {
             loop {
                 interval.tick().await;
                 let elapsed = start_time_clone.elapsed().as_secs() as u32;
-                let current_target_rps = get_target_rps(&task_clone, elapsed);
+                // A rate pushed by the coordinator replaces the task's own schedule
+                let current_target_rps = match rate_override.load(Ordering::Relaxed) {
+                    NO_RATE_OVERRIDE => get_target_rps(&task_clone, elapsed),
+                    rps => rps,
+                };
                 if current_target_rps != last_rps {
                     info!("Updating target RPS from {} to {}", last_rps, current_target_rps);
+                    paused_clone.store(current_target_rps == 0, Ordering::Relaxed);
+                    target_updater.store(current_target_rps, Ordering::Relaxed);
                     let rps = NonZeroU32::new(current_target_rps).unwrap_or(NonZeroU32::new(1).unwrap());
                     let quota = Quota::per_second(rps);
                     let new_limiter = Arc::new(RateLimiter::direct(quota));
@@ -117,7 +146,12 @@ impl TaskExecutor {
 
         // Load Generation Loop
         // We spawn distinct tasks up to RPS to ensure parallelism, but use the limiter to control rate.
-        let concurrency = std::cmp::min(5000, std::cmp::max(50, task.rps / 10));
+        // ADAPTIVE tasks may be pushed well past their starting rate, so size for the search ceiling
+        let peak_rps = match &task.load_profile {
+            Some(lp) if lp.profile_type == ProfileType::ADAPTIVE => std::cmp::max(task.rps, lp.target_rps),
+            _ => task.rps,
+        };
+        let concurrency = std::cmp::min(5000, std::cmp::max(50, peak_rps / 10));
         let mut handles = Vec::new();
         
         info!("Calculated concurrency: {} for RPS: {}", concurrency, task.rps);
@@ -129,8 +163,13 @@ impl TaskExecutor {
             let metrics = metrics.clone();
             
             let is_cancelled_clone = is_cancelled.clone();
+            let paused = paused.clone();
             handles.push(tokio::spawn(async move {
                 while start_time.elapsed() < duration && !is_cancelled_clone.load(Ordering::Relaxed) {
+                    if paused.load(Ordering::Relaxed) {
+                        tokio::time::sleep(Duration::from_millis(50)).await;
+                        continue;
+                    }
                     // Wait for permission from the active limiter
                     let active_limiter = {
                         let guard = limiter_lock_ref.read().unwrap();
@@ -217,6 +256,15 @@ impl TaskExecutor {
 
 /// Computes the target RPS at a given second of execution based on the task's load profile.
 pub fn get_target_rps(task: &WorkerTask, elapsed_seconds: u32) -> u32 {
+    if let Some(schedule) = task.schedule.as_ref().filter(|s| !s.is_empty()) {
+        return schedule
+            .iter()
+            .take_while(|segment| segment.offset_seconds <= elapsed_seconds)
+            .last()
+            .map(|segment| segment.rps)
+            .unwrap_or(0);
+    }
+
     let load_profile = match &task.load_profile {
         Some(lp) => lp,
         None => return task.rps,
@@ -268,13 +316,15 @@ pub fn get_target_rps(task: &WorkerTask, elapsed_seconds: u32) -> u32 {
             }
             load_profile.initial_rps
         }
+        // Starting rate; the coordinator pushes every later step
+        ProfileType::ADAPTIVE => load_profile.initial_rps,
     }
 }
 
 #[cfg(test)]
 mod tests {
     use super::*;
-    use crate::models::{HttpMethod, LoadProfile, BurstConfig};
+    use crate::models::{HttpMethod, LoadProfile, BurstConfig, RateSegment};
     use std::collections::HashMap;
 
     fn create_test_task(load_profile: Option<LoadProfile>) -> WorkerTask {
@@ -291,6 +341,8 @@ mod tests {
             timeout_seconds: None,
             ignore_tls_errors: None,
             load_profile,
+            start_time: None,
+            schedule: None,
         }
     }
 
@@ -378,4 +430,27 @@ mod tests {
         assert_eq!(get_target_rps(&task, 49), 300);
         assert_eq!(get_target_rps(&task, 50), 20);
     }
+
+    #[test]
+    fn test_get_target_rps_schedule_overrides_profile() {
+        let profile = LoadProfile {
+            profile_type: ProfileType::CONSTANT,
+            initial_rps: 10,
+            target_rps: 50,
+            ramp_up_seconds: 0,
+            bursts: None,
+        };
+        let mut task = create_test_task(Some(profile));
+        task.schedule = Some(vec![
+            RateSegment { offset_seconds: 0, rps: 34 },
+            RateSegment { offset_seconds: 10, rps: 0 },
+            RateSegment { offset_seconds: 20, rps: 334 },
+        ]);
+
+        assert_eq!(get_target_rps(&task, 0), 34);
+        assert_eq!(get_target_rps(&task, 9), 34);
+        assert_eq!(get_target_rps(&task, 10), 0);
+        assert_eq!(get_target_rps(&task, 20), 334);
+        assert_eq!(get_target_rps(&task, 59), 334);
+    }
 }
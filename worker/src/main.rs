@@ -1,5 +1,6 @@
 mod clients;
 mod config;
+mod control;
 mod engine;
 mod metrics;
 mod models;
@@ -16,6 +16,7 @@ pub enum HttpMethod {
 #[derive(Debug, Clone, Serialize, Deserialize)]
 pub struct WorkerTask {
     pub task_id: String,
+    #[serde(alias = "executionId")]
     pub execution_id: String,
     pub target_url: String,
     pub method: HttpMethod,
@@ -29,6 +30,20 @@ pub struct WorkerTask {
     #[serde(default)]
     pub ignore_tls_errors: Option<bool>,
     pub load_profile: Option<LoadProfile>,
+    // Wall-clock start; in coordinated mode it is in the future and shared by all tasks
+    #[serde(rename = "startTime", default)]
+    pub start_time: Option<DateTime<Utc>>,
+    // Per-worker rate schedule compiled by the controller; overrides load_profile
+    #[serde(default)]
+    pub schedule: Option<Vec<RateSegment>>,
+}
+
+/// Rate that applies from `offset_seconds` after start until the next segment.
+#[derive(Debug, Clone, Serialize, Deserialize)]
+pub struct RateSegment {
+    #[serde(rename = "offsetSeconds")]
+    pub offset_seconds: u32,
+    pub rps: u32,
 }
 
 #[derive(Debug, Clone, PartialEq, Serialize, Deserialize)]
@@ -38,6 +53,7 @@ pub enum ProfileType {
     RampUp,
     SPIKE,
     BURST,
+    ADAPTIVE,
 }
 
 #[derive(Debug, Clone, Serialize, Deserialize)]
@@ -84,6 +100,13 @@ pub struct WorkerResult {
     
     // Throughput
     pub actual_rps: f64,
+    // Rate the schedule asked for during this second
+    #[serde(default)]
+    pub target_rps: u32,
+    // Fell short of a steady target, so actual_rps is what the worker could
+    // do rather than what it was asked for
+    #[serde(default)]
+    pub saturated: bool,
     
     // Status codes tracking
     pub status_codes: HashMap<u16, u64>,
@@ -95,7 +118,38 @@ pub struct WorkerResult {
     pub error_msg: Option<String>,
 }
 
+#[derive(Debug, Clone, PartialEq, Serialize, Deserialize)]
+pub enum ControlType {
+    CANCEL,
+    RATE,
+    START,
+    REVOKE,
+    #[serde(other)]
+    Unknown,
+}
+
+/// Execution-scoped command published by the controller on the control channel.
+#[derive(Debug, Clone, Serialize, Deserialize)]
+pub struct ControlMessage {
+    #[serde(rename = "type")]
+    pub control_type: ControlType,
+    #[serde(rename = "executionId")]
+    pub execution_id: String,
+    #[serde(rename = "issuedAt")]
+    pub issued_at: i64,
+    // RATE: new requests per second keyed by task id
+    #[serde(rename = "taskRates", default)]
+    pub task_rates: Option<HashMap<String, u32>>,
+    // START: new start epoch in epoch millis
+    #[serde(rename = "startAt", default)]
+    pub start_at: Option<i64>,
+    // REVOKE: tasks to stop, the rest of the execution keeps running
+    #[serde(rename = "taskIds", default)]
+    pub task_ids: Option<Vec<String>>,
+}
+
 #[derive(Debug, Clone, Serialize, Deserialize)]
+#[serde(rename_all = "UPPERCASE")]
 pub enum WorkerStatus {
     Idle,
     Busy,
@@ -103,7 +157,9 @@ pub enum WorkerStatus {
     Offline,
 }
 
+// Field names match the controller's WorkerHeartbeat so it can read the registry.
 #[derive(Debug, Serialize, Deserialize)]
+#[serde(rename_all = "camelCase")]
 pub struct WorkerHeartbeat {
     pub worker_id: String,
     pub timestamp: DateTime<Utc>,
@@ -113,4 +169,8 @@ pub struct WorkerHeartbeat {
     pub cpu_usage: f32,
     pub memory_usage_mb: u64,
     pub active_threads: usize,
+    // Achieved per-second throughput the last time this worker fell short of
+    // its target, 0 if it never has. A ceiling measured at saturation, not
+    // the highest rate it was asked for.
+    pub saturated_rps: f64,
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 use anyhow::Result;
 use std::sync::Arc;
-use std::sync::atomic::{AtomicBool, Ordering};
+use std::sync::atomic::{AtomicBool, AtomicU64, Ordering};
 use tokio::sync::Mutex as TokioMutex;
 use tokio::time::{sleep, Duration};
 use tracing::{info, warn, error, instrument};
@@ -15,8 +15,9 @@ struct WorkerState {
 use crate::config::Settings;
 use crate::clients::redis::RedisClient;
 use crate::clients::http::HttpClient;
+use crate::control::{start_control_listener, ControlRegistry, TaskControl};
 use crate::engine::TaskExecutor;
-use crate::models::{WorkerHeartbeat, WorkerStatus, WorkerTask};
+use crate::models::{WorkerHeartbeat, WorkerResult, WorkerStatus, WorkerTask};
 
 pub struct WorkerService {
     config: Settings,
@@ -24,6 +25,8 @@ pub struct WorkerService {
     http: HttpClient,
     system: System,
     state: Arc<TokioMutex<WorkerState>>,
+    control: ControlRegistry,
+    saturated_rps: Arc<AtomicU64>,
 }
 
 impl WorkerService {
@@ -42,6 +45,8 @@ impl WorkerService {
             http,
             system: System::new_all(),
             state,
+            control: ControlRegistry::default(),
+            saturated_rps: Arc::new(AtomicU64::new(0)),
         })
     }
 
@@ -49,9 +54,13 @@ impl WorkerService {
         info!("Worker {} started. Waiting for tasks...", self.config.worker_id);
 
         self.start_heartbeat_loop();
+        start_control_listener(self.redis.clone(), self.control.clone(), self.config.worker_id.clone());
+
+        let queues = self.redis.task_queues(&self.config.worker_id);
+        info!("Listening on task queues: {:?}", queues);
 
         loop {
-            match self.redis.pop_task().await {
+            match self.redis.pop_task(&queues).await {
                 Ok(Some(task_json)) => {
                     match serde_json::from_str::<WorkerTask>(&task_json) {
                         Ok(task) => self.process_task(task).await?,
@@ -59,8 +68,7 @@ impl WorkerService {
                     }
                 }
                 Ok(None) => {
-                    // Backoff strategy could be implemented here
-                    sleep(Duration::from_millis(500)).await;
+                    // BLMPOP already waited for the pop timeout
                 }
                 Err(e) => {
                     error!("Redis error: {}", e);
@@ -79,9 +87,13 @@ impl WorkerService {
         // We need a fresh system object or shared state for metrics if we want real cpu usage
         // For simplicity, passing a clone, but note System::refresh is needed
         let state_clone = self.state.clone();
+        let saturated_rps = self.saturated_rps.clone();
+        let control = self.control.clone();
+        let lease_timeout = Duration::from_secs(self.config.limits.lease_timeout_seconds);
         
         tokio::spawn(async move {
             let mut sys = System::new();
+            let mut last_beat = std::time::Instant::now();
             loop {
                 sys.refresh_cpu();
                 sys.refresh_memory();
@@ -100,12 +112,22 @@ impl WorkerService {
                     cpu_usage,
                     memory_usage_mb: memory_usage / 1024 / 1024,
                     active_threads: 1,
+                    saturated_rps: saturated_rps.load(Ordering::Relaxed) as f64,
                 };
                 
                 if let Ok(json) = serde_json::to_string(&heartbeat) {
                     let key = format!("{}:{}", heartbeat_key, worker_id);
-                    if let Err(e) = redis.update_heartbeat(&key, &json, 60).await {
-                        warn!("Failed to send heartbeat: {}", e);
+                    match redis.update_heartbeat(&key, &json, 60).await {
+                        Ok(_) => last_beat = std::time::Instant::now(),
+                        Err(e) => warn!("Failed to send heartbeat: {}", e),
+                    }
+                }
+                // Past the lease the controller has reissued our tasks to other
+                // workers; carrying on would double the load on the target
+                if last_beat.elapsed() > lease_timeout {
+                    let stopped = control.cancel_all();
+                    if stopped > 0 {
+                        warn!("No heartbeat written for {:?}, stopped {} task(s)", last_beat.elapsed(), stopped);
                     }
                 }
                 
@@ -114,9 +136,52 @@ impl WorkerService {
         })
     }
 
+    /// Acknowledges readiness, then holds the task until its start epoch so
+    /// every worker of a coordinated execution starts on the same second.
+    /// Returns false if the execution is cancelled while waiting.
+    async fn wait_for_start(&self, task: &WorkerTask, control: &TaskControl) -> bool {
+        if let Err(e) = self.redis.ack_ready(&task.execution_id, &task.task_id).await {
+            warn!("Failed to acknowledge readiness: {}", e);
+        }
+
+        let start_at = match self.redis.get_start_epoch(&task.execution_id).await {
+            Ok(Some(epoch)) => epoch,
+            _ => task.start_time.map(|t| t.timestamp_millis()).unwrap_or(0),
+        };
+        // A START message may already have moved it while we were reading
+        let _ = control.start_at.compare_exchange(0, start_at, Ordering::Relaxed, Ordering::Relaxed);
+
+        loop {
+            if control.cancelled.load(Ordering::Relaxed) {
+                return false;
+            }
+            let remaining = control.start_at.load(Ordering::Relaxed) - chrono::Utc::now().timestamp_millis();
+            if remaining <= 0 {
+                return true;
+            }
+            sleep(Duration::from_millis(remaining.min(50) as u64)).await;
+        }
+    }
+
     #[instrument(skip(self, task), fields(task_id = %task.task_id))]
     async fn process_task(&self, task: WorkerTask) -> Result<()> {
         info!("Processing task: {} ({} RPS)", task.task_id, task.rps);
+
+        // Register before checking the tombstone so a cancellation published
+        // in between is still delivered through the control channel.
+        let execution_id = task.execution_id.clone();
+        let control = self.control.register(&execution_id, &task.task_id);
+        let is_cancelled = control.cancelled.clone();
+        if let Ok(true) = self.redis.is_cancelled(&execution_id).await {
+            warn!("Execution {} was cancelled before task {} started", execution_id, task.task_id);
+            self.control.unregister(&execution_id);
+            return Ok(());
+        }
+        if let Ok(true) = self.redis.is_task_revoked(&execution_id, &task.task_id).await {
+            warn!("Task {} was revoked before it started", task.task_id);
+            self.control.unregister(&execution_id);
+            return Ok(());
+        }
         
         {
             let mut state = self.state.lock().await;
@@ -124,6 +189,15 @@ impl WorkerService {
             state.current_task_id = Some(task.task_id.clone());
         }
         
+        if !self.wait_for_start(&task, &control).await {
+            warn!("Execution {} was cancelled before task {} started", execution_id, task.task_id);
+            self.control.unregister(&execution_id);
+            let mut state = self.state.lock().await;
+            state.status = WorkerStatus::Idle;
+            state.current_task_id = None;
+            return Ok(());
+        }
+        
         let ignore_tls = task.ignore_tls_errors.unwrap_or(true);
         let http_client = match crate::clients::http::HttpClient::new_with_tls(&self.config.http, ignore_tls) {
             Ok(c) => c,
@@ -135,17 +209,27 @@ impl WorkerService {
         let executor = TaskExecutor::new(http_client, self.config.worker_id.clone());
         let redis = self.redis.clone();
         
-        let is_cancelled = Arc::new(AtomicBool::new(false));
+        // Slow fallback in case the control subscription was down when the
+        // cancellation was published; the pub/sub path is the primary one.
         let cancel_clone = is_cancelled.clone();
+        let execution_id_clone = execution_id.clone();
         let task_id_clone = task.task_id.clone();
         let redis_clone = self.redis.clone();
         
         let cancel_handle = tokio::spawn(async move {
-            let mut interval = tokio::time::interval(Duration::from_secs(2));
+            let mut interval = tokio::time::interval(Duration::from_secs(10));
             loop {
                 interval.tick().await;
-                if let Ok(true) = redis_clone.is_cancelled(&task_id_clone).await {
-                    warn!("Task {} was cancelled by coordinator!", task_id_clone);
+                if cancel_clone.load(Ordering::Relaxed) {
+                    break;
+                }
+                if let Ok(true) = redis_clone.is_cancelled(&execution_id_clone).await {
+                    warn!("Execution {} cancellation picked up from tombstone", execution_id_clone);
+                    cancel_clone.store(true, Ordering::Relaxed);
+                    break;
+                }
+                if let Ok(true) = redis_clone.is_task_revoked(&execution_id_clone, &task_id_clone).await {
+                    warn!("Task {} revocation picked up from tombstone", task_id_clone);
                     cancel_clone.store(true, Ordering::Relaxed);
                     break;
                 }
@@ -153,7 +237,12 @@ impl WorkerService {
         });
         
         // Callback for streaming results
-        let callback = move |result| {
+        let saturated_rps = self.saturated_rps.clone();
+        let callback = move |result: WorkerResult| {
+             // Only a shortfall says anything about this worker's ceiling
+             if result.saturated {
+                 saturated_rps.store(result.actual_rps as u64, Ordering::Relaxed);
+             }
              let redis = redis.clone();
              tokio::spawn(async move {
                  if let Ok(json) = serde_json::to_string(&result) {
@@ -164,12 +253,13 @@ impl WorkerService {
              });
         };
 
-        match executor.execute(task, callback, is_cancelled).await {
+        match executor.execute(task, callback, is_cancelled, control.rate_override.clone()).await {
             Ok(_) => info!("Task completed"),
             Err(e) => error!("Task failed: {}", e),
         }
         
         cancel_handle.abort();
+        self.control.unregister(&execution_id);
         
         {
             let mut state = self.state.lock().await;